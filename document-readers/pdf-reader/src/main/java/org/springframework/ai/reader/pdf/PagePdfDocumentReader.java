@@ -21,9 +21,12 @@ import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
-import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 
@@ -40,11 +43,16 @@ import org.springframework.util.StringUtils;
  * Groups the parsed PDF pages into {@link Document}s. You can group one or more pages
  * into a single output document. Use {@link PdfDocumentReaderConfig} for customization
  * options. The default configuration is: - pagesPerDocument = 1 - pageTopMargin = 0 -
- * pageBottomMargin = 0
+ * pageBottomMargin = 0 - parallelism = 1
+ *
+ * With a parallelism greater than 1, the page range is split across worker threads. As
+ * PDFBox is not thread-safe, each worker parses its own copy of the PDF.
+ *
+ * The reader holds the parsed PDF until it is {@link #close() closed}.
  *
  * @author Christian Tzolov
  */
-public class PagePdfDocumentReader implements DocumentReader {
+public class PagePdfDocumentReader implements DocumentReader, AutoCloseable {
 
 	private static final String PDF_PAGE_REGION = "pdfPageRegion";
 
@@ -60,6 +68,8 @@ public class PagePdfDocumentReader implements DocumentReader {
 
 	private File resourceFileName;
 
+	private final Resource pdfResource;
+
 	public PagePdfDocumentReader(String resourceUrl) {
 		this(new DefaultResourceLoader().getResource(resourceUrl));
 	}
@@ -75,25 +85,27 @@ public class PagePdfDocumentReader implements DocumentReader {
 	public PagePdfDocumentReader(Resource pdfResource, PdfDocumentReaderConfig config) {
 
 		try {
-
-			PDFParser pdfParser = new PDFParser(
-					new org.apache.pdfbox.io.RandomAccessReadBuffer(pdfResource.getInputStream()));
-			this.document = pdfParser.parse();
-
-			this.resourceFileName = pdfResource.getFile();
+			this.pdfResource = pdfResource;
 			this.config = config;
+			this.resourceFileName = pdfResource.getFile();
+
+			this.document = loadDocument();
 		}
 		catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	private PDDocument loadDocument() throws IOException {
+		return PdfDocumentLoader.load(this.pdfResource, this.config);
+	}
+
 	@Override
 	public List<Document> get() {
 
 		List<Document> readDocuments = new ArrayList<>();
 		try {
-			var pdfTextStripper = new PDFLayoutTextStripperByArea();
+			String[] pageTexts = extractPageTexts();
 
 			int pageNumber = 0;
 			int pagesPerDocument = 0;
@@ -101,7 +113,7 @@ public class PagePdfDocumentReader implements DocumentReader {
 
 			List<String> pageTextGroupList = new ArrayList<>();
 
-			for (PDPage page : this.document.getDocumentCatalog().getPages()) {
+			for (String pageText : pageTexts) {
 
 				pagesPerDocument++;
 
@@ -117,25 +129,11 @@ public class PagePdfDocumentReader implements DocumentReader {
 
 					startPageNumber = pageNumber + 1;
 				}
-				int x0 = (int) page.getMediaBox().getLowerLeftX();
-				int xW = (int) page.getMediaBox().getWidth();
-
-				int y0 = (int) page.getMediaBox().getLowerLeftY() + this.config.pageTopMargin;
-				int yW = (int) page.getMediaBox().getHeight()
-						- (this.config.pageTopMargin + this.config.pageBottomMargin);
-
-				pdfTextStripper.addRegion(PDF_PAGE_REGION, new Rectangle(x0, y0, xW, yW));
-				pdfTextStripper.extractRegions(page);
-				var pageText = pdfTextStripper.getTextForRegion(PDF_PAGE_REGION);
-
-				if (StringUtils.hasText(pageText)) {
-
-					pageText = this.config.pageExtractedTextFormatter.format(pageText, pageNumber);
 
+				if (pageText != null) {
 					pageTextGroupList.add(pageText);
 				}
 				pageNumber++;
-				pdfTextStripper.removeRegion(PDF_PAGE_REGION);
 			}
 			if (!CollectionUtils.isEmpty(pageTextGroupList)) {
 				readDocuments.add(toDocument(pageTextGroupList.stream().collect(Collectors.joining()), startPageNumber,
@@ -150,6 +148,95 @@ public class PagePdfDocumentReader implements DocumentReader {
 		}
 	}
 
+	/**
+	 * Extracts and formats the text of every page, in page order. Pages without text are
+	 * left {@code null}.
+	 */
+	private String[] extractPageTexts() throws IOException {
+		int pageCount = this.document.getNumberOfPages();
+		String[] pageTexts = new String[pageCount];
+
+		int workers = Math.min(this.config.parallelism, pageCount);
+		if (workers <= 1) {
+			extractPageTexts(this.document, 0, pageCount, pageTexts);
+			return pageTexts;
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(workers - 1);
+		try {
+			List<Future<?>> futures = new ArrayList<>(workers - 1);
+			int rangeSize = (pageCount + workers - 1) / workers;
+			for (int from = rangeSize; from < pageCount; from += rangeSize) {
+				int start = from;
+				int end = Math.min(from + rangeSize, pageCount);
+				futures.add(executor.submit(() -> {
+					try (PDDocument workerDocument = loadDocument()) {
+						extractPageTexts(workerDocument, start, end, pageTexts);
+					}
+					return null;
+				}));
+			}
+			// The first range is extracted on the calling thread, from the already loaded
+			// document.
+			extractPageTexts(this.document, 0, Math.min(rangeSize, pageCount), pageTexts);
+			for (Future<?> future : futures) {
+				future.get();
+			}
+			return pageTexts;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while extracting the PDF pages", e);
+		}
+		catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException ioException) {
+				throw ioException;
+			}
+			throw new RuntimeException(e.getCause());
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private void extractPageTexts(PDDocument pdDocument, int fromPage, int toPage, String[] pageTexts)
+			throws IOException {
+
+		var pdfTextStripper = new PDFLayoutTextStripperByArea();
+
+		for (int pageNumber = fromPage; pageNumber < toPage; pageNumber++) {
+			PDPage page = pdDocument.getPage(pageNumber);
+
+			int x0 = (int) page.getMediaBox().getLowerLeftX();
+			int xW = (int) page.getMediaBox().getWidth();
+
+			int y0 = (int) page.getMediaBox().getLowerLeftY() + this.config.pageTopMargin;
+			int yW = (int) page.getMediaBox().getHeight() - (this.config.pageTopMargin + this.config.pageBottomMargin);
+
+			pdfTextStripper.addRegion(PDF_PAGE_REGION, new Rectangle(x0, y0, xW, yW));
+			pdfTextStripper.extractRegions(page);
+			var pageText = pdfTextStripper.getTextForRegion(PDF_PAGE_REGION);
+
+			if (StringUtils.hasText(pageText)) {
+				pageTexts[pageNumber] = this.config.pageExtractedTextFormatter.format(pageText, pageNumber);
+			}
+			pdfTextStripper.removeRegion(PDF_PAGE_REGION);
+		}
+	}
+
+	/**
+	 * Releases the parsed PDF.
+	 */
+	@Override
+	public void close() {
+		try {
+			this.document.close();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private Document toDocument(String docText, int startPageNumber, int endPageNumber) {
 
 		Document doc = new Document(docText);
@@ -18,12 +18,14 @@ package org.springframework.ai.reader.pdf;
 
 import java.awt.Rectangle;
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
-import org.apache.pdfbox.pdfparser.PDFParser;
 import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
@@ -42,11 +44,12 @@ import org.springframework.util.StringUtils;
  *
  * This class provides methods for reading and processing PDF documents. It uses the
  * Apache PDFBox library for parsing PDF content and converting it into text paragraphs.
- * The paragraphs are grouped into {@link Document} objects.
+ * The paragraphs are grouped into {@link Document} objects. The reader holds the parsed
+ * PDF until it is {@link #close() closed}.
  *
  * @author Christian Tzolov
  */
-public class ParagraphPdfDocumentReader implements DocumentReader {
+public class ParagraphPdfDocumentReader implements DocumentReader, AutoCloseable {
 
 	// Constants for metadata keys
 	private static final String METADATA_START_PAGE = "page_number";
@@ -99,27 +102,54 @@ public class ParagraphPdfDocumentReader implements DocumentReader {
 	 */
 	public ParagraphPdfDocumentReader(Resource pdfResource, PdfDocumentReaderConfig config) {
 
+		PDDocument pdDocument = null;
 		try {
-			PDFParser pdfParser = new PDFParser(
-					new org.apache.pdfbox.io.RandomAccessReadBuffer(pdfResource.getInputStream()));
-			this.document = pdfParser.parse();
-
 			this.config = config;
 
-			this.paragraphTextExtractor = new ParagraphManager(this.document);
-
 			this.resourceFileName = pdfResource.getFile();
-		}
-		catch (IllegalArgumentException iae) {
-			throw iae;
+
+			pdDocument = PdfDocumentLoader.load(pdfResource, config);
+
+			this.paragraphTextExtractor = new ParagraphManager(pdDocument);
+
+			this.document = pdDocument;
 		}
 		catch (Exception e) {
+			closeQuietly(pdDocument, e);
+			if (e instanceof IllegalArgumentException iae) {
+				throw iae;
+			}
 			throw new RuntimeException(e);
 		}
 	}
 
+	private static void closeQuietly(PDDocument pdDocument, Exception cause) {
+		if (pdDocument != null) {
+			try {
+				pdDocument.close();
+			}
+			catch (IOException e) {
+				cause.addSuppressed(e);
+			}
+		}
+	}
+
 	/**
-	 * Reads and processes the PDF document to extract paragraphs.
+	 * Releases the parsed PDF.
+	 */
+	@Override
+	public void close() {
+		try {
+			this.document.close();
+		}
+		catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads and processes the PDF document to extract paragraphs. Each page is processed
+	 * once, extracting the text of all the paragraphs that overlap it together.
 	 * @return A list of {@link Document} objects representing paragraphs.
 	 */
 	@Override
@@ -129,32 +159,94 @@ public class ParagraphPdfDocumentReader implements DocumentReader {
 
 		List<Document> documents = new ArrayList<>(paragraphs.size());
 
-		if (!CollectionUtils.isEmpty(paragraphs)) {
-			Iterator<Paragraph> itr = paragraphs.iterator();
+		if (CollectionUtils.isEmpty(paragraphs)) {
+			return documents;
+		}
+
+		// Pairs of consecutive paragraphs, delimiting the text of the first one.
+		List<Paragraph[]> ranges = new ArrayList<>(paragraphs.size());
+		if (paragraphs.size() == 1) {
+			ranges.add(new Paragraph[] { paragraphs.get(0), paragraphs.get(0) });
+		}
+		else {
+			for (int i = 0; i < paragraphs.size() - 1; i++) {
+				ranges.add(new Paragraph[] { paragraphs.get(i), paragraphs.get(i + 1) });
+			}
+		}
+
+		String[] texts = extractTexts(ranges);
+
+		for (int i = 0; i < ranges.size(); i++) {
+			Document document = toDocument(ranges.get(i)[0], ranges.get(i)[1], texts[i]);
+			if (document != null) {
+				documents.add(document);
+			}
+		}
 
-			var current = itr.next();
+		return documents;
+	}
 
-			if (!itr.hasNext()) {
-				documents.add(toDocument(current, current));
+	/**
+	 * Extracts the formatted text of each paragraph range, visiting the pages in order
+	 * and each page only once.
+	 */
+	private String[] extractTexts(List<Paragraph[]> ranges) {
+
+		// Page index to the indexes of the ranges that overlap the page
+		Map<Integer, List<Integer>> rangesByPage = new TreeMap<>();
+		for (int i = 0; i < ranges.size(); i++) {
+			// Page started from index 0, while PDFBOx getPage return them from index 1.
+			int startPage = ranges.get(i)[0].startPageNumber() - 1;
+			int endPage = ranges.get(i)[1].startPageNumber() - 1;
+			for (int pageNumber = startPage; pageNumber <= endPage; pageNumber++) {
+				rangesByPage.computeIfAbsent(pageNumber, key -> new ArrayList<>()).add(i);
 			}
-			else {
-				while (itr.hasNext()) {
-					var next = itr.next();
-					Document document = toDocument(current, next);
-					if (document != null && StringUtils.hasText(document.getContent())) {
-						documents.add(toDocument(current, next));
+		}
+
+		StringBuilder[] builders = new StringBuilder[ranges.size()];
+		for (int i = 0; i < builders.length; i++) {
+			builders[i] = new StringBuilder();
+		}
+
+		try {
+			var pdfTextStripper = new PDFLayoutTextStripperByArea();
+			pdfTextStripper.setSortByPosition(true);
+
+			for (Map.Entry<Integer, List<Integer>> pageRanges : rangesByPage.entrySet()) {
+				int pageNumber = pageRanges.getKey();
+				var page = this.document.getPage(pageNumber);
+
+				List<Integer> rangeIndexes = pageRanges.getValue();
+				for (int i = 0; i < rangeIndexes.size(); i++) {
+					Paragraph[] range = ranges.get(rangeIndexes.get(i));
+					pdfTextStripper.addRegion(regionName(i), region(page, pageNumber, range[0], range[1]));
+				}
+				pdfTextStripper.extractRegions(page);
+				for (int i = 0; i < rangeIndexes.size(); i++) {
+					var text = pdfTextStripper.getTextForRegion(regionName(i));
+					if (StringUtils.hasText(text)) {
+						builders[rangeIndexes.get(i)].append(text);
 					}
-					current = next;
+					pdfTextStripper.removeRegion(regionName(i));
 				}
 			}
 		}
+		catch (Exception e) {
+			throw new RuntimeException(e);
+		}
 
-		return documents;
+		String[] texts = new String[ranges.size()];
+		for (int i = 0; i < texts.length; i++) {
+			texts[i] = format(builders[i].toString(), ranges.get(i)[0]);
+		}
+		return texts;
 	}
 
-	private Document toDocument(Paragraph from, Paragraph to) {
+	private static String regionName(int index) {
+		return "pdfPageRegion" + index;
+	}
 
-		String docText = this.getTextBetweenParagraphs(from, to);
+	private Document toDocument(Paragraph from, Paragraph to, String docText) {
 
 		if (!StringUtils.hasText(docText)) {
 			return null;
@@ -187,38 +279,7 @@ public class ParagraphPdfDocumentReader implements DocumentReader {
 
 				var page = this.document.getPage(pageNumber);
 
-				int fromPosition = fromParagraph.position();
-				int toPosition = toParagraph.position();
-
-				if (this.config.reversedParagraphPosition) {
-					fromPosition = (int) (page.getMediaBox().getHeight() - fromPosition);
-					toPosition = (int) (page.getMediaBox().getHeight() - toPosition);
-				}
-
-				int x0 = (int) page.getMediaBox().getLowerLeftX();
-				int xW = (int) page.getMediaBox().getWidth();
-
-				int y0 = (int) page.getMediaBox().getLowerLeftY();
-				int yW = (int) page.getMediaBox().getHeight();
-
-				if (pageNumber == startPage) {
-					y0 = fromPosition;
-					yW = (int) page.getMediaBox().getHeight() - y0;
-				}
-				if (pageNumber == endPage) {
-					yW = toPosition - y0;
-				}
-
-				if ((y0 + yW) == (int) page.getMediaBox().getHeight()) {
-					yW = yW - this.config.pageBottomMargin;
-				}
-
-				if (y0 == 0) {
-					y0 = y0 + this.config.pageTopMargin;
-					yW = yW - this.config.pageTopMargin;
-				}
-
-				pdfTextStripper.addRegion("pdfPageRegion", new Rectangle(x0, y0, xW, yW));
+				pdfTextStripper.addRegion("pdfPageRegion", region(page, pageNumber, fromParagraph, toParagraph));
 				pdfTextStripper.extractRegions(page);
 				var text = pdfTextStripper.getTextForRegion("pdfPageRegion");
 				if (StringUtils.hasText(text)) {
@@ -228,17 +289,60 @@ public class ParagraphPdfDocumentReader implements DocumentReader {
 
 			}
 
-			String text = sb.toString();
-
-			if (StringUtils.hasText(text)) {
-				text = this.config.pageExtractedTextFormatter.format(text, startPage);
-			}
-
-			return text;
+			return format(sb.toString(), fromParagraph);
 		}
 		catch (Exception e) {
 			throw new RuntimeException(e);
 		}
 	}
 
+	private String format(String text, Paragraph fromParagraph) {
+		if (StringUtils.hasText(text)) {
+			text = this.config.pageExtractedTextFormatter.format(text, fromParagraph.startPageNumber() - 1);
+		}
+		return text;
+	}
+
+	/**
+	 * The area of the page covered by the text between the two paragraphs.
+	 */
+	private Rectangle region(PDPage page, int pageNumber, Paragraph fromParagraph, Paragraph toParagraph) {
+
+		int startPage = fromParagraph.startPageNumber() - 1;
+		int endPage = toParagraph.startPageNumber() - 1;
+
+		int fromPosition = fromParagraph.position();
+		int toPosition = toParagraph.position();
+
+		if (this.config.reversedParagraphPosition) {
+			fromPosition = (int) (page.getMediaBox().getHeight() - fromPosition);
+			toPosition = (int) (page.getMediaBox().getHeight() - toPosition);
+		}
+
+		int x0 = (int) page.getMediaBox().getLowerLeftX();
+		int xW = (int) page.getMediaBox().getWidth();
+
+		int y0 = (int) page.getMediaBox().getLowerLeftY();
+		int yW = (int) page.getMediaBox().getHeight();
+
+		if (pageNumber == startPage) {
+			y0 = fromPosition;
+			yW = (int) page.getMediaBox().getHeight() - y0;
+		}
+		if (pageNumber == endPage) {
+			yW = toPosition - y0;
+		}
+
+		if ((y0 + yW) == (int) page.getMediaBox().getHeight()) {
+			yW = yW - this.config.pageBottomMargin;
+		}
+
+		if (y0 == 0) {
+			y0 = y0 + this.config.pageTopMargin;
+			yW = yW - this.config.pageTopMargin;
+		}
+
+		return new Rectangle(x0, y0, xW, yW);
+	}
+
 }
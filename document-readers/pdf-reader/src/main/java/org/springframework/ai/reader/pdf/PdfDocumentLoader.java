@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader.pdf;
+
+import java.io.IOException;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.io.RandomAccessStreamCache.StreamCacheCreateFunction;
+import org.apache.pdfbox.pdmodel.PDDocument;
+
+import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.core.io.Resource;
+
+/**
+ * Loads the {@link PDDocument} of the PDF readers. File resources are read through a
+ * buffered file, so that only the parts of the PDF actually needed are read into memory,
+ * while other resources are copied into memory. The decoded streams are cached in memory
+ * up to {@link PdfDocumentReaderConfig#maxMainMemoryBytes}, and in a scratch file beyond
+ * that.
+ */
+final class PdfDocumentLoader {
+
+	private PdfDocumentLoader() {
+	}
+
+	static PDDocument load(Resource pdfResource, PdfDocumentReaderConfig config) throws IOException {
+		StreamCacheCreateFunction streamCache = streamCache(config.maxMainMemoryBytes);
+		if (pdfResource.isFile()) {
+			return Loader.loadPDF(pdfResource.getFile(), streamCache);
+		}
+		return Loader.loadPDF(new RandomAccessReadBuffer(pdfResource.getInputStream()), streamCache);
+	}
+
+	private static StreamCacheCreateFunction streamCache(long maxMainMemoryBytes) {
+		if (maxMainMemoryBytes == -1) {
+			return IOUtils.createMemoryOnlyStreamCache();
+		}
+		if (maxMainMemoryBytes == 0) {
+			return MemoryUsageSetting.setupTempFileOnly().streamCache;
+		}
+		return MemoryUsageSetting.setupMixed(maxMainMemoryBytes).streamCache;
+	}
+
+}
@@ -25,6 +25,10 @@ public class PdfDocumentReaderConfig {
 
 	public final ExtractedTextFormatter pageExtractedTextFormatter;
 
+	public final int parallelism;
+
+	public final long maxMainMemoryBytes;
+
 	/**
 	 * Start building a new configuration.
 	 * @return The entry point for creating a new configuration.
@@ -47,6 +51,17 @@ public class PdfDocumentReaderConfig {
 		this.pageTopMargin = builder.pageTopMargin;
 		this.pageExtractedTextFormatter = builder.pageExtractedTextFormatter;
 		this.reversedParagraphPosition = builder.reversedParagraphPosition;
+		this.parallelism = builder.parallelism;
+		this.maxMainMemoryBytes = builder.maxMainMemoryBytes;
+	}
+
+	@Override
+	public String toString() {
+		return "PdfDocumentReaderConfig{reversedParagraphPosition=" + this.reversedParagraphPosition
+				+ ", pagesPerDocument=" + this.pagesPerDocument + ", pageTopMargin=" + this.pageTopMargin
+				+ ", pageBottomMargin=" + this.pageBottomMargin + ", pageExtractedTextFormatter="
+				+ this.pageExtractedTextFormatter + ", parallelism=" + this.parallelism + ", maxMainMemoryBytes="
+				+ this.maxMainMemoryBytes + "}";
 	}
 
 	public static class Builder {
@@ -61,6 +76,10 @@ public class PdfDocumentReaderConfig {
 
 		private boolean reversedParagraphPosition = false;
 
+		private int parallelism = 1;
+
+		private long maxMainMemoryBytes = -1;
+
 		private Builder() {
 		}
 
@@ -121,6 +140,34 @@ public class PdfDocumentReaderConfig {
 			return this;
 		}
 
+		/**
+		 * Number of threads extracting the page text in parallel. Each thread parses its
+		 * own copy of the PDF, so the memory use grows with the parallelism. Defaults to
+		 * 1.
+		 * @param parallelism Number of page extraction threads.
+		 * @return this builder
+		 */
+		public Builder withParallelism(int parallelism) {
+			Assert.isTrue(parallelism >= 1, "Parallelism must be a positive value.");
+			this.parallelism = parallelism;
+			return this;
+		}
+
+		/**
+		 * Maximum heap memory PDFBox uses to cache the PDF streams, beyond which they are
+		 * cached in a temporary scratch file. 0 uses the scratch file only, and -1, as in
+		 * PDFBox, stands for no limit and caches the streams in memory only. Defaults to
+		 * -1.
+		 * @param maxMainMemoryBytes Maximum main memory in bytes, 0 for none, or -1 for
+		 * no limit.
+		 * @return this builder
+		 */
+		public Builder withMaxMainMemoryBytes(long maxMainMemoryBytes) {
+			Assert.isTrue(maxMainMemoryBytes >= -1, "Max main memory bytes must be >= 0, or -1 for no limit.");
+			this.maxMainMemoryBytes = maxMainMemoryBytes;
+			return this;
+		}
+
 		/**
 		 * {@return the immutable configuration}
 		 */
@@ -13,9 +13,9 @@ limitations under the License. */
 package org.springframework.ai.reader.pdf.layout;
 
 import java.io.IOException;
+import java.io.Writer;
 import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.pdfbox.pdmodel.PDPage;
@@ -23,6 +23,8 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.apache.pdfbox.text.TextPosition;
 import org.apache.pdfbox.text.TextPositionComparator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * This class extends PDFTextStripper to provide custom text extraction and formatting
@@ -34,15 +36,29 @@ import org.apache.pdfbox.text.TextPositionComparator;
  */
 public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 
+	private static final Logger logger = LoggerFactory.getLogger(ForkPDFLayoutTextStripper.class);
+
 	public static final boolean DEBUG = false;
 
 	public static final int OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT = 4;
 
+	private static final TextPositionComparator TEXT_POSITION_COMPARATOR = new TextPositionComparator();
+
 	private double currentPageWidth;
 
 	private TextPosition previousTextPosition;
 
-	private List<TextLine> textLineList;
+	/**
+	 * Lines of the page being written. Only the first {@link #lineCount} entries are in
+	 * use, the remaining ones are kept to be reused by the following pages.
+	 */
+	private final List<TextLine> textLineList;
+
+	private int lineCount;
+
+	private final List<TextPosition> textPositionList;
+
+	private final StringBuilder pageText;
 
 	/**
 	 * Constructor
@@ -51,6 +67,8 @@ public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 		super();
 		this.previousTextPosition = null;
 		this.textLineList = new ArrayList<TextLine>();
+		this.textPositionList = new ArrayList<TextPosition>();
+		this.pageText = new StringBuilder();
 	}
 
 	/**
@@ -63,54 +81,68 @@ public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 			this.setCurrentPageWidth(pageRectangle.getWidth() * 1.4);
 			super.processPage(page);
 			this.previousTextPosition = null;
-			this.textLineList = new ArrayList<TextLine>();
+			this.lineCount = 0;
 		}
 	}
 
 	@Override
 	protected void writePage() throws IOException {
+		// Start afresh, as writePage is called once per region when stripping by area.
+		this.previousTextPosition = null;
+		this.lineCount = 0;
 		List<List<TextPosition>> charactersByArticle = super.getCharactersByArticle();
 		for (int i = 0; i < charactersByArticle.size(); i++) {
 			List<TextPosition> textList = charactersByArticle.get(i);
 			try {
-				this.sortTextPositionList(textList);
+				textList.sort(TEXT_POSITION_COMPARATOR);
 			}
 			catch (java.lang.IllegalArgumentException e) {
-				System.err.println(e);
+				logger.warn("Failed to sort the text positions, keeping their original order", e);
 			}
-			this.iterateThroughTextList(textList.iterator());
+			this.iterateThroughTextList(textList);
 		}
-		this.writeToOutputStream(this.getTextLineList());
+		this.writeToOutputStream();
 	}
 
-	private void writeToOutputStream(final List<TextLine> textLineList) throws IOException {
-		for (TextLine textLine : textLineList) {
-			char[] line = textLine.getLine().toCharArray();
-			super.getOutput().write(line);
-			super.getOutput().write('\n');
-			super.getOutput().flush();
-		}
-	}
-
-	/*
-	 * In order to get rid of the warning: TextPositionComparator class should implement
-	 * Comparator<TextPosition> instead of Comparator
+	/**
+	 * Writes the lines of the page with a single call and flushes the output once.
 	 */
-	@SuppressWarnings("unchecked")
-	private void sortTextPositionList(final List<TextPosition> textList) {
-		TextPositionComparator comparator = new TextPositionComparator();
-		Collections.sort(textList, comparator);
+	private void writeToOutputStream() throws IOException {
+		StringBuilder text = this.pageText;
+		text.setLength(0);
+		text.ensureCapacity(this.lineCount * (this.getCurrentPageWidth() / OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT + 1));
+		for (int i = 0; i < this.lineCount; i++) {
+			this.textLineList.get(i).appendTo(text);
+			text.append('\n');
+		}
+		Writer output = super.getOutput();
+		output.append(text);
+		output.flush();
 	}
 
 	private void writeLine(final List<TextPosition> textPositionList) {
 		if (textPositionList.size() > 0) {
 			TextLine textLine = this.addNewLine();
 			boolean firstCharacterOfLineFound = false;
-			for (TextPosition textPosition : textPositionList) {
-				CharacterFactory characterFactory = new CharacterFactory(firstCharacterOfLineFound);
-				Character character = characterFactory.createCharacterFromTextPosition(textPosition,
-						this.getPreviousTextPosition());
-				textLine.writeCharacterAtIndex(character);
+			for (int i = 0; i < textPositionList.size(); i++) {
+				TextPosition textPosition = textPositionList.get(i);
+				TextPosition previousTextPosition = this.getPreviousTextPosition();
+				double numberOfSpaces = numberOfSpacesBetweenTwoCharacters(previousTextPosition, textPosition);
+				boolean isCharacterPartOfPreviousWord = !previousTextPosition.getUnicode().equals(" ")
+						&& numberOfSpaces <= 1;
+				boolean isCharacterAtTheBeginningOfNewLine = !firstCharacterOfLineFound
+						|| Math.round(textPosition.getY()) < Math.round(previousTextPosition.getY());
+				boolean isCharacterCloseToPreviousWord = firstCharacterOfLineFound && numberOfSpaces > 1
+						&& numberOfSpaces <= OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT;
+				int index = (int) textPosition.getX() / OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT;
+				if (DEBUG)
+					System.out.println(index + " " + textPosition.getUnicode().charAt(0)
+							+ " isCharacterPartOfPreviousWord=" + isCharacterPartOfPreviousWord
+							+ " isCharacterAtTheBeginningOfNewLine=" + isCharacterAtTheBeginningOfNewLine
+							+ " isCharacterCloseToPreviousWord=" + isCharacterCloseToPreviousWord);
+				textLine.writeCharacterAtIndex(textPosition.getUnicode().charAt(0), index,
+						isCharacterPartOfPreviousWord, isCharacterAtTheBeginningOfNewLine,
+						isCharacterCloseToPreviousWord);
 				this.setPreviousTextPosition(textPosition);
 				firstCharacterOfLineFound = true;
 			}
@@ -120,11 +152,20 @@ public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 		}
 	}
 
-	private void iterateThroughTextList(Iterator<TextPosition> textIterator) {
-		List<TextPosition> textPositionList = new ArrayList<TextPosition>();
+	private static double numberOfSpacesBetweenTwoCharacters(final TextPosition textPosition1,
+			final TextPosition textPosition2) {
+		double previousTextXPosition = textPosition1.getX();
+		double previousTextWidth = textPosition1.getWidth();
+		double previousTextEndXPosition = (previousTextXPosition + previousTextWidth);
+		return Math.abs(Math.round(textPosition2.getX() - previousTextEndXPosition));
+	}
 
-		while (textIterator.hasNext()) {
-			TextPosition textPosition = (TextPosition) textIterator.next();
+	private void iterateThroughTextList(List<TextPosition> textList) {
+		List<TextPosition> textPositionList = this.textPositionList;
+		textPositionList.clear();
+
+		for (int i = 0; i < textList.size(); i++) {
+			TextPosition textPosition = textList.get(i);
 			int numberOfNewLines = this.getNumberOfNewLinesFromPreviousTextPosition(textPosition);
 			if (numberOfNewLines == 0) {
 				textPositionList.add(textPosition);
@@ -174,9 +215,28 @@ public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 		}
 	}
 
+	/**
+	 * Returns the next line of the page, reusing the buffer of a previous page when it
+	 * has the same width.
+	 */
 	private TextLine addNewLine() {
-		TextLine textLine = new TextLine(this.getCurrentPageWidth());
-		textLineList.add(textLine);
+		int pageWidth = this.getCurrentPageWidth();
+		TextLine textLine;
+		if (this.lineCount < this.textLineList.size()) {
+			textLine = this.textLineList.get(this.lineCount);
+			if (textLine.getLineLength() == pageWidth / OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT) {
+				textLine.clear();
+			}
+			else {
+				textLine = new TextLine(pageWidth);
+				this.textLineList.set(this.lineCount, textLine);
+			}
+		}
+		else {
+			textLine = new TextLine(pageWidth);
+			this.textLineList.add(textLine);
+		}
+		this.lineCount++;
 		return textLine;
 	}
 
@@ -196,52 +256,57 @@ public class ForkPDFLayoutTextStripper extends PDFTextStripper {
 		this.currentPageWidth = currentPageWidth;
 	}
 
-	private List<TextLine> getTextLineList() {
-		return this.textLineList;
-	}
-
 }
 
 class TextLine {
 
 	private static final char SPACE_CHARACTER = ' ';
 
-	private int lineLength;
-
-	private String line;
+	private final char[] line;
 
 	private int lastIndex;
 
+	private boolean blank;
+
 	public TextLine(int lineLength) {
-		this.line = "";
-		this.lineLength = lineLength / ForkPDFLayoutTextStripper.OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT;
+		this.line = new char[lineLength / ForkPDFLayoutTextStripper.OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT];
 		this.completeLineWithSpaces();
 	}
 
-	public void writeCharacterAtIndex(final Character character) {
-		character.setIndex(this.computeIndexForCharacter(character));
-		int index = character.getIndex();
-		char characterValue = character.getCharacterValue();
-		if (this.indexIsInBounds(index) && this.line.charAt(index) == SPACE_CHARACTER) {
-			this.line = this.line.substring(0, index) + characterValue
-					+ this.line.substring(index + 1, this.getLineLength());
+	/**
+	 * Resets the line to spaces so it can be reused.
+	 */
+	public void clear() {
+		if (!this.blank) {
+			this.completeLineWithSpaces();
+		}
+		this.lastIndex = 0;
+	}
+
+	public void writeCharacterAtIndex(char characterValue, int index, boolean isCharacterPartOfPreviousWord,
+			boolean isCharacterAtTheBeginningOfNewLine, boolean isCharacterCloseToPreviousWord) {
+		index = this.computeIndexForCharacter(index, isCharacterPartOfPreviousWord, isCharacterAtTheBeginningOfNewLine,
+				isCharacterCloseToPreviousWord);
+		if (this.indexIsInBounds(index) && this.line[index] == SPACE_CHARACTER) {
+			this.line[index] = characterValue;
+			this.blank = false;
 		}
 	}
 
 	public int getLineLength() {
-		return this.lineLength;
+		return this.line.length;
 	}
 
-	public String getLine() {
-		return line;
+	public void appendTo(StringBuilder text) {
+		text.append(this.line);
 	}
 
-	private int computeIndexForCharacter(final Character character) {
-		int index = character.getIndex();
-		boolean isCharacterPartOfPreviousWord = character.isCharacterPartOfPreviousWord();
-		boolean isCharacterAtTheBeginningOfNewLine = character.isCharacterAtTheBeginningOfNewLine();
-		boolean isCharacterCloseToPreviousWord = character.isCharacterCloseToPreviousWord();
+	public String getLine() {
+		return new String(this.line);
+	}
 
+	private int computeIndexForCharacter(int index, boolean isCharacterPartOfPreviousWord,
+			boolean isCharacterAtTheBeginningOfNewLine, boolean isCharacterCloseToPreviousWord) {
 		if (!this.indexIsInBounds(index)) {
 			return -1;
 		}
@@ -250,7 +315,7 @@ class TextLine {
 				index = this.findMinimumIndexWithSpaceCharacterFromIndex(index);
 			}
 			else if (isCharacterCloseToPreviousWord) {
-				if (this.line.charAt(index) != SPACE_CHARACTER) {
+				if (this.line[index] != SPACE_CHARACTER) {
 					index = index + 1;
 				}
 				else {
@@ -263,211 +328,36 @@ class TextLine {
 	}
 
 	private boolean isSpaceCharacterAtIndex(int index) {
-		return this.line.charAt(index) != SPACE_CHARACTER;
-	}
-
-	private boolean isNewIndexGreaterThanLastIndex(int index) {
-		int lastIndex = this.getLastIndex();
-		return (index > lastIndex);
+		return this.line[index] != SPACE_CHARACTER;
 	}
 
 	private int getNextValidIndex(int index, boolean isCharacterPartOfPreviousWord) {
 		int nextValidIndex = index;
-		int lastIndex = this.getLastIndex();
-		if (!this.isNewIndexGreaterThanLastIndex(index)) {
-			nextValidIndex = lastIndex + 1;
+		if (index <= this.lastIndex) {
+			nextValidIndex = this.lastIndex + 1;
 		}
 		if (!isCharacterPartOfPreviousWord && this.isSpaceCharacterAtIndex(index - 1)) {
 			nextValidIndex = nextValidIndex + 1;
 		}
-		this.setLastIndex(nextValidIndex);
+		this.lastIndex = nextValidIndex;
 		return nextValidIndex;
 	}
 
 	private int findMinimumIndexWithSpaceCharacterFromIndex(int index) {
 		int newIndex = index;
-		while (newIndex >= 0 && this.line.charAt(newIndex) == SPACE_CHARACTER) {
+		while (newIndex >= 0 && this.line[newIndex] == SPACE_CHARACTER) {
 			newIndex = newIndex - 1;
 		}
 		return newIndex + 1;
 	}
 
 	private boolean indexIsInBounds(int index) {
-		return (index >= 0 && index < this.lineLength);
+		return (index >= 0 && index < this.line.length);
 	}
 
 	private void completeLineWithSpaces() {
-		for (int i = 0; i < this.getLineLength(); ++i) {
-			line += SPACE_CHARACTER;
-		}
-	}
-
-	private int getLastIndex() {
-		return this.lastIndex;
-	}
-
-	private void setLastIndex(int lastIndex) {
-		this.lastIndex = lastIndex;
+		Arrays.fill(this.line, SPACE_CHARACTER);
+		this.blank = true;
 	}
 
 }
-
-class Character {
-
-	private char characterValue;
-
-	private int index;
-
-	private boolean isCharacterPartOfPreviousWord;
-
-	private boolean isFirstCharacterOfAWord;
-
-	private boolean isCharacterAtTheBeginningOfNewLine;
-
-	private boolean isCharacterCloseToPreviousWord;
-
-	public Character(char characterValue, int index, boolean isCharacterPartOfPreviousWord,
-			boolean isFirstCharacterOfAWord, boolean isCharacterAtTheBeginningOfNewLine,
-			boolean isCharacterPartOfASentence) {
-		this.characterValue = characterValue;
-		this.index = index;
-		this.isCharacterPartOfPreviousWord = isCharacterPartOfPreviousWord;
-		this.isFirstCharacterOfAWord = isFirstCharacterOfAWord;
-		this.isCharacterAtTheBeginningOfNewLine = isCharacterAtTheBeginningOfNewLine;
-		this.isCharacterCloseToPreviousWord = isCharacterPartOfASentence;
-		if (ForkPDFLayoutTextStripper.DEBUG)
-			System.out.println(this.toString());
-	}
-
-	public char getCharacterValue() {
-		return this.characterValue;
-	}
-
-	public int getIndex() {
-		return this.index;
-	}
-
-	public void setIndex(int index) {
-		this.index = index;
-	}
-
-	public boolean isCharacterPartOfPreviousWord() {
-		return this.isCharacterPartOfPreviousWord;
-	}
-
-	public boolean isFirstCharacterOfAWord() {
-		return this.isFirstCharacterOfAWord;
-	}
-
-	public boolean isCharacterAtTheBeginningOfNewLine() {
-		return this.isCharacterAtTheBeginningOfNewLine;
-	}
-
-	public boolean isCharacterCloseToPreviousWord() {
-		return this.isCharacterCloseToPreviousWord;
-	}
-
-	public String toString() {
-		String toString = "";
-		toString += index;
-		toString += " ";
-		toString += characterValue;
-		toString += " isCharacterPartOfPreviousWord=" + isCharacterPartOfPreviousWord;
-		toString += " isFirstCharacterOfAWord=" + isFirstCharacterOfAWord;
-		toString += " isCharacterAtTheBeginningOfNewLine=" + isCharacterAtTheBeginningOfNewLine;
-		toString += " isCharacterPartOfASentence=" + isCharacterCloseToPreviousWord;
-		toString += " isCharacterCloseToPreviousWord=" + isCharacterCloseToPreviousWord;
-		return toString;
-	}
-
-}
-
-class CharacterFactory {
-
-	private TextPosition previousTextPosition;
-
-	private boolean firstCharacterOfLineFound;
-
-	private boolean isCharacterPartOfPreviousWord;
-
-	private boolean isFirstCharacterOfAWord;
-
-	private boolean isCharacterAtTheBeginningOfNewLine;
-
-	private boolean isCharacterCloseToPreviousWord;
-
-	public CharacterFactory(boolean firstCharacterOfLineFound) {
-		this.firstCharacterOfLineFound = firstCharacterOfLineFound;
-	}
-
-	public Character createCharacterFromTextPosition(final TextPosition textPosition,
-			final TextPosition previousTextPosition) {
-		this.setPreviousTextPosition(previousTextPosition);
-		this.isCharacterPartOfPreviousWord = this.isCharacterPartOfPreviousWord(textPosition);
-		this.isFirstCharacterOfAWord = this.isFirstCharacterOfAWord(textPosition);
-		this.isCharacterAtTheBeginningOfNewLine = this.isCharacterAtTheBeginningOfNewLine(textPosition);
-		this.isCharacterCloseToPreviousWord = this.isCharacterCloseToPreviousWord(textPosition);
-		char character = this.getCharacterFromTextPosition(textPosition);
-		int index = (int) textPosition.getX() / ForkPDFLayoutTextStripper.OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT;
-		return new Character(character, index, isCharacterPartOfPreviousWord, isFirstCharacterOfAWord,
-				isCharacterAtTheBeginningOfNewLine, isCharacterCloseToPreviousWord);
-	}
-
-	private boolean isCharacterAtTheBeginningOfNewLine(final TextPosition textPosition) {
-		if (!firstCharacterOfLineFound) {
-			return true;
-		}
-		TextPosition previousTextPosition = this.getPreviousTextPosition();
-		float previousTextYPosition = previousTextPosition.getY();
-		return (Math.round(textPosition.getY()) < Math.round(previousTextYPosition));
-	}
-
-	private boolean isFirstCharacterOfAWord(final TextPosition textPosition) {
-		if (!firstCharacterOfLineFound) {
-			return true;
-		}
-		double numberOfSpaces = this.numberOfSpacesBetweenTwoCharacters(previousTextPosition, textPosition);
-		return (numberOfSpaces > 1) || this.isCharacterAtTheBeginningOfNewLine(textPosition);
-	}
-
-	private boolean isCharacterCloseToPreviousWord(final TextPosition textPosition) {
-		if (!firstCharacterOfLineFound) {
-			return false;
-		}
-		double numberOfSpaces = this.numberOfSpacesBetweenTwoCharacters(previousTextPosition, textPosition);
-		return (numberOfSpaces > 1 && numberOfSpaces <= ForkPDFLayoutTextStripper.OUTPUT_SPACE_CHARACTER_WIDTH_IN_PT);
-	}
-
-	private boolean isCharacterPartOfPreviousWord(final TextPosition textPosition) {
-		TextPosition previousTextPosition = this.getPreviousTextPosition();
-		if (previousTextPosition.getUnicode().equals(" ")) {
-			return false;
-		}
-		double numberOfSpaces = this.numberOfSpacesBetweenTwoCharacters(previousTextPosition, textPosition);
-		return (numberOfSpaces <= 1);
-	}
-
-	private double numberOfSpacesBetweenTwoCharacters(final TextPosition textPosition1,
-			final TextPosition textPosition2) {
-		double previousTextXPosition = textPosition1.getX();
-		double previousTextWidth = textPosition1.getWidth();
-		double previousTextEndXPosition = (previousTextXPosition + previousTextWidth);
-		double numberOfSpaces = Math.abs(Math.round(textPosition2.getX() - previousTextEndXPosition));
-		return numberOfSpaces;
-	}
-
-	private char getCharacterFromTextPosition(final TextPosition textPosition) {
-		String string = textPosition.getUnicode();
-		char character = string.charAt(0);
-		return character;
-	}
-
-	private TextPosition getPreviousTextPosition() {
-		return this.previousTextPosition;
-	}
-
-	private void setPreviousTextPosition(final TextPosition previousTextPosition) {
-		this.previousTextPosition = previousTextPosition;
-	}
-
-}
\ No newline at end of file
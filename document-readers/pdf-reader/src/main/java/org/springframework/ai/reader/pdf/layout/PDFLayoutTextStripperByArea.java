@@ -129,11 +129,25 @@ public class PDFLayoutTextStripperByArea extends ForkPDFLayoutTextStripper {
 	 */
 	@Override
 	protected void processTextPosition(TextPosition text) {
+		boolean processed = false;
+		boolean shown = false;
 		for (Map.Entry<String, Rectangle2D> regionAreaEntry : regionArea.entrySet()) {
 			Rectangle2D rect = regionAreaEntry.getValue();
 			if (rect.contains(text.getX(), text.getY())) {
-				charactersByArticle = regionCharacterList.get(regionAreaEntry.getKey());
-				super.processTextPosition(text);
+				ArrayList<List<TextPosition>> regionCharacters = regionCharacterList.get(regionAreaEntry.getKey());
+				List<TextPosition> textList = regionCharacters.get(regionCharacters.size() - 1);
+				if (!processed) {
+					int size = textList.size();
+					charactersByArticle = regionCharacters;
+					super.processTextPosition(text);
+					processed = true;
+					shown = textList.size() > size;
+				}
+				else if (shown) {
+					// Duplicate text suppression remembers the characters of the whole
+					// page, so overlapping regions reuse the first region's outcome.
+					textList.add(text);
+				}
 			}
 		}
 	}
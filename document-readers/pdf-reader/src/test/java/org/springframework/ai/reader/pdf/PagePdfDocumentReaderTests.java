@@ -16,14 +16,19 @@
 
 package org.springframework.ai.reader.pdf;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.ExtractedTextFormatter;
 import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.core.io.ClassPathResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -57,4 +62,48 @@ public class PagePdfDocumentReaderTests {
 				List.of("Page  1 of 4", "Page  2 of 4", "Page  3 of 4", "Page  4 of 4", "PDF  Bookmark   Sample"));
 	}
 
+	@Test
+	public void parallelReadMatchesSequentialRead() {
+
+		PdfDocumentReaderConfig.Builder config = PdfDocumentReaderConfig.builder()
+			.withPageExtractedTextFormatter(
+					ExtractedTextFormatter.builder().withNumberOfBottomTextLinesToDelete(3).build())
+			.withPagesPerDocument(2);
+
+		List<Document> sequential = new PagePdfDocumentReader("classpath:/sample1.pdf", config.build()).get();
+		List<Document> parallel = new PagePdfDocumentReader("classpath:/sample1.pdf", config.withParallelism(3).build())
+			.get();
+
+		assertThat(parallel).hasSameSizeAs(sequential);
+		for (int i = 0; i < sequential.size(); i++) {
+			assertThat(parallel.get(i).getContent()).isEqualTo(sequential.get(i).getContent());
+			assertThat(parallel.get(i).getMetadata()).isEqualTo(sequential.get(i).getMetadata());
+		}
+	}
+
+	@Test
+	public void readWithScratchFileOnly() {
+
+		PdfDocumentReaderConfig config = PdfDocumentReaderConfig.builder().withMaxMainMemoryBytes(0).build();
+
+		try (PagePdfDocumentReader pdfReader = new PagePdfDocumentReader("classpath:/sample1.pdf", config)) {
+			assertThat(pdfReader.get()).hasSize(4);
+		}
+	}
+
+	/**
+	 * The golden files hold the text extracted by the original layout text stripper.
+	 */
+	@ParameterizedTest
+	@ValueSource(strings = { "sample1", "sample2" })
+	public void textMatchesGoldenOutput(String sample) throws IOException {
+
+		List<Document> docs = new PagePdfDocumentReader("classpath:/" + sample + ".pdf").get();
+
+		String text = docs.stream().map(doc -> doc.getContent() + "\n\f\n").collect(Collectors.joining());
+
+		assertThat(text).isEqualTo(
+				new ClassPathResource("golden/" + sample + "-pages.txt").getContentAsString(StandardCharsets.UTF_8));
+	}
+
 }
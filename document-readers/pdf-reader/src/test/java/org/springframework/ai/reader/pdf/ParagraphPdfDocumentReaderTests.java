@@ -16,11 +16,19 @@
 
 package org.springframework.ai.reader.pdf;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import org.junit.jupiter.api.Test;
 
+import org.springframework.ai.document.Document;
 import org.springframework.ai.reader.ExtractedTextFormatter;
 import org.springframework.ai.reader.pdf.config.PdfDocumentReaderConfig;
+import org.springframework.core.io.ClassPathResource;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 /**
@@ -50,4 +58,18 @@ public class ParagraphPdfDocumentReaderTests {
 
 	}
 
+	/**
+	 * The golden file holds the text extracted by the original layout text stripper.
+	 */
+	@Test
+	public void textMatchesGoldenOutput() throws IOException {
+
+		List<Document> docs = new ParagraphPdfDocumentReader("classpath:/sample2.pdf").get();
+
+		String text = docs.stream().map(doc -> doc.getContent() + "\n\f\n").collect(Collectors.joining());
+
+		assertThat(text).isEqualTo(
+				new ClassPathResource("golden/sample2-paragraphs.txt").getContentAsString(StandardCharsets.UTF_8));
+	}
+
 }
@@ -18,14 +18,19 @@ package org.springframework.ai.reader.tika;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 
 import org.apache.tika.metadata.Metadata;
 import org.apache.tika.parser.AutoDetectParser;
 import org.apache.tika.parser.ParseContext;
+import org.apache.tika.parser.Parser;
 import org.apache.tika.sax.BodyContentHandler;
+import org.xml.sax.Attributes;
 import org.xml.sax.ContentHandler;
+import org.xml.sax.helpers.DefaultHandler;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
@@ -42,6 +47,12 @@ import org.springframework.util.StringUtils;
  * This reader directly provides the extracted text without any additional formatting. All
  * extracted texts are encapsulated within a {@link Document} instance.
  *
+ * Large files can be read with {@link #read(Consumer)}, which hands out one document per
+ * page, slide or section while the parsing is still in progress.
+ *
+ * Readers created without an explicit {@link Parser} share a single, thread-safe
+ * {@link AutoDetectParser}, so the parser detection setup is done once per application.
+ *
  * If you require more specialized handling for PDFs, consider using the
  * PagePdfDocumentReader or ParagraphPdfDocumentReader.
  *
@@ -56,24 +67,19 @@ public class TikaDocumentReader implements DocumentReader {
 	public static final String METADATA_SOURCE = "source";
 
 	/**
-	 * Parser to automatically detect the type of document and extract text.
-	 */
-	private final AutoDetectParser parser;
-
-	/**
-	 * Handler to manage content extraction.
+	 * Metadata key holding the one based page (or slide) number of a streamed document.
 	 */
-	private final ContentHandler handler;
+	public static final String METADATA_PAGE_NUMBER = "page_number";
 
 	/**
-	 * Metadata associated with the document being read.
+	 * Parser to automatically detect the type of document and extract text.
 	 */
-	private final Metadata metadata;
+	private final Parser parser;
 
 	/**
-	 * Parsing context containing information about the parsing process.
+	 * Handler to manage content extraction.
 	 */
-	private final ParseContext context;
+	private final ContentHandler handler;
 
 	/**
 	 * The resource pointing to the document.
@@ -85,6 +91,11 @@ public class TikaDocumentReader implements DocumentReader {
 	 */
 	private final ExtractedTextFormatter textFormatter;
 
+	/**
+	 * Maximum number of characters of a streamed document, 0 for no limit.
+	 */
+	private int maxDocumentSize = 0;
+
 	/**
 	 * Constructor initializing the reader with a given resource URL.
 	 * @param resourceUrl URL to the resource
@@ -129,23 +140,97 @@ public class TikaDocumentReader implements DocumentReader {
 	 * @param textFormatter Formatter for the extracted text
 	 */
 	public TikaDocumentReader(Resource resource, ContentHandler contentHandler, ExtractedTextFormatter textFormatter) {
-		this.parser = new AutoDetectParser();
+		this(resource, DefaultParserHolder.PARSER, contentHandler, textFormatter);
+	}
+
+	/**
+	 * Constructor initializing the reader with a resource, a parser, and a text
+	 * formatter. Tika parsers are thread-safe, so a single, pre-configured parser can be
+	 * shared by any number of readers.
+	 * @param resource Resource pointing to the document
+	 * @param parser Parser to extract the text with
+	 * @param textFormatter Formatter for the extracted text
+	 */
+	public TikaDocumentReader(Resource resource, Parser parser, ExtractedTextFormatter textFormatter) {
+		this(resource, parser, new BodyContentHandler(-1), textFormatter);
+	}
+
+	/**
+	 * Constructor initializing the reader with a resource, a parser, a content handler,
+	 * and a text formatter.
+	 * @param resource Resource pointing to the document
+	 * @param parser Parser to extract the text with
+	 * @param contentHandler Handler to manage content extraction
+	 * @param textFormatter Formatter for the extracted text
+	 */
+	public TikaDocumentReader(Resource resource, Parser parser, ContentHandler contentHandler,
+			ExtractedTextFormatter textFormatter) {
+		Objects.requireNonNull(parser, "The parser must not be null");
+		this.parser = parser;
 		this.handler = contentHandler;
-		this.metadata = new Metadata();
-		this.context = new ParseContext();
 		this.resource = resource;
 		this.textFormatter = textFormatter;
 	}
 
+	/**
+	 * Caps the size of the documents handed out by {@link #read(Consumer)}. A page or
+	 * section that is longer is split, preferably at a line break.
+	 * @param maxDocumentSize the maximum number of characters, or 0 (the default) to
+	 * split at page and section boundaries only.
+	 */
+	public void setMaxDocumentSize(int maxDocumentSize) {
+		if (maxDocumentSize < 0) {
+			throw new IllegalArgumentException("The maximum document size must not be negative");
+		}
+		this.maxDocumentSize = maxDocumentSize;
+	}
+
+	public int getMaxDocumentSize() {
+		return this.maxDocumentSize;
+	}
+
 	/**
 	 * Extracts and returns the list of documents from the resource.
 	 * @return List of extracted {@link Document}
 	 */
 	@Override
 	public List<Document> get() {
+		parse(this.handler);
+		String text = Objects.requireNonNullElse(this.handler.toString(), "");
+		return List.of(toDocument(this.textFormatter.format(text), 0));
+	}
+
+	/**
+	 * Parses the resource and passes each page, slide or section to the consumer as soon
+	 * as it has been extracted, so only one of them is held in memory at a time. Headings
+	 * start a new section, and page breaks are those reported by Tika, such as PDF pages
+	 * and presentation slides. The content handler given to the constructor is not used.
+	 * The text formatter only formats the documents holding a whole page, with their page
+	 * number, as its line deletions apply to page tops and bottoms: sections and the
+	 * pieces of pages longer than the maximum document size are left as extracted.
+	 * @param consumer Consumer of the extracted documents, called on the parsing thread
+	 */
+	public void read(Consumer<Document> consumer) {
+		Objects.requireNonNull(consumer, "The consumer must not be null");
+		SegmentingHandler segmentingHandler = new SegmentingHandler(consumer);
+		parse(new BodyContentHandler(segmentingHandler));
+		segmentingHandler.flush();
+	}
+
+	/**
+	 * Reads the resource as a list of page, slide or section documents.
+	 * @return List of extracted {@link Document}
+	 * @see #read(Consumer)
+	 */
+	public List<Document> getSegments() {
+		List<Document> documents = new ArrayList<>();
+		read(documents::add);
+		return documents;
+	}
+
+	private void parse(ContentHandler contentHandler) {
 		try (InputStream stream = this.resource.getInputStream()) {
-			this.parser.parse(stream, this.handler, this.metadata, this.context);
-			return List.of(toDocument(this.handler.toString()));
+			this.parser.parse(stream, contentHandler, new Metadata(), new ParseContext());
 		}
 		catch (Exception e) {
 			throw new RuntimeException(e);
@@ -155,13 +240,15 @@ public class TikaDocumentReader implements DocumentReader {
 	/**
 	 * Converts the given text to a {@link Document}.
 	 * @param docText Text to be converted
+	 * @param pageNumber One based page number, or 0 if unknown
 	 * @return Converted document
 	 */
-	private Document toDocument(String docText) {
-		docText = Objects.requireNonNullElse(docText, "");
-		docText = this.textFormatter.format(docText);
+	private Document toDocument(String docText, int pageNumber) {
 		Document doc = new Document(docText);
 		doc.getMetadata().put(METADATA_SOURCE, resourceName());
+		if (pageNumber > 0) {
+			doc.getMetadata().put(METADATA_PAGE_NUMBER, pageNumber);
+		}
 		return doc;
 	}
 
@@ -183,4 +270,103 @@ public class TikaDocumentReader implements DocumentReader {
 		}
 	}
 
+	/**
+	 * Lazily created parser shared by the readers that are not given one.
+	 */
+	private static final class DefaultParserHolder {
+
+		static final Parser PARSER = new AutoDetectParser();
+
+	}
+
+	/**
+	 * Collects the body text and emits a document at each page, slide or heading, and
+	 * whenever the maximum document size is reached.
+	 */
+	private class SegmentingHandler extends DefaultHandler {
+
+		private final Consumer<Document> consumer;
+
+		private final StringBuilder text = new StringBuilder();
+
+		private int pageNumber;
+
+		/**
+		 * Whether the buffered text is a whole page so far: it starts at a page break and
+		 * has not been cut at a heading or at the maximum document size.
+		 */
+		private boolean wholePage;
+
+		SegmentingHandler(Consumer<Document> consumer) {
+			this.consumer = consumer;
+		}
+
+		@Override
+		public void startElement(String uri, String localName, String qName, Attributes attributes) {
+			if ("div".equals(localName)) {
+				String cssClass = attributes.getValue("class");
+				if ("page".equals(cssClass) || "slide-content".equals(cssClass)) {
+					flush();
+					this.pageNumber++;
+					this.wholePage = true;
+				}
+			}
+			else if (localName.length() == 2 && localName.charAt(0) == 'h' && localName.charAt(1) >= '1'
+					&& localName.charAt(1) <= '6') {
+				this.wholePage = false;
+				flush();
+			}
+		}
+
+		@Override
+		public void characters(char[] ch, int start, int length) {
+			append(ch, start, length);
+		}
+
+		@Override
+		public void ignorableWhitespace(char[] ch, int start, int length) {
+			append(ch, start, length);
+		}
+
+		private void append(char[] ch, int start, int length) {
+			this.text.append(ch, start, length);
+			int maxSize = TikaDocumentReader.this.maxDocumentSize;
+			while (maxSize > 0 && this.text.length() > maxSize) {
+				int cut = this.text.lastIndexOf("\n", maxSize - 1) + 1;
+				if (cut <= maxSize / 2) {
+					cut = maxSize;
+					if (Character.isHighSurrogate(this.text.charAt(cut - 1))) {
+						cut--;
+					}
+				}
+				this.wholePage = false;
+				emit(cut);
+			}
+		}
+
+		/**
+		 * Hands out the buffered text, unless it is blank.
+		 */
+		void flush() {
+			emit(this.text.length());
+		}
+
+		/**
+		 * Hands out the first {@code length} buffered characters, unless they are blank.
+		 * A whole page is formatted with its zero based page index, as the PDF readers
+		 * do.
+		 */
+		private void emit(int length) {
+			String docText = this.text.substring(0, length);
+			this.text.delete(0, length);
+			if (this.wholePage) {
+				docText = TikaDocumentReader.this.textFormatter.format(docText, this.pageNumber - 1);
+			}
+			if (StringUtils.hasText(docText)) {
+				this.consumer.accept(toDocument(docText, this.pageNumber));
+			}
+		}
+
+	}
+
 }
@@ -16,9 +16,17 @@
 
 package org.springframework.ai.reader.tika;
 
+import java.util.List;
+
+import org.apache.tika.parser.AutoDetectParser;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.ExtractedTextFormatter;
+import org.springframework.core.io.DefaultResourceLoader;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 /**
@@ -46,4 +54,46 @@ public class TikaDocumentReaderTests {
 		assertThat(doc.getContent()).contains(contentSnipped);
 	}
 
+	@Test
+	public void readPagesWhileParsing() {
+		var reader = new TikaDocumentReader(new DefaultResourceLoader().getResource("classpath:/sample2.pdf"),
+				new AutoDetectParser(), ExtractedTextFormatter.defaults());
+		reader.setMaxDocumentSize(1000);
+
+		List<Document> docs = reader.getSegments();
+
+		assertThat(docs).hasSizeGreaterThan(1);
+		int previousPageNumber = 1;
+		for (Document doc : docs) {
+			assertThat(doc.getContent().length()).isLessThanOrEqualTo(1000);
+			assertThat(doc.getMetadata()).containsEntry(TikaDocumentReader.METADATA_SOURCE, "sample2.pdf");
+			int pageNumber = (Integer) doc.getMetadata().get(TikaDocumentReader.METADATA_PAGE_NUMBER);
+			assertThat(pageNumber).isGreaterThanOrEqualTo(previousPageNumber);
+			previousPageNumber = pageNumber;
+		}
+		assertThat(previousPageNumber).isGreaterThan(1);
+		assertThat(docs).anyMatch(doc -> doc.getContent()
+			.contains("Consult doc/pdftex/manual.pdf from your tetex distribution for more"));
+	}
+
+	@Test
+	public void formatWholePagesWithTheirPageNumber() {
+		var resource = new DefaultResourceLoader().getResource("classpath:/sample2.pdf");
+		var formatter = ExtractedTextFormatter.builder()
+			.withNumberOfTopPagesToSkipBeforeDelete(1)
+			.withNumberOfTopTextLinesToDelete(1)
+			.build();
+
+		List<Document> plainPages = new TikaDocumentReader(resource).getSegments();
+		List<Document> pages = new TikaDocumentReader(resource, formatter).getSegments();
+
+		assertThat(pages).hasSameSizeAs(plainPages).hasSizeGreaterThan(1);
+		assertThat(pages.get(0).getContent()).isEqualTo(plainPages.get(0).getContent());
+		for (int i = 1; i < pages.size(); i++) {
+			assertThat(pages.get(i).getMetadata()).isEqualTo(plainPages.get(i).getMetadata());
+			assertThat(plainPages.get(i).getContent()).endsWith(pages.get(i).getContent())
+				.isNotEqualTo(pages.get(i).getContent());
+		}
+	}
+
 }
@@ -22,11 +22,14 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.chat.prompt.ChatOptions;
@@ -37,11 +40,16 @@ import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
 import org.springframework.ai.chat.metadata.RateLimit;
 import org.springframework.ai.chat.prompt.Prompt;
 import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.model.function.FunctionCallExecutor;
+import org.springframework.ai.model.function.FunctionCallExecutor.FunctionCall;
 import org.springframework.ai.model.function.FunctionCallback;
 import org.springframework.ai.model.function.FunctionCallbackContext;
 import org.springframework.ai.openai.api.OpenAiApi;
 import org.springframework.ai.openai.api.OpenAiApi.ChatCompletion;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionChunk.ChunkChoice;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionFinishReason;
 import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.ChatCompletionFunction;
 import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.Role;
 import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.ToolCall;
 import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionRequest;
@@ -85,6 +93,12 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 	 */
 	private Map<String, FunctionCallback> functionCallbackRegister = new ConcurrentHashMap<>();
 
+	/**
+	 * The tool definitions of the registered function callbacks, built once per callback
+	 * and shared by the requests.
+	 */
+	private final Map<String, PrecompiledTool> functionTools = new ConcurrentHashMap<>();
+
 	/**
 	 * The function callback context is used to resolve the function callbacks by name
 	 * from the Spring context. It is optional and usually used with Spring
@@ -92,6 +106,11 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 	 */
 	private FunctionCallbackContext functionCallbackContext;
 
+	/**
+	 * Runs the function calls requested by the model in one response.
+	 */
+	private final FunctionCallExecutor functionCallExecutor;
+
 	/**
 	 * The retry template used to retry the OpenAI API calls.
 	 */
@@ -124,11 +143,18 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 
 	public OpenAiChatClient(OpenAiApi openAiApi, OpenAiChatOptions options,
 			FunctionCallbackContext functionCallbackContext) {
+		this(openAiApi, options, functionCallbackContext, FunctionCallExecutor.SEQUENTIAL);
+	}
+
+	public OpenAiChatClient(OpenAiApi openAiApi, OpenAiChatOptions options,
+			FunctionCallbackContext functionCallbackContext, FunctionCallExecutor functionCallExecutor) {
 		Assert.notNull(openAiApi, "OpenAiApi must not be null");
 		Assert.notNull(options, "Options must not be null");
+		Assert.notNull(functionCallExecutor, "FunctionCallExecutor must not be null");
 		this.openAiApi = openAiApi;
 		this.defaultOptions = options;
 		this.functionCallbackContext = functionCallbackContext;
+		this.functionCallExecutor = functionCallExecutor;
 	}
 
 	/**
@@ -148,7 +174,7 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 
 			ChatCompletionRequest request = createRequest(prompt, false);
 
-			ResponseEntity<ChatCompletion> completionEntity = this.chatCompletionWithTools(request);
+			ResponseEntity<ChatCompletion> completionEntity = this.chatCompletionWithTools(request, 0);
 
 			var chatCompletion = completionEntity.getBody();
 			if (chatCompletion == null) {
@@ -173,7 +199,7 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 		return this.retryTemplate.execute(ctx -> {
 			ChatCompletionRequest request = createRequest(prompt, true);
 
-			Flux<OpenAiApi.ChatCompletionChunk> completionChunks = this.openAiApi.chatCompletionStream(request);
+			Flux<OpenAiApi.ChatCompletionChunk> completionChunks = this.chatCompletionStreamWithTools(request, 0);
 
 			// For chunked responses, only the first chunk contains the choice role.
 			// The rest of the chunks with same ID share the same role.
@@ -197,6 +223,31 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 		});
 	}
 
+	/**
+	 * Streams the completion, handling the function calls of the model along the way. The
+	 * tool call deltas of the first choice are assembled instead of being emitted. When
+	 * the model's message ends with tool calls, the functions are called on a bounded
+	 * elastic thread, and the completion of the extended conversation is streamed in the
+	 * same flux.
+	 * @param request the chat completion request.
+	 * @param round the number of previous function call rounds of the conversation.
+	 * @return the completion chunks without tool call deltas.
+	 */
+	private Flux<OpenAiApi.ChatCompletionChunk> chatCompletionStreamWithTools(ChatCompletionRequest request,
+			int round) {
+		return Flux.defer(() -> {
+			ToolCallAggregator aggregator = new ToolCallAggregator();
+			return this.openAiApi.chatCompletionStream(request).filter(aggregator::accept).concatWith(Flux.defer(() -> {
+				if (!aggregator.hasToolCalls()) {
+					return Flux.empty();
+				}
+				return Mono.fromCallable(() -> handleToolCalls(request, aggregator.toMessage(), round))
+					.subscribeOn(Schedulers.boundedElastic())
+					.flatMapMany(newRequest -> chatCompletionStreamWithTools(newRequest, round + 1));
+			}));
+		});
+	}
+
 	/**
 	 * Accessible for testing.
 	 */
@@ -241,11 +292,6 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 
 		// Add the enabled functions definitions to the request's tools parameter.
 		if (!CollectionUtils.isEmpty(functionsForThisRequest)) {
-
-			if (stream) {
-				throw new IllegalArgumentException("Currently tool functions are not supported in streaming mode");
-			}
-
 			request = ModelOptionsUtils.merge(
 					OpenAiChatOptions.builder().withTools(this.getFunctionTools(functionsForThisRequest)).build(),
 					request, ChatCompletionRequest.class);
@@ -316,23 +362,43 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 			}
 			FunctionCallback functionCallback = this.functionCallbackRegister.get(functionName);
 
+			functionTools.add(getFunctionTool(functionCallback));
+		}
+
+		return functionTools;
+	}
+
+	/**
+	 * Returns the tool definition of the callback, parsing its input type schema only the
+	 * first time the callback is used. The definition is rebuilt if another callback is
+	 * registered under the same name.
+	 */
+	private OpenAiApi.FunctionTool getFunctionTool(FunctionCallback functionCallback) {
+		PrecompiledTool tool = this.functionTools.get(functionCallback.getName());
+		if (tool == null || tool.functionCallback() != functionCallback) {
 			var function = new OpenAiApi.FunctionTool.Function(functionCallback.getDescription(),
 					functionCallback.getName(), functionCallback.getInputTypeSchema());
-			functionTools.add(new OpenAiApi.FunctionTool(function));
+			tool = new PrecompiledTool(functionCallback, new OpenAiApi.FunctionTool(function));
+			this.functionTools.put(functionCallback.getName(), tool);
 		}
+		return tool.functionTool();
+	}
 
-		return functionTools;
+	private record PrecompiledTool(FunctionCallback functionCallback, OpenAiApi.FunctionTool functionTool) {
 	}
 
 	/**
 	 * Function Call handling. If the model calls a function, the function is called and
 	 * the response is added to the conversation history. The conversation history is then
-	 * sent back to the model.
+	 * sent back to the model. The function calls of one response are run by the
+	 * {@link FunctionCallExecutor}, and their responses are added in the order of the
+	 * calls.
 	 * @param request the chat completion request
+	 * @param round the number of previous function call rounds of the conversation.
 	 * @return the chat completion response.
 	 */
 	@SuppressWarnings("null")
-	private ResponseEntity<ChatCompletion> chatCompletionWithTools(OpenAiApi.ChatCompletionRequest request) {
+	private ResponseEntity<ChatCompletion> chatCompletionWithTools(OpenAiApi.ChatCompletionRequest request, int round) {
 
 		ResponseEntity<ChatCompletion> chatCompletion = this.openAiApi.chatCompletionEntity(request);
 
@@ -341,10 +407,6 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 			return chatCompletion;
 		}
 
-		// The OpenAI chat completion tool call API requires the complete conversation
-		// history. Including the initial user message.
-		List<ChatCompletionMessage> conversationMessages = new ArrayList<>(request.messages());
-
 		// We assume that the tool calling information is inside the response's first
 		// choice.
 		ChatCompletionMessage responseMessage = chatCompletion.getBody().choices().iterator().next().message();
@@ -353,32 +415,58 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 			logger.warn("More than one choice returned. Only the first choice is processed.");
 		}
 
+		// Recursively call chatCompletionWithTools until the model doesn't call a
+		// functions anymore.
+		return this.chatCompletionWithTools(handleToolCalls(request, responseMessage, round), round + 1);
+	}
+
+	/**
+	 * Calls the functions requested by the model's response message.
+	 * @param request the request the model responded to.
+	 * @param responseMessage the model's message, with the tool calls.
+	 * @param round the number of previous function call rounds of the conversation.
+	 * @return the request continuing the conversation with the function responses.
+	 */
+	private ChatCompletionRequest handleToolCalls(ChatCompletionRequest request, ChatCompletionMessage responseMessage,
+			int round) {
+
+		if (round >= this.functionCallExecutor.getMaxRounds()) {
+			throw new IllegalStateException("The model requested function calls in more than "
+					+ this.functionCallExecutor.getMaxRounds() + " consecutive responses");
+		}
+
+		// The OpenAI chat completion tool call API requires the complete conversation
+		// history. Including the initial user message.
+		List<ChatCompletionMessage> conversationMessages = new ArrayList<>(request.messages());
+
 		// Add the assistant response to the message conversation history.
 		conversationMessages.add(responseMessage);
 
 		// Every tool-call item requires a separate function call and a response (TOOL)
 		// message.
+		List<FunctionCall> functionCalls = new ArrayList<>(responseMessage.toolCalls().size());
 		for (ToolCall toolCall : responseMessage.toolCalls()) {
 
 			var functionName = toolCall.function().name();
-			String functionArguments = toolCall.function().arguments();
 
 			if (!this.functionCallbackRegister.containsKey(functionName)) {
 				throw new IllegalStateException("No function callback found for function name: " + functionName);
 			}
 
-			String functionResponse = this.functionCallbackRegister.get(functionName).call(functionArguments);
+			functionCalls.add(
+					new FunctionCall(this.functionCallbackRegister.get(functionName), toolCall.function().arguments()));
+		}
+
+		List<String> functionResponses = this.functionCallExecutor.call(functionCalls);
 
+		for (int i = 0; i < functionResponses.size(); i++) {
 			// Add the function response to the conversation.
-			conversationMessages.add(new ChatCompletionMessage(functionResponse, Role.TOOL, null, toolCall.id(), null));
+			conversationMessages.add(new ChatCompletionMessage(functionResponses.get(i), Role.TOOL, null,
+					responseMessage.toolCalls().get(i).id(), null));
 		}
 
-		// Recursively call chatCompletionWithTools until the model doesn't call a
-		// functions anymore.
 		ChatCompletionRequest newRequest = new ChatCompletionRequest(conversationMessages, request.stream());
-		newRequest = ModelOptionsUtils.merge(newRequest, request, ChatCompletionRequest.class);
-
-		return this.chatCompletionWithTools(newRequest);
+		return ModelOptionsUtils.merge(newRequest, request, ChatCompletionRequest.class);
 	}
 
 	private Map<String, Object> toMap(ChatCompletionMessage message) {
@@ -419,4 +507,93 @@ public class OpenAiChatClient implements ChatClient, StreamingChatClient {
 		return choices.get(0).message().toolCalls() != null;
 	}
 
+	/**
+	 * Assembles the tool calls of the first choice of a streamed message from their
+	 * deltas. The first delta of a tool call carries its index, id and function name, and
+	 * the following ones carry fragments of the function arguments.
+	 */
+	private static final class ToolCallAggregator {
+
+		private final StringBuilder content = new StringBuilder();
+
+		private final Map<Integer, ToolCallBuilder> toolCalls = new TreeMap<>();
+
+		private int lastIndex = -1;
+
+		/**
+		 * Records the tool call deltas of the chunk.
+		 * @return whether the chunk is to be emitted, that is unless it only carries tool
+		 * call deltas or the end of a tool call message.
+		 */
+		boolean accept(OpenAiApi.ChatCompletionChunk chunk) {
+			if (CollectionUtils.isEmpty(chunk.choices())) {
+				return true;
+			}
+			ChunkChoice choice = chunk.choices().get(0);
+			ChatCompletionMessage delta = choice.delta();
+			if (delta == null) {
+				return true;
+			}
+			if (delta.content() != null) {
+				this.content.append(delta.content());
+			}
+			if (CollectionUtils.isEmpty(delta.toolCalls())) {
+				return delta.content() != null || this.toolCalls.isEmpty()
+						|| choice.finishReason() != ChatCompletionFinishReason.TOOL_CALLS;
+			}
+			for (ToolCall toolCall : delta.toolCalls()) {
+				int index = (toolCall.index() != null) ? toolCall.index()
+						: (toolCall.id() != null) ? this.lastIndex + 1 : Math.max(this.lastIndex, 0);
+				this.lastIndex = index;
+				this.toolCalls.computeIfAbsent(index, i -> new ToolCallBuilder()).add(toolCall);
+			}
+			return delta.content() != null;
+		}
+
+		boolean hasToolCalls() {
+			return !this.toolCalls.isEmpty();
+		}
+
+		ChatCompletionMessage toMessage() {
+			List<ToolCall> calls = this.toolCalls.values().stream().map(ToolCallBuilder::build).toList();
+			return new ChatCompletionMessage((this.content.length() > 0) ? this.content.toString() : null,
+					Role.ASSISTANT, null, null, calls);
+		}
+
+	}
+
+	private static final class ToolCallBuilder {
+
+		private String id;
+
+		private String type;
+
+		private String name;
+
+		private final StringBuilder arguments = new StringBuilder();
+
+		void add(ToolCall delta) {
+			if (delta.id() != null) {
+				this.id = delta.id();
+			}
+			if (delta.type() != null) {
+				this.type = delta.type();
+			}
+			if (delta.function() != null) {
+				if (delta.function().name() != null) {
+					this.name = delta.function().name();
+				}
+				if (delta.function().arguments() != null) {
+					this.arguments.append(delta.function().arguments());
+				}
+			}
+		}
+
+		ToolCall build() {
+			return new ToolCall(this.id, (this.type != null) ? this.type : "function",
+					new ChatCompletionFunction(this.name, this.arguments.toString()));
+		}
+
+	}
+
 }
@@ -56,6 +56,7 @@ public class OpenAiApi {
 	public static final String DEFAULT_CHAT_MODEL = "gpt-3.5-turbo";
 	public static final String DEFAULT_EMBEDDING_MODEL = "text-embedding-ada-002";
 	private static final Predicate<String> SSE_DONE_PREDICATE = "[DONE]"::equals;
+	private static final ObjectMapper SCHEMA_OBJECT_MAPPER = new ObjectMapper();
 
 	private final RestClient restClient;
 	private final WebClient webClient;
@@ -448,12 +449,26 @@ public class OpenAiApi {
 		 * Submit tool outputs to run endpoint.
 		 * @param type The type of tool call the output is required for. For now, this is always function.
 		 * @param function The function definition.
+		 * @param index The index of the tool call in the message. Only set in the streamed deltas, where the id, the
+		 * function name and the argument fragments of a tool call are spread over several chunks.
 		 */
 		@JsonInclude(Include.NON_NULL)
 		public record ToolCall(
 				@JsonProperty("id") String id,
 				@JsonProperty("type") String type,
-				@JsonProperty("function") ChatCompletionFunction function) {
+				@JsonProperty("function") ChatCompletionFunction function,
+				@JsonProperty("index") Integer index) {
+
+			/**
+			 * Create a tool call without a stream index.
+			 *
+			 * @param id The ID of the tool call.
+			 * @param type The type of tool call.
+			 * @param function The function definition.
+			 */
+			public ToolCall(String id, String type, ChatCompletionFunction function) {
+				this(id, type, function, null);
+			}
 		}
 
 		/**
@@ -798,7 +813,7 @@ public class OpenAiApi {
 
 	public static Map<String, Object> parseJson(String jsonSchema) {
 		try {
-			return new ObjectMapper().readValue(jsonSchema,
+			return SCHEMA_OBJECT_MAPPER.readValue(jsonSchema,
 					new TypeReference<Map<String, Object>>() {
 					});
 		}
@@ -0,0 +1,287 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.openai;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.function.FunctionCallExecutor;
+import org.springframework.ai.model.function.FunctionCallback;
+import org.springframework.ai.model.function.FunctionCallbackWrapper;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletion;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionChunk;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionChunk.ChunkChoice;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionFinishReason;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.ChatCompletionFunction;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.Role;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionMessage.ToolCall;
+import org.springframework.ai.openai.api.OpenAiApi.ChatCompletionRequest;
+import org.springframework.http.ResponseEntity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Function calling of the {@link OpenAiChatClient} against a mocked {@link OpenAiApi}.
+ */
+public class OpenAiChatClientToolCallTests {
+
+	private final OpenAiApi openAiApi = mock(OpenAiApi.class);
+
+	@Test
+	public void streamAssemblesToolCallDeltasAndStreamsTheFollowUpCompletion() {
+		given(this.openAiApi.chatCompletionStream(any())).willReturn(
+				Flux.just(chunk("1", new ChatCompletionMessage("Let me check. ", Role.ASSISTANT), null),
+						chunk("1", toolCallDelta(0, "call_rome", "weather", ""), null),
+						chunk("1",
+								new ChatCompletionMessage("Both cities. ", null, null, null,
+										List.of(toolCall(1, "call_paris", "weather", "{\"loc"))),
+								null),
+						chunk("1", toolCallDelta(0, null, null, "{\"location\":"), null),
+						chunk("1", toolCallDelta(1, null, null, "ation\":\"Paris\"}"), null),
+						chunk("1", toolCallDelta(0, null, null, "\"Rome\"}"), null),
+						chunk("1", new ChatCompletionMessage(null, null), ChatCompletionFinishReason.TOOL_CALLS)),
+				Flux.just(chunk("2", new ChatCompletionMessage("Rome and ", Role.ASSISTANT), null), chunk("2",
+						new ChatCompletionMessage("Paris are sunny.", null), ChatCompletionFinishReason.STOP)));
+		var client = new OpenAiChatClient(this.openAiApi);
+
+		List<ChatResponse> responses = client.stream(weatherPrompt()).collectList().block();
+
+		assertThat(responses).extracting(response -> response.getResult().getOutput().getContent())
+			.containsExactly("Let me check. ", "Both cities. ", "Rome and ", "Paris are sunny.");
+		assertThat(responses.get(3).getResult().getMetadata().getFinishReason()).isEqualTo("STOP");
+
+		ArgumentCaptor<ChatCompletionRequest> requests = ArgumentCaptor.forClass(ChatCompletionRequest.class);
+		verify(this.openAiApi, times(2)).chatCompletionStream(requests.capture());
+		ChatCompletionRequest followUp = requests.getAllValues().get(1);
+		assertThat(followUp.stream()).isTrue();
+		assertThat(followUp.messages()).hasSize(4);
+
+		ChatCompletionMessage assistantMessage = followUp.messages().get(1);
+		assertThat(assistantMessage.role()).isEqualTo(Role.ASSISTANT);
+		assertThat(assistantMessage.content()).isEqualTo("Let me check. Both cities. ");
+		assertThat(assistantMessage.toolCalls()).extracting(ToolCall::id).containsExactly("call_rome", "call_paris");
+		assertThat(assistantMessage.toolCalls()).extracting(toolCall -> toolCall.function().name())
+			.containsExactly("weather", "weather");
+		assertThat(assistantMessage.toolCalls()).extracting(toolCall -> toolCall.function().arguments())
+			.containsExactly("{\"location\":\"Rome\"}", "{\"location\":\"Paris\"}");
+
+		assertThat(followUp.messages().subList(2, 4)).extracting(ChatCompletionMessage::role)
+			.containsExactly(Role.TOOL, Role.TOOL);
+		assertThat(followUp.messages().subList(2, 4)).extracting(ChatCompletionMessage::toolCallId)
+			.containsExactly("call_rome", "call_paris");
+		assertThat(followUp.messages().subList(2, 4)).extracting(ChatCompletionMessage::content)
+			.containsExactly("sunny in Rome", "sunny in Paris");
+	}
+
+	@Test
+	public void streamWithoutToolCallsIsPassedThrough() {
+		given(this.openAiApi.chatCompletionStream(any()))
+			.willReturn(Flux.just(chunk("1", new ChatCompletionMessage("Hello", Role.ASSISTANT), null),
+					chunk("1", new ChatCompletionMessage(null, null), ChatCompletionFinishReason.STOP)));
+		var client = new OpenAiChatClient(this.openAiApi);
+
+		List<ChatResponse> responses = client.stream(weatherPrompt()).collectList().block();
+
+		assertThat(responses).extracting(response -> response.getResult().getOutput().getContent())
+			.containsExactly("Hello", null);
+		verify(this.openAiApi, times(1)).chatCompletionStream(any());
+	}
+
+	@Test
+	public void streamStopsAfterTheMaxToolCallRounds() {
+		given(this.openAiApi.chatCompletionStream(any())).willAnswer(invocation -> Flux.just(
+				chunk("1", toolCallDelta(0, "call_rome", "weather", "{\"location\":\"Rome\"}"), null),
+				chunk("1", new ChatCompletionMessage(null, null), ChatCompletionFinishReason.TOOL_CALLS)));
+		var client = new OpenAiChatClient(this.openAiApi, defaultOptions(), null,
+				FunctionCallExecutor.builder().withMaxRounds(2).build());
+
+		assertThatThrownBy(() -> client.stream(weatherPrompt()).blockLast()).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("more than 2 consecutive responses");
+		verify(this.openAiApi, times(3)).chatCompletionStream(any());
+	}
+
+	@Test
+	public void callStopsAfterTheMaxToolCallRounds() {
+		given(this.openAiApi.chatCompletionEntity(any())).willReturn(
+				completion(ChatCompletionFinishReason.TOOL_CALLS, new ChatCompletionMessage(null, Role.ASSISTANT, null,
+						null, List.of(toolCall(null, "call_rome", "weather", "{\"location\":\"Rome\"}")))));
+		var client = new OpenAiChatClient(this.openAiApi, defaultOptions(), null,
+				FunctionCallExecutor.builder().withMaxRounds(2).build());
+
+		assertThatThrownBy(() -> client.call(weatherPrompt())).isInstanceOf(IllegalStateException.class)
+			.hasMessageContaining("more than 2 consecutive responses");
+		verify(this.openAiApi, times(3)).chatCompletionEntity(any());
+	}
+
+	@Test
+	public void callRunsTheToolCallsOfAResponseOnTheExecutor() {
+		given(this.openAiApi.chatCompletionEntity(any())).willReturn(
+				completion(ChatCompletionFinishReason.TOOL_CALLS,
+						new ChatCompletionMessage(null, Role.ASSISTANT, null, null,
+								List.of(toolCall(null, "call_rome", "weather", "{\"location\":\"Rome\"}"),
+										toolCall(null, "call_paris", "weather", "{\"location\":\"Paris\"}")))),
+				completion(ChatCompletionFinishReason.STOP,
+						new ChatCompletionMessage("Rome and Paris are sunny.", Role.ASSISTANT)));
+		AtomicInteger executed = new AtomicInteger();
+		var executor = FunctionCallExecutor.builder().withExecutor(task -> {
+			executed.incrementAndGet();
+			new Thread(task).start();
+		}).withMaxConcurrency(2).build();
+		var client = new OpenAiChatClient(this.openAiApi, defaultOptions(), null, executor);
+
+		// Each call waits for the other one, so the calls only complete if run
+		// concurrently
+		CountDownLatch bothCalled = new CountDownLatch(2);
+		FunctionCallback weather = FunctionCallbackWrapper.builder((WeatherRequest request) -> {
+			bothCalled.countDown();
+			try {
+				if (!bothCalled.await(5, TimeUnit.SECONDS)) {
+					throw new IllegalStateException("The calls did not run concurrently");
+				}
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			}
+			return "sunny in " + request.location();
+		}).withName("weather").withDescription("Get the weather").withInputType(WeatherRequest.class).build();
+
+		ChatResponse response = client.call(new Prompt("Weather in Rome and Paris?",
+				OpenAiChatOptions.builder().withFunctionCallbacks(List.of(weather)).build()));
+
+		assertThat(response.getResult().getOutput().getContent()).isEqualTo("Rome and Paris are sunny.");
+		assertThat(executed).hasValue(2);
+
+		ArgumentCaptor<ChatCompletionRequest> requests = ArgumentCaptor.forClass(ChatCompletionRequest.class);
+		verify(this.openAiApi, times(2)).chatCompletionEntity(requests.capture());
+		assertThat(requests.getAllValues().get(1).messages().subList(2, 4)).extracting(ChatCompletionMessage::content)
+			.containsExactly("sunny in Rome", "sunny in Paris");
+	}
+
+	@Test
+	public void toolDefinitionsAreBuiltOncePerCallback() {
+		var client = new OpenAiChatClient(this.openAiApi);
+		var weather = new SchemaCountingCallback("weather");
+		var prompt = new Prompt("Weather in Rome?",
+				OpenAiChatOptions.builder().withFunctionCallbacks(List.of(weather)).build());
+
+		var first = client.createRequest(prompt, false);
+		var second = client.createRequest(prompt, false);
+
+		assertThat(first.tools()).hasSize(1);
+		assertThat(second.tools().get(0)).isSameAs(first.tools().get(0));
+		assertThat(weather.schemaCount).hasValue(1);
+
+		// A callback registered under the same name replaces the definition
+		var replacement = new SchemaCountingCallback("weather");
+		var third = client.createRequest(new Prompt("Weather in Rome?",
+				OpenAiChatOptions.builder().withFunctionCallbacks(List.of(replacement)).build()), false);
+
+		assertThat(third.tools().get(0)).isNotSameAs(first.tools().get(0));
+		assertThat(replacement.schemaCount).hasValue(1);
+		assertThat(weather.schemaCount).hasValue(1);
+	}
+
+	public record WeatherRequest(String location) {
+	}
+
+	private static OpenAiChatOptions defaultOptions() {
+		return OpenAiChatOptions.builder().withModel(OpenAiApi.DEFAULT_CHAT_MODEL).build();
+	}
+
+	private static Prompt weatherPrompt() {
+		FunctionCallback weather = FunctionCallbackWrapper
+			.builder((WeatherRequest request) -> "sunny in " + request.location())
+			.withName("weather")
+			.withDescription("Get the weather")
+			.withInputType(WeatherRequest.class)
+			.build();
+		return new Prompt("Weather in Rome and Paris?",
+				OpenAiChatOptions.builder().withFunctionCallbacks(List.of(weather)).build());
+	}
+
+	private static ChatCompletionChunk chunk(String id, ChatCompletionMessage delta,
+			ChatCompletionFinishReason finishReason) {
+		return new ChatCompletionChunk(id, List.of(new ChunkChoice(finishReason, 0, delta, null)), 1L, "MODEL", null,
+				"chat.completion.chunk");
+	}
+
+	private static ChatCompletionMessage toolCallDelta(int index, String id, String name, String arguments) {
+		return new ChatCompletionMessage(null, null, null, null, List.of(toolCall(index, id, name, arguments)));
+	}
+
+	private static ToolCall toolCall(Integer index, String id, String name, String arguments) {
+		return new ToolCall(id, (id != null) ? "function" : null, new ChatCompletionFunction(name, arguments), index);
+	}
+
+	private static ResponseEntity<ChatCompletion> completion(ChatCompletionFinishReason finishReason,
+			ChatCompletionMessage message) {
+		return ResponseEntity
+			.ok(new ChatCompletion("1", List.of(new ChatCompletion.Choice(finishReason, 0, message, null)), 1L, "MODEL",
+					null, "chat.completion", new OpenAiApi.Usage(1, 1, 2)));
+	}
+
+	private static final class SchemaCountingCallback implements FunctionCallback {
+
+		private final String name;
+
+		private final AtomicInteger schemaCount = new AtomicInteger();
+
+		SchemaCountingCallback(String name) {
+			this.name = name;
+		}
+
+		@Override
+		public String getName() {
+			return this.name;
+		}
+
+		@Override
+		public String getDescription() {
+			return "Get the weather";
+		}
+
+		@Override
+		public String getInputTypeSchema() {
+			this.schemaCount.incrementAndGet();
+			return "{\"type\":\"object\",\"properties\":{\"location\":{\"type\":\"string\"}}}";
+		}
+
+		@Override
+		public String call(String functionInput) {
+			return "sunny";
+		}
+
+	}
+
+}
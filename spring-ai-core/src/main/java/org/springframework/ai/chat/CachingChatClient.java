@@ -0,0 +1,601 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.ContentFormatter;
+import org.springframework.ai.document.DefaultContentFormatter;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.ModelOptionsUtils;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.util.Assert;
+
+/**
+ * Caches the responses of a {@link ChatClient}, so that repeated prompts are answered
+ * without calling the model.
+ *
+ * <p>
+ * The exact tier is an in-memory LRU map keyed by a SHA-256 hash of the canonical JSON
+ * form of the tenant, the prompt messages and the prompt options merged over the
+ * {@link Builder#withDefaultOptions(ChatOptions) default options}. The optional semantic
+ * tier stores the last user message of each prompt in a {@link VectorStore}, which embeds
+ * it with its {@code EmbeddingClient}, and answers a prompt with the response of a stored
+ * question above the similarity threshold, asked by the same tenant after the same
+ * preceding messages and with the same options. Semantic entries hold the response texts
+ * in their metadata, without the provider metadata, so that a vector store can be shared
+ * by several instances.
+ *
+ * <p>
+ * {@link #stream(Prompt)} replays the chunks of a cached streamed response, or the cached
+ * response as a single chunk. Streamed responses are cached when the stream completes.
+ *
+ * <pre class="code">
+ * var chatClient = CachingChatClient.builder(openAiChatClient)
+ * 	.withTtl(Duration.ofHours(1))
+ * 	.withSemanticCache(vectorStore, 0.95)
+ * 	.withTenantResolver(prompt -&gt; TenantContext.getTenantId())
+ * 	.build();
+ * </pre>
+ *
+ * Prompts whose messages or options cannot be serialized to JSON are not cached.
+ */
+public class CachingChatClient implements ChatClient, StreamingChatClient {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingChatClient.class);
+
+	static final String TENANT_METADATA = "chat_cache_tenant";
+
+	static final String CONTEXT_METADATA = "chat_cache_context";
+
+	static final String EXPIRES_AT_METADATA = "chat_cache_expires_at";
+
+	static final String RESPONSE_METADATA = "chat_cache_response";
+
+	/**
+	 * Embeds the question alone.
+	 */
+	private static final ContentFormatter SEMANTIC_ENTRY_FORMATTER = DefaultContentFormatter.builder()
+		.withExcludedEmbedMetadataKeys(TENANT_METADATA, CONTEXT_METADATA, EXPIRES_AT_METADATA, RESPONSE_METADATA)
+		.withExcludedInferenceMetadataKeys(TENANT_METADATA, CONTEXT_METADATA, EXPIRES_AT_METADATA, RESPONSE_METADATA)
+		.build();
+
+	private static final ObjectMapper CANONICAL_OBJECT_MAPPER = new ObjectMapper()
+		.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	private final ChatClient chatClient;
+
+	private final StreamingChatClient streamingChatClient;
+
+	private final Map<String, Object> defaultOptions;
+
+	private final Function<Prompt, String> tenantResolver;
+
+	private final Duration ttl;
+
+	private final int maxSize;
+
+	private final Map<String, Entry> entries;
+
+	private final VectorStore vectorStore;
+
+	private final double similarityThreshold;
+
+	private final int semanticTopK;
+
+	private final AtomicLong exactHits = new AtomicLong();
+
+	private final AtomicLong semanticHits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private CachingChatClient(Builder builder) {
+		this.chatClient = builder.chatClient;
+		this.streamingChatClient = builder.streamingChatClient;
+		this.defaultOptions = ModelOptionsUtils.objectToMap(builder.defaultOptions);
+		this.tenantResolver = builder.tenantResolver;
+		this.ttl = builder.ttl;
+		this.maxSize = builder.maxSize;
+		this.vectorStore = builder.vectorStore;
+		this.similarityThreshold = builder.similarityThreshold;
+		this.semanticTopK = builder.semanticTopK;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > CachingChatClient.this.maxSize;
+			}
+
+		};
+	}
+
+	/**
+	 * Creates a builder caching the responses of the given client. If the client is also
+	 * a {@link StreamingChatClient}, it is used for {@link #stream(Prompt)} too.
+	 * @param chatClient the client to call on cache misses.
+	 * @return the builder
+	 */
+	public static Builder builder(ChatClient chatClient) {
+		return new Builder(chatClient);
+	}
+
+	/**
+	 * Cache statistics since the creation of the client.
+	 *
+	 * @param exactHits the number of prompts answered by the exact tier.
+	 * @param semanticHits the number of prompts answered by the semantic tier.
+	 * @param misses the number of prompts sent to the model.
+	 * @param size the current number of exact entries, including expired ones not yet
+	 * removed.
+	 */
+	public record Stats(long exactHits, long semanticHits, long misses, int size) {
+
+		public double hitRate() {
+			long requests = this.exactHits + this.semanticHits + this.misses;
+			return (requests == 0) ? 0 : (double) (this.exactHits + this.semanticHits) / requests;
+		}
+
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		CacheKey key = cacheKey(prompt);
+		if (key == null) {
+			return this.chatClient.call(prompt);
+		}
+		Entry entry = getExact(key);
+		if (entry != null) {
+			return entry.response();
+		}
+		ChatResponse response = getSemantic(key);
+		if (response != null) {
+			putExact(key, new Entry(response, null, expiresAtNanos()));
+			return response;
+		}
+		this.misses.incrementAndGet();
+		response = this.chatClient.call(prompt);
+		put(key, new Entry(response, null, expiresAtNanos()));
+		return response;
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return Flux.defer(() -> {
+			CacheKey key = cacheKey(prompt);
+			if (key == null) {
+				return delegateStream(prompt);
+			}
+			Entry entry = getExact(key);
+			if (entry != null) {
+				return (entry.chunks() != null) ? Flux.fromIterable(entry.chunks()) : Flux.just(entry.response());
+			}
+			Flux<ChatResponse> miss = Flux.defer(() -> {
+				this.misses.incrementAndGet();
+				return cachedStream(prompt, key);
+			});
+			if (this.vectorStore == null || key.question() == null) {
+				return miss;
+			}
+			return Mono.fromCallable(() -> getSemantic(key))
+				.subscribeOn(Schedulers.boundedElastic())
+				.doOnNext(response -> putExact(key, new Entry(response, null, expiresAtNanos())))
+				.flux()
+				.switchIfEmpty(miss);
+		});
+	}
+
+	private Flux<ChatResponse> cachedStream(Prompt prompt, CacheKey key) {
+		List<ChatResponse> chunks = new ArrayList<>();
+		return delegateStream(prompt).doOnNext(chunks::add).doOnComplete(() -> {
+			if (!chunks.isEmpty()) {
+				put(key, new Entry(aggregate(chunks), List.copyOf(chunks), expiresAtNanos()));
+			}
+		});
+	}
+
+	private Flux<ChatResponse> delegateStream(Prompt prompt) {
+		if (this.streamingChatClient != null) {
+			return this.streamingChatClient.stream(prompt);
+		}
+		return Mono.fromCallable(() -> this.chatClient.call(prompt)).subscribeOn(Schedulers.boundedElastic()).flux();
+	}
+
+	/**
+	 * Removes all the exact entries. Semantic entries are left in the vector store.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	public Stats getStats() {
+		int size;
+		synchronized (this.entries) {
+			size = this.entries.size();
+		}
+		return new Stats(this.exactHits.get(), this.semanticHits.get(), this.misses.get(), size);
+	}
+
+	private Entry getExact(CacheKey key) {
+		synchronized (this.entries) {
+			Entry entry = this.entries.get(key.hash());
+			if (entry == null) {
+				return null;
+			}
+			if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+				this.entries.remove(key.hash());
+				return null;
+			}
+			this.exactHits.incrementAndGet();
+			return entry;
+		}
+	}
+
+	private void putExact(CacheKey key, Entry entry) {
+		synchronized (this.entries) {
+			this.entries.put(key.hash(), entry);
+		}
+	}
+
+	private void put(CacheKey key, Entry entry) {
+		putExact(key, entry);
+		if (this.vectorStore != null && key.question() != null) {
+			try {
+				this.vectorStore.add(List.of(semanticEntry(key, entry.response())));
+			}
+			catch (RuntimeException e) {
+				logger.warn("Failed to add semantic cache entry: {}", e.getMessage());
+			}
+		}
+	}
+
+	private ChatResponse getSemantic(CacheKey key) {
+		if (this.vectorStore == null || key.question() == null) {
+			return null;
+		}
+		List<Document> candidates;
+		try {
+			candidates = this.vectorStore.similaritySearch(SearchRequest.query(key.question())
+				.withTopK(this.semanticTopK)
+				.withSimilarityThreshold(this.similarityThreshold));
+		}
+		catch (RuntimeException e) {
+			logger.warn("Failed to search the semantic cache: {}", e.getMessage());
+			return null;
+		}
+		long now = System.currentTimeMillis();
+		List<String> expired = new ArrayList<>();
+		ChatResponse response = null;
+		for (Document candidate : candidates) {
+			Map<String, Object> metadata = candidate.getMetadata();
+			if (!key.tenant().equals(metadata.get(TENANT_METADATA))
+					|| !key.context().equals(metadata.get(CONTEXT_METADATA))) {
+				continue;
+			}
+			if (!(metadata.get(EXPIRES_AT_METADATA) instanceof Number expiresAt) || expiresAt.longValue() <= now) {
+				expired.add(candidate.getId());
+				continue;
+			}
+			response = fromSemanticEntry(metadata);
+			if (response != null) {
+				break;
+			}
+		}
+		if (!expired.isEmpty()) {
+			try {
+				this.vectorStore.delete(expired);
+			}
+			catch (RuntimeException e) {
+				logger.warn("Failed to delete expired semantic cache entries: {}", e.getMessage());
+			}
+		}
+		if (response != null) {
+			this.semanticHits.incrementAndGet();
+		}
+		return response;
+	}
+
+	private Document semanticEntry(CacheKey key, ChatResponse response) {
+		List<String> contents = response.getResults().stream().map(g -> g.getOutput().getContent()).toList();
+		Map<String, Object> metadata = new LinkedHashMap<>();
+		metadata.put(TENANT_METADATA, key.tenant());
+		metadata.put(CONTEXT_METADATA, key.context());
+		metadata.put(EXPIRES_AT_METADATA, System.currentTimeMillis() + this.ttl.toMillis());
+		metadata.put(RESPONSE_METADATA, ModelOptionsUtils.toJsonString(contents));
+		Document document = new Document(key.question(), metadata);
+		document.setContentFormatter(SEMANTIC_ENTRY_FORMATTER);
+		return document;
+	}
+
+	private static ChatResponse fromSemanticEntry(Map<String, Object> metadata) {
+		if (!(metadata.get(RESPONSE_METADATA) instanceof String json)) {
+			return null;
+		}
+		try {
+			List<String> contents = CANONICAL_OBJECT_MAPPER.readValue(json, new TypeReference<List<String>>() {
+			});
+			return new ChatResponse(contents.stream().map(Generation::new).toList());
+		}
+		catch (JsonProcessingException e) {
+			return null;
+		}
+	}
+
+	private long expiresAtNanos() {
+		return System.nanoTime() + this.ttl.toNanos();
+	}
+
+	/**
+	 * Returns the cache key of the prompt, or {@code null} if it cannot be cached.
+	 */
+	private CacheKey cacheKey(Prompt prompt) {
+		String tenant = this.tenantResolver.apply(prompt);
+		Assert.notNull(tenant, "Tenant must not be null");
+		List<Message> messages = prompt.getInstructions();
+		Map<String, Object> options = new LinkedHashMap<>(this.defaultOptions);
+		if (prompt.getOptions() != null) {
+			try {
+				options.putAll(ModelOptionsUtils.objectToMap(prompt.getOptions()));
+			}
+			catch (RuntimeException e) {
+				logger.debug("Not caching a prompt whose options cannot be serialized: {}", e.getMessage());
+				return null;
+			}
+		}
+
+		Message last = messages.isEmpty() ? null : messages.get(messages.size() - 1);
+		boolean semantic = last != null && last.getMessageType() == MessageType.USER && last.getContent() != null;
+		List<Map<String, Object>> context = new ArrayList<>(messages.size());
+		for (Message message : (semantic) ? messages.subList(0, messages.size() - 1) : messages) {
+			context.add(canonicalMessage(message));
+		}
+
+		try {
+			String contextJson = CANONICAL_OBJECT_MAPPER
+				.writeValueAsString(Map.of("tenant", tenant, "messages", context, "options", options));
+			String contextHash = sha256(contextJson);
+			if (!semantic) {
+				return new CacheKey(contextHash, tenant, contextHash, null);
+			}
+			String hash = sha256(contextHash + CANONICAL_OBJECT_MAPPER.writeValueAsString(canonicalMessage(last)));
+			return new CacheKey(hash, tenant, contextHash, last.getContent());
+		}
+		catch (JsonProcessingException e) {
+			logger.debug("Not caching a prompt that cannot be serialized: {}", e.getMessage());
+			return null;
+		}
+	}
+
+	private static Map<String, Object> canonicalMessage(Message message) {
+		Map<String, Object> canonical = new LinkedHashMap<>();
+		canonical.put("type", message.getMessageType());
+		canonical.put("content", message.getContent());
+		canonical.put("properties", message.getProperties());
+		return canonical;
+	}
+
+	private static String sha256(String text) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			return HexFormat.of().formatHex(digest.digest(text.getBytes(StandardCharsets.UTF_8)));
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Concatenates the contents of the streamed chunks into one response, keeping the
+	 * last generation and response metadata.
+	 */
+	static ChatResponse aggregate(List<ChatResponse> chunks) {
+		List<StringBuilder> contents = new ArrayList<>();
+		List<Map<String, Object>> properties = new ArrayList<>();
+		List<ChatGenerationMetadata> metadata = new ArrayList<>();
+		for (ChatResponse chunk : chunks) {
+			List<Generation> generations = chunk.getResults();
+			for (int i = 0; i < generations.size(); i++) {
+				Generation generation = generations.get(i);
+				if (i == contents.size()) {
+					contents.add(new StringBuilder());
+					properties.add(generation.getOutput().getProperties());
+					metadata.add(ChatGenerationMetadata.NULL);
+				}
+				if (generation.getOutput().getContent() != null) {
+					contents.get(i).append(generation.getOutput().getContent());
+				}
+				if (generation.getMetadata() != ChatGenerationMetadata.NULL) {
+					metadata.set(i, generation.getMetadata());
+				}
+			}
+		}
+		List<Generation> generations = new ArrayList<>(contents.size());
+		for (int i = 0; i < contents.size(); i++) {
+			generations.add(new Generation(contents.get(i).toString(), properties.get(i))
+				.withGenerationMetadata(metadata.get(i)));
+		}
+		return new ChatResponse(generations, chunks.get(chunks.size() - 1).getMetadata());
+	}
+
+	/**
+	 * @param hash the exact key.
+	 * @param tenant the tenant.
+	 * @param context the hash of the tenant, options and messages before the question.
+	 * @param question the last user message, or {@code null} if the prompt does not end
+	 * with one.
+	 */
+	private record CacheKey(String hash, String tenant, String context, String question) {
+	}
+
+	/**
+	 * @param response the response, aggregated for streamed responses.
+	 * @param chunks the chunks of a streamed response, or {@code null}.
+	 * @param expiresAtNanos the expiry time, as a {@link System#nanoTime()} value.
+	 */
+	private record Entry(ChatResponse response, List<ChatResponse> chunks, long expiresAtNanos) {
+	}
+
+	public static class Builder {
+
+		private final ChatClient chatClient;
+
+		private StreamingChatClient streamingChatClient;
+
+		private ChatOptions defaultOptions;
+
+		private Function<Prompt, String> tenantResolver = prompt -> "";
+
+		private Duration ttl = Duration.ofHours(1);
+
+		private int maxSize = 10_000;
+
+		private VectorStore vectorStore;
+
+		private double similarityThreshold;
+
+		private int semanticTopK = SearchRequest.DEFAULT_TOP_K;
+
+		private Builder(ChatClient chatClient) {
+			Assert.notNull(chatClient, "ChatClient must not be null");
+			this.chatClient = chatClient;
+			if (chatClient instanceof StreamingChatClient streamingChatClient) {
+				this.streamingChatClient = streamingChatClient;
+			}
+		}
+
+		/**
+		 * Client used by {@link #stream(Prompt)} on cache misses. Without one, streamed
+		 * prompts are answered with a single chunk by the chat client.
+		 * @param streamingChatClient the streaming client.
+		 * @return this builder
+		 */
+		public Builder withStreamingChatClient(StreamingChatClient streamingChatClient) {
+			this.streamingChatClient = streamingChatClient;
+			return this;
+		}
+
+		/**
+		 * Options of the chat client, over which the prompt options are merged to build
+		 * the cache key. Setting them makes prompts without options and prompts with the
+		 * same options share entries.
+		 * @param defaultOptions the options of the chat client.
+		 * @return this builder
+		 */
+		public Builder withDefaultOptions(ChatOptions defaultOptions) {
+			this.defaultOptions = defaultOptions;
+			return this;
+		}
+
+		/**
+		 * Resolves the tenant of a prompt. Tenants never share entries. Defaults to a
+		 * single tenant.
+		 * @param tenantResolver returns the tenant identifier, not {@code null}.
+		 * @return this builder
+		 */
+		public Builder withTenantResolver(Function<Prompt, String> tenantResolver) {
+			Assert.notNull(tenantResolver, "Tenant resolver must not be null");
+			this.tenantResolver = tenantResolver;
+			return this;
+		}
+
+		/**
+		 * Time to live of the entries of both tiers. Defaults to 1 hour.
+		 * @param ttl the time to live.
+		 * @return this builder
+		 */
+		public Builder withTtl(Duration ttl) {
+			Assert.isTrue(ttl != null && ttl.toNanos() > 0, "TTL must be positive");
+			this.ttl = ttl;
+			return this;
+		}
+
+		/**
+		 * Maximum number of exact entries, beyond which the least recently used are
+		 * evicted. Defaults to 10000.
+		 * @param maxSize max size, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxSize(int maxSize) {
+			Assert.isTrue(maxSize >= 1, "Max size must be >= 1");
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		/**
+		 * Enables the semantic tier.
+		 * @param vectorStore the store of the questions, which should be dedicated to the
+		 * cache.
+		 * @param similarityThreshold the minimum similarity of a cached question, between
+		 * 0 and 1.
+		 * @return this builder
+		 */
+		public Builder withSemanticCache(VectorStore vectorStore, double similarityThreshold) {
+			Assert.notNull(vectorStore, "VectorStore must not be null");
+			Assert.isTrue(similarityThreshold > 0 && similarityThreshold <= 1,
+					"Similarity threshold must be in (0, 1]");
+			this.vectorStore = vectorStore;
+			this.similarityThreshold = similarityThreshold;
+			return this;
+		}
+
+		/**
+		 * Number of similar questions considered by the semantic tier, of which the other
+		 * tenants' and contexts' are skipped. Defaults to
+		 * {@link SearchRequest#DEFAULT_TOP_K}.
+		 * @param semanticTopK the number of candidates, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withSemanticTopK(int semanticTopK) {
+			Assert.isTrue(semanticTopK >= 1, "Semantic top K must be >= 1");
+			this.semanticTopK = semanticTopK;
+			return this;
+		}
+
+		public CachingChatClient build() {
+			return new CachingChatClient(this);
+		}
+
+	}
+
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat;
+
+import java.util.function.Function;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.routing.Router;
+import org.springframework.util.Assert;
+
+/**
+ * Routes prompts to the fastest healthy of several chat clients, such as the clients of
+ * different providers of equivalent models, with hedged requests cutting the tail latency
+ * of slow responses. See {@link Router} for the routing policy.
+ *
+ * <p>
+ * Streamed prompts are sent to the backends that are {@link StreamingChatClient}s as
+ * streams, and to the others as calls answered with a single chunk. Their latency is the
+ * time to their first chunk.
+ *
+ * <pre class="code">
+ * var chatClient = new RoutingChatClient(Router.&lt;ChatClient&gt;builder()
+ * 	.withBackend("openai", openAiChatClient)
+ * 	.withBackend("azure", azureOpenAiChatClient)
+ * 	.withBackend("ollama", ollamaChatClient, 0.5)
+ * 	.withCapabilityWeight("ollama", "tools", 0)
+ * 	.build(), prompt -&gt; hasFunctions(prompt) ? "tools" : null);
+ * </pre>
+ */
+public class RoutingChatClient implements ChatClient, StreamingChatClient {
+
+	private final Router<ChatClient> router;
+
+	private final Function<Prompt, String> capabilityResolver;
+
+	public RoutingChatClient(Router<ChatClient> router) {
+		this(router, prompt -> null);
+	}
+
+	/**
+	 * Creates a routing client.
+	 * @param router the router of the chat clients.
+	 * @param capabilityResolver returns the capability a prompt requires, or {@code null}
+	 * for any backend.
+	 */
+	public RoutingChatClient(Router<ChatClient> router, Function<Prompt, String> capabilityResolver) {
+		Assert.notNull(router, "Router must not be null");
+		Assert.notNull(capabilityResolver, "Capability resolver must not be null");
+		this.router = router;
+		this.capabilityResolver = capabilityResolver;
+	}
+
+	@Override
+	public ChatResponse call(Prompt prompt) {
+		return this.router.call(this.capabilityResolver.apply(prompt), chatClient -> chatClient.call(prompt));
+	}
+
+	@Override
+	public Flux<ChatResponse> stream(Prompt prompt) {
+		return this.router.stream(this.capabilityResolver.apply(prompt), chatClient -> {
+			if (chatClient instanceof StreamingChatClient streamingChatClient) {
+				return streamingChatClient.stream(prompt);
+			}
+			return Mono.fromCallable(() -> chatClient.call(prompt)).subscribeOn(Schedulers.boundedElastic()).flux();
+		});
+	}
+
+	public Router<ChatClient> getRouter() {
+		return this.router;
+	}
+
+}
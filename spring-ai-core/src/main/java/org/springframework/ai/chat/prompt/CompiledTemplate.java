@@ -0,0 +1,325 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat.prompt;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenStream;
+import org.stringtemplate.v4.ST;
+import org.stringtemplate.v4.compiler.STLexer;
+
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * An immutable, thread-safe prompt template, parsed once and shared through a
+ * process-wide cache keyed by the template text and {@link TemplateFormat}.
+ *
+ * <p>
+ * {@link TemplateFormat#ST} templates are StringTemplate templates. All their variables
+ * are defined on the compiled prototype up front, so a render only fills the attribute
+ * slots of a private copy of it and never modifies the shared compiled template.
+ * {@link TemplateFormat#SIMPLE} templates are split into literal and variable segments
+ * and rendered in a single pass. Any number of threads can render the same template at
+ * once.
+ *
+ * @see PromptTemplate
+ */
+public abstract class CompiledTemplate {
+
+	private static final Map<CacheKey, CompiledTemplate> CACHE = new ConcurrentReferenceHashMap<>();
+
+	private final String template;
+
+	private final TemplateFormat templateFormat;
+
+	private final Set<String> inputVariables;
+
+	private CompiledTemplate(String template, TemplateFormat templateFormat, Set<String> inputVariables) {
+		this.template = template;
+		this.templateFormat = templateFormat;
+		this.inputVariables = Collections.unmodifiableSet(inputVariables);
+	}
+
+	/**
+	 * Returns the compiled form of the StringTemplate template, parsing it only if it is
+	 * not cached.
+	 * @param template the template text, with {@code {variable}} placeholders.
+	 * @return the compiled template.
+	 * @throws IllegalArgumentException if the template is not valid.
+	 */
+	public static CompiledTemplate compile(String template) {
+		return compile(template, TemplateFormat.ST);
+	}
+
+	/**
+	 * Returns the compiled form of the template, parsing it only if it is not cached.
+	 * @param template the template text, with {@code {variable}} placeholders.
+	 * @param templateFormat the template syntax.
+	 * @return the compiled template.
+	 * @throws IllegalArgumentException if the template is not valid.
+	 */
+	public static CompiledTemplate compile(String template, TemplateFormat templateFormat) {
+		Assert.notNull(template, "Template must not be null");
+		Assert.notNull(templateFormat, "Template format must not be null");
+		return CACHE.computeIfAbsent(new CacheKey(template, templateFormat), key -> switch (key.templateFormat()) {
+			case ST -> new StTemplate(key.template());
+			case SIMPLE -> new SimpleTemplate(key.template());
+		});
+	}
+
+	public String getTemplate() {
+		return this.template;
+	}
+
+	public TemplateFormat getTemplateFormat() {
+		return this.templateFormat;
+	}
+
+	/**
+	 * {@return the names of the template variables, unmodifiable}
+	 */
+	public Set<String> getInputVariables() {
+		return this.inputVariables;
+	}
+
+	/**
+	 * Renders the template with the given model. {@link Resource} values are replaced by
+	 * their content, and model entries that are not template variables are ignored.
+	 * @param model the variable values.
+	 * @return the rendered text.
+	 * @throws IllegalStateException if a template variable has no value.
+	 */
+	public String render(Map<String, ?> model) {
+		Set<String> missingEntries = null;
+		for (String variable : this.inputVariables) {
+			if (!model.containsKey(variable)) {
+				if (missingEntries == null) {
+					missingEntries = new TreeSet<>();
+				}
+				missingEntries.add(variable);
+			}
+		}
+		if (missingEntries != null) {
+			throw new IllegalStateException(
+					"All template variables were not replaced. Missing variable names are " + missingEntries);
+		}
+		return renderUnchecked(model);
+	}
+
+	/**
+	 * Renders the template without checking that every variable has a value.
+	 */
+	abstract String renderUnchecked(Map<String, ?> model);
+
+	private static String renderResource(Resource resource) {
+		try {
+			return resource.getContentAsString(Charset.defaultCharset());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private record CacheKey(String template, TemplateFormat templateFormat) {
+	}
+
+	private static final class StTemplate extends CompiledTemplate {
+
+		private final ST prototype;
+
+		StTemplate(String template) {
+			this(template, parse(template));
+		}
+
+		private StTemplate(String template, ST prototype) {
+			super(template, TemplateFormat.ST, defineVariables(prototype));
+			this.prototype = prototype;
+		}
+
+		private static ST parse(String template) {
+			try {
+				return new ST(template, '{', '}');
+			}
+			catch (Exception ex) {
+				throw new IllegalArgumentException("The template string is not valid.", ex);
+			}
+		}
+
+		private static Set<String> defineVariables(ST prototype) {
+			TokenStream tokens = prototype.impl.tokens;
+			Set<String> variables = new LinkedHashSet<>();
+			for (int i = 0; i < tokens.range(); i++) {
+				Token token = tokens.get(i);
+				if (token.getType() == STLexer.ID) {
+					variables.add(token.getText());
+				}
+			}
+			for (String variable : variables) {
+				// Defines the attribute, so that renders never add one to the shared
+				// template
+				prototype.add(variable, "");
+				prototype.remove(variable);
+			}
+			return variables;
+		}
+
+		@Override
+		String renderUnchecked(Map<String, ?> model) {
+			ST st = new ST(this.prototype);
+			for (Map.Entry<String, ?> entry : model.entrySet()) {
+				if (getInputVariables().contains(entry.getKey())) {
+					Object value = entry.getValue();
+					st.add(entry.getKey(), (value instanceof Resource resource) ? renderResource(resource) : value);
+				}
+			}
+			return st.render();
+		}
+
+	}
+
+	/**
+	 * Literal text with {@code {name}} placeholders, where the name is made of letters,
+	 * digits and underscores. Braces are escaped as <code>\{</code> and <code>\}</code>.
+	 */
+	private static final class SimpleTemplate extends CompiledTemplate {
+
+		/**
+		 * The literal text around the variables: {@code literals[i]} precedes
+		 * {@code variables[i]}, and the last literal ends the template.
+		 */
+		private final String[] literals;
+
+		private final String[] variables;
+
+		private final int literalLength;
+
+		SimpleTemplate(String template) {
+			this(template, new ArrayList<>(), new ArrayList<>());
+		}
+
+		private SimpleTemplate(String template, List<String> literals, List<String> variables) {
+			super(template, TemplateFormat.SIMPLE, parse(template, literals, variables));
+			this.literals = literals.toArray(new String[0]);
+			this.variables = variables.toArray(new String[0]);
+			int length = 0;
+			for (String literal : this.literals) {
+				length += literal.length();
+			}
+			this.literalLength = length;
+		}
+
+		private static Set<String> parse(String template, List<String> literals, List<String> variables) {
+			StringBuilder literal = new StringBuilder();
+			int i = 0;
+			while (i < template.length()) {
+				char c = template.charAt(i);
+				if (c == '\\' && i + 1 < template.length()
+						&& (template.charAt(i + 1) == '{' || template.charAt(i + 1) == '}')) {
+					literal.append(template.charAt(i + 1));
+					i += 2;
+				}
+				else if (c == '{') {
+					int end = template.indexOf('}', i + 1);
+					if (end < 0 || !isVariableName(template, i + 1, end)) {
+						throw new IllegalArgumentException(
+								"The template string is not valid: invalid placeholder at index " + i);
+					}
+					literals.add(literal.toString());
+					literal.setLength(0);
+					variables.add(template.substring(i + 1, end));
+					i = end + 1;
+				}
+				else {
+					literal.append(c);
+					i++;
+				}
+			}
+			literals.add(literal.toString());
+			return new LinkedHashSet<>(variables);
+		}
+
+		private static boolean isVariableName(String template, int start, int end) {
+			if (start == end || Character.isDigit(template.charAt(start))) {
+				return false;
+			}
+			for (int i = start; i < end; i++) {
+				char c = template.charAt(i);
+				if (!Character.isLetterOrDigit(c) && c != '_') {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		@Override
+		String renderUnchecked(Map<String, ?> model) {
+			String[] values = new String[this.variables.length];
+			int length = this.literalLength;
+			for (int i = 0; i < values.length; i++) {
+				values[i] = toText(model.get(this.variables[i]));
+				length += values[i].length();
+			}
+			StringBuilder text = new StringBuilder(length);
+			for (int i = 0; i < values.length; i++) {
+				text.append(this.literals[i]).append(values[i]);
+			}
+			return text.append(this.literals[values.length]).toString();
+		}
+
+		/**
+		 * Converts a value the way StringTemplate does: nothing for {@code null}, and the
+		 * elements one after the other for collections and arrays.
+		 */
+		private static String toText(Object value) {
+			if (value == null) {
+				return "";
+			}
+			if (value instanceof Resource resource) {
+				return renderResource(resource);
+			}
+			if (value instanceof Iterable<?> iterable) {
+				StringBuilder text = new StringBuilder();
+				for (Object element : iterable) {
+					text.append(toText(element));
+				}
+				return text.toString();
+			}
+			if (value instanceof Object[] array) {
+				StringBuilder text = new StringBuilder();
+				for (Object element : array) {
+					text.append(toText(element));
+				}
+				return text.toString();
+			}
+			return value.toString();
+		}
+
+	}
+
+}
@@ -16,95 +16,74 @@
 
 package org.springframework.ai.chat.prompt;
 
-import org.antlr.runtime.Token;
-import org.antlr.runtime.TokenStream;
 import org.springframework.ai.parser.OutputParser;
 import org.springframework.ai.chat.messages.Message;
 import org.springframework.ai.chat.messages.UserMessage;
 import org.springframework.core.io.Resource;
 import org.springframework.util.StreamUtils;
-import org.stringtemplate.v4.ST;
-import org.stringtemplate.v4.compiler.STLexer;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.*;
-import java.util.Map.Entry;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
+/**
+ * A prompt template, written in StringTemplate syntax unless another
+ * {@link TemplateFormat} is given. The template is compiled once per process through
+ * {@link CompiledTemplate}, and rendering with a model does not modify the template, so
+ * {@link #render(Map)} and {@link #create(Map)} can be called concurrently.
+ */
 public class PromptTemplate implements PromptTemplateActions, PromptTemplateMessageActions {
 
-	private ST st;
+	private final CompiledTemplate compiledTemplate;
 
 	private Map<String, Object> dynamicModel = new HashMap<>();
 
 	protected String template;
 
-	protected TemplateFormat templateFormat = TemplateFormat.ST;
+	private final TemplateFormat templateFormat;
 
 	private OutputParser outputParser;
 
 	public PromptTemplate(Resource resource) {
-		try (InputStream inputStream = resource.getInputStream()) {
-			this.template = StreamUtils.copyToString(inputStream, Charset.defaultCharset());
-		}
-		catch (IOException ex) {
-			throw new RuntimeException("Failed to read resource", ex);
-		}
-		try {
-			this.st = new ST(this.template, '{', '}');
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
+		this(resource, TemplateFormat.ST);
+	}
+
+	public PromptTemplate(Resource resource, TemplateFormat templateFormat) {
+		this(readTemplate(resource), templateFormat);
 	}
 
 	public PromptTemplate(String template) {
+		this(template, TemplateFormat.ST);
+	}
+
+	public PromptTemplate(String template, TemplateFormat templateFormat) {
 		this.template = template;
+		this.templateFormat = templateFormat;
 		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
+		this.compiledTemplate = CompiledTemplate.compile(this.template, this.templateFormat);
 	}
 
 	public PromptTemplate(String template, Map<String, Object> model) {
-		this.template = template;
-		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-			for (Entry<String, Object> entry : model.entrySet()) {
-				add(entry.getKey(), entry.getValue());
-				dynamicModel.put(entry.getKey(), entry.getValue());
-			}
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
+		this(template, model, TemplateFormat.ST);
+	}
+
+	public PromptTemplate(String template, Map<String, Object> model, TemplateFormat templateFormat) {
+		this(template, templateFormat);
+		this.dynamicModel.putAll(model);
 	}
 
 	public PromptTemplate(Resource resource, Map<String, Object> model) {
+		this(readTemplate(resource), model, TemplateFormat.ST);
+	}
+
+	private static String readTemplate(Resource resource) {
 		try (InputStream inputStream = resource.getInputStream()) {
-			this.template = StreamUtils.copyToString(inputStream, Charset.defaultCharset());
+			return StreamUtils.copyToString(inputStream, Charset.defaultCharset());
 		}
 		catch (IOException ex) {
 			throw new RuntimeException("Failed to read resource", ex);
 		}
-		// If the template string is not valid, an exception will be thrown
-		try {
-			this.st = new ST(this.template, '{', '}');
-			for (Entry<String, Object> entry : model.entrySet()) {
-				add(entry.getKey(), entry.getValue());
-				dynamicModel.put(entry.getKey(), entry.getValue());
-			}
-		}
-		catch (Exception ex) {
-			throw new IllegalArgumentException("The template string is not valid.", ex);
-		}
 	}
 
 	public OutputParser getOutputParser() {
@@ -117,7 +96,6 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	}
 
 	public void add(String name, Object value) {
-		this.st.add(name, value);
 		this.dynamicModel.put(name, value);
 	}
 
@@ -133,40 +111,18 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	@Override
 	public String render() {
 		validate(this.dynamicModel);
-		return st.render();
+		return this.compiledTemplate.renderUnchecked(this.dynamicModel);
 	}
 
 	@Override
 	public String render(Map<String, Object> model) {
 		validate(model);
-		for (Entry<String, Object> entry : model.entrySet()) {
-			if (st.getAttribute(entry.getKey()) != null) {
-				st.remove(entry.getKey());
-			}
-			if (entry.getValue() instanceof Resource) {
-				st.add(entry.getKey(), renderResource((Resource) entry.getValue()));
-			}
-			else {
-				st.add(entry.getKey(), entry.getValue());
-			}
-
+		if (this.dynamicModel.isEmpty()) {
+			return this.compiledTemplate.renderUnchecked(model);
 		}
-		return st.render();
-	}
-
-	private String renderResource(Resource resource) {
-		try {
-			return resource.getContentAsString(Charset.defaultCharset());
-		}
-		catch (IOException e) {
-			throw new RuntimeException(e);
-		}
-		// try (InputStream inputStream = resource.getInputStream()) {
-		// return StreamUtils.copyToString(inputStream, Charset.defaultCharset());
-		// }
-		// catch (IOException ex) {
-		// throw new RuntimeException(ex);
-		// }
+		Map<String, Object> combinedModel = new HashMap<>(this.dynamicModel);
+		combinedModel.putAll(model);
+		return this.compiledTemplate.renderUnchecked(combinedModel);
 	}
 
 	@Override
@@ -190,21 +146,20 @@ public class PromptTemplate implements PromptTemplateActions, PromptTemplateMess
 	}
 
 	public Set<String> getInputVariables() {
-		TokenStream tokens = this.st.impl.tokens;
-		return IntStream.range(0, tokens.range())
-			.mapToObj(tokens::get)
-			.filter(token -> token.getType() == STLexer.ID)
-			.map(Token::getText)
-			.collect(Collectors.toSet());
+		return this.compiledTemplate.getInputVariables();
 	}
 
 	protected void validate(Map<String, Object> model) {
-		Set<String> dynamicVariableNames = new HashSet<>(this.dynamicModel.keySet());
-		Set<String> modelVariables = new HashSet<>(model.keySet());
-		modelVariables.addAll(dynamicVariableNames);
-		Set<String> missingEntries = new HashSet<>(getInputVariables());
-		missingEntries.removeAll(modelVariables);
-		if (!missingEntries.isEmpty()) {
+		Set<String> missingEntries = null;
+		for (String variable : getInputVariables()) {
+			if (!model.containsKey(variable) && !this.dynamicModel.containsKey(variable)) {
+				if (missingEntries == null) {
+					missingEntries = new HashSet<>();
+				}
+				missingEntries.add(variable);
+			}
+		}
+		if (missingEntries != null) {
 			throw new IllegalStateException(
 					"All template variables were not replaced. Missing variable names are " + missingEntries);
 		}
@@ -28,10 +28,18 @@ public class SystemPromptTemplate extends PromptTemplate {
 		super(template);
 	}
 
+	public SystemPromptTemplate(String template, TemplateFormat templateFormat) {
+		super(template, templateFormat);
+	}
+
 	public SystemPromptTemplate(Resource resource) {
 		super(resource);
 	}
 
+	public SystemPromptTemplate(Resource resource, TemplateFormat templateFormat) {
+		super(resource, templateFormat);
+	}
+
 	@Override
 	public Message createMessage() {
 		return new SystemMessage(render());
@@ -16,9 +16,21 @@
 
 package org.springframework.ai.chat.prompt;
 
+/**
+ * The syntax of a {@link PromptTemplate}.
+ */
 public enum TemplateFormat {
 
-	ST("ST");
+	/**
+	 * StringTemplate 4, with <code>{</code> and <code>}</code> delimiters.
+	 */
+	ST("ST"),
+
+	/**
+	 * Plain {@code {variable}} substitution, without StringTemplate expressions. Faster
+	 * to render than {@link #ST}.
+	 */
+	SIMPLE("SIMPLE");
 
 	private final String value;
 
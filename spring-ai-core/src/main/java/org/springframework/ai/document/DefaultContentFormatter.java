@@ -20,11 +20,8 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.springframework.util.Assert;
 
@@ -41,6 +38,14 @@ public class DefaultContentFormatter implements ContentFormatter {
 
 	private static final String TEMPLATE_KEY_PLACEHOLDER = "{key}";
 
+	private static final int KEY_SEGMENT = 0;
+
+	private static final int VALUE_SEGMENT = 1;
+
+	private static final int METADATA_STRING_SEGMENT = 0;
+
+	private static final int CONTENT_SEGMENT = 1;
+
 	private static final String DEFAULT_METADATA_TEMPLATE = String.format("%s: %s", TEMPLATE_KEY_PLACEHOLDER,
 			TEMPLATE_VALUE_PLACEHOLDER);
 
@@ -75,6 +80,16 @@ public class DefaultContentFormatter implements ContentFormatter {
 	 */
 	private final List<String> excludedEmbedMetadataKeys;
 
+	/**
+	 * The metadata template, compiled to literal and placeholder segments.
+	 */
+	private final Segment[] metadataSegments;
+
+	/**
+	 * The text template, compiled to literal and placeholder segments.
+	 */
+	private final Segment[] textSegments;
+
 	/**
 	 * Start building a new configuration.
 	 * @return The entry point for creating a new configuration.
@@ -97,6 +112,9 @@ public class DefaultContentFormatter implements ContentFormatter {
 		this.textTemplate = builder.textTemplate;
 		this.excludedInferenceMetadataKeys = builder.excludedInferenceMetadataKeys;
 		this.excludedEmbedMetadataKeys = builder.excludedEmbedMetadataKeys;
+		this.metadataSegments = compile(this.metadataTemplate, TEMPLATE_KEY_PLACEHOLDER, TEMPLATE_VALUE_PLACEHOLDER);
+		this.textSegments = compile(this.textTemplate, TEMPLATE_METADATA_STRING_PLACEHOLDER,
+				TEMPLATE_CONTENT_PLACEHOLDER);
 	}
 
 	public static class Builder {
@@ -204,15 +222,54 @@ public class DefaultContentFormatter implements ContentFormatter {
 	public String format(Document document, MetadataMode metadataMode) {
 
 		var metadata = metadataFilter(document.getMetadata(), metadataMode);
+		String content = document.getContent();
+
+		StringBuilder text = new StringBuilder(estimateLength(metadata, content));
+		for (Segment segment : this.textSegments) {
+			if (segment.placeholder() == METADATA_STRING_SEGMENT) {
+				appendMetadata(text, metadata);
+			}
+			else if (segment.placeholder() == CONTENT_SEGMENT) {
+				text.append(content);
+			}
+			else {
+				text.append(segment.literal());
+			}
+		}
+		return text.toString();
+	}
 
-		var metadataText = metadata.entrySet()
-			.stream()
-			.map(metadataEntry -> this.metadataTemplate.replace(TEMPLATE_KEY_PLACEHOLDER, metadataEntry.getKey())
-				.replace(TEMPLATE_VALUE_PLACEHOLDER, metadataEntry.getValue().toString()))
-			.collect(Collectors.joining(this.metadataSeparator));
+	private void appendMetadata(StringBuilder text, Map<String, Object> metadata) {
+		boolean first = true;
+		for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+			if (!first) {
+				text.append(this.metadataSeparator);
+			}
+			first = false;
+			for (Segment segment : this.metadataSegments) {
+				if (segment.placeholder() == KEY_SEGMENT) {
+					text.append(entry.getKey());
+				}
+				else if (segment.placeholder() == VALUE_SEGMENT) {
+					text.append(entry.getValue().toString());
+				}
+				else {
+					text.append(segment.literal());
+				}
+			}
+		}
+	}
 
-		return this.textTemplate.replace(TEMPLATE_METADATA_STRING_PLACEHOLDER, metadataText)
-			.replace(TEMPLATE_CONTENT_PLACEHOLDER, document.getContent());
+	private int estimateLength(Map<String, Object> metadata, String content) {
+		int length = content.length();
+		for (Segment segment : this.textSegments) {
+			length += (segment.literal() != null) ? segment.literal().length() : 0;
+		}
+		int entryLength = this.metadataSeparator.length() + 16;
+		for (Segment segment : this.metadataSegments) {
+			entryLength += (segment.literal() != null) ? segment.literal().length() : 0;
+		}
+		return length + metadata.size() * entryLength;
 	}
 
 	/**
@@ -229,19 +286,51 @@ public class DefaultContentFormatter implements ContentFormatter {
 			return new HashMap<String, Object>(Collections.emptyMap());
 		}
 
-		Set<String> usableMetadataKeys = new HashSet<>(metadata.keySet());
+		List<String> excludedKeys = (metadataMode == MetadataMode.INFERENCE) ? this.excludedInferenceMetadataKeys
+				: this.excludedEmbedMetadataKeys;
 
-		if (metadataMode == MetadataMode.INFERENCE) {
-			usableMetadataKeys.removeAll(this.excludedInferenceMetadataKeys);
+		Map<String, Object> usableMetadata = new HashMap<>();
+		for (Map.Entry<String, Object> entry : metadata.entrySet()) {
+			if (!excludedKeys.contains(entry.getKey())) {
+				usableMetadata.put(entry.getKey(), entry.getValue());
+			}
 		}
-		else if (metadataMode == MetadataMode.EMBED) {
-			usableMetadataKeys.removeAll(this.excludedEmbedMetadataKeys);
+		return usableMetadata;
+	}
+
+	/**
+	 * Splits a template into literal text and the indexes of the given placeholders.
+	 */
+	private static Segment[] compile(String template, String... placeholders) {
+		List<Segment> segments = new ArrayList<>();
+		int start = 0;
+		while (start < template.length()) {
+			int next = -1;
+			int placeholder = -1;
+			for (int i = 0; i < placeholders.length; i++) {
+				int index = template.indexOf(placeholders[i], start);
+				if (index >= 0 && (next < 0 || index < next)) {
+					next = index;
+					placeholder = i;
+				}
+			}
+			if (next < 0) {
+				segments.add(new Segment(template.substring(start), -1));
+				break;
+			}
+			if (next > start) {
+				segments.add(new Segment(template.substring(start, next), -1));
+			}
+			segments.add(new Segment(null, placeholder));
+			start = next + placeholders[placeholder].length();
 		}
+		return segments.toArray(new Segment[0]);
+	}
 
-		return new HashMap<String, Object>(metadata.entrySet()
-			.stream()
-			.filter(e -> usableMetadataKeys.contains(e.getKey()))
-			.collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())));
+	/**
+	 * Either a literal template part or the index of a placeholder.
+	 */
+	private record Segment(String literal, int placeholder) {
 	}
 
 	public String getMetadataTemplate() {
@@ -67,6 +67,12 @@ public class Document {
 	@JsonIgnore
 	private ContentFormatter contentFormatter = DEFAULT_CONTENT_FORMATTER;
 
+	/**
+	 * Last formatted content per metadata mode. Note: ephemeral field.
+	 */
+	@JsonIgnore
+	private final FormattedContent[] formattedContents = new FormattedContent[MetadataMode.values().length];
+
 	@JsonCreator(mode = JsonCreator.Mode.PROPERTIES)
 	public Document(@JsonProperty("content") String content) {
 		this(content, new HashMap<>());
@@ -105,7 +111,7 @@ public class Document {
 
 	public String getFormattedContent(MetadataMode metadataMode) {
 		Assert.notNull(metadataMode, "Metadata mode must not be null");
-		return this.contentFormatter.format(this, metadataMode);
+		return format(this.contentFormatter, metadataMode);
 	}
 
 	/**
@@ -114,7 +120,27 @@ public class Document {
 	public String getFormattedContent(ContentFormatter formatter, MetadataMode metadataMode) {
 		Assert.notNull(formatter, "formatter must not be null");
 		Assert.notNull(metadataMode, "Metadata mode must not be null");
-		return formatter.format(this, metadataMode);
+		return format(formatter, metadataMode);
+	}
+
+	/**
+	 * The output of a {@link DefaultContentFormatter} depends only on the content,
+	 * metadata and mode, so it is memoized until the formatter, content or metadata
+	 * change. Metadata values are expected to be immutable.
+	 */
+	private String format(ContentFormatter formatter, MetadataMode metadataMode) {
+		if (!(formatter instanceof DefaultContentFormatter)) {
+			return formatter.format(this, metadataMode);
+		}
+		FormattedContent cached = this.formattedContents[metadataMode.ordinal()];
+		if (cached != null && cached.formatter() == formatter && cached.content() == this.content
+				&& cached.metadata().equals(this.metadata)) {
+			return cached.text();
+		}
+		String text = formatter.format(this, metadataMode);
+		this.formattedContents[metadataMode.ordinal()] = new FormattedContent(formatter, this.content,
+				new HashMap<>(this.metadata), text);
+		return text;
 	}
 
 	public void setEmbedding(List<Double> embedding) {
@@ -188,4 +214,8 @@ public class Document {
 				+ '}';
 	}
 
+	private record FormattedContent(ContentFormatter formatter, String content, Map<String, Object> metadata,
+			String text) {
+	}
+
 }
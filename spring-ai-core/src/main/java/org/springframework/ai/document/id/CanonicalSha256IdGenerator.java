@@ -0,0 +1,370 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.document.id;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.springframework.util.Assert;
+
+/**
+ * A deterministic SHA-256 based ID generator that hashes a canonical byte encoding of the
+ * contents directly, without Java serialization or intermediate hex strings.
+ *
+ * <p>
+ * Strings are streamed as UTF-8 into a thread-local {@link MessageDigest}, maps are
+ * hashed in sorted key order and sets in sorted element order, so that equal content and
+ * metadata always produce the same ID regardless of the map or set implementation. The
+ * resulting UUID is built straight from the first 16 digest bytes (name-based, version 5
+ * layout).
+ *
+ * <p>
+ * The {@link Encoding#JDK_SERIALIZATION} encoding reproduces the IDs produced by
+ * {@link JdkSha256HexIdGenerator}, for stores that already contain such IDs.
+ *
+ * @see JdkSha256HexIdGenerator
+ */
+public class CanonicalSha256IdGenerator implements IdGenerator {
+
+	private static final String SHA_256 = "SHA-256";
+
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private static final int BUFFER_SIZE = 4096;
+
+	/**
+	 * Largest serialization buffer kept by a thread between documents.
+	 */
+	private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+	// Type tags keep differently typed but equally printed values apart.
+	private static final byte NULL_TAG = 0;
+
+	private static final byte STRING_TAG = 1;
+
+	private static final byte BOOLEAN_TAG = 2;
+
+	private static final byte LONG_TAG = 3;
+
+	private static final byte DOUBLE_TAG = 4;
+
+	private static final byte NUMBER_TAG = 5;
+
+	private static final byte MAP_TAG = 6;
+
+	private static final byte LIST_TAG = 7;
+
+	private static final byte SET_TAG = 8;
+
+	private static final byte BYTES_TAG = 9;
+
+	private static final byte ENUM_TAG = 10;
+
+	private static final byte OBJECT_TAG = 11;
+
+	private static final ThreadLocal<DigestState> DIGEST_STATE = ThreadLocal.withInitial(DigestState::new);
+
+	/**
+	 * The byte encoding hashed to produce the ID.
+	 */
+	public enum Encoding {
+
+		/**
+		 * Type-tagged canonical encoding, with sorted maps and sets.
+		 */
+		CANONICAL,
+
+		/**
+		 * Java serialization of the contents, compatible with
+		 * {@link JdkSha256HexIdGenerator}.
+		 */
+		JDK_SERIALIZATION
+
+	}
+
+	private final Encoding encoding;
+
+	public CanonicalSha256IdGenerator() {
+		this(Encoding.CANONICAL);
+	}
+
+	public CanonicalSha256IdGenerator(Encoding encoding) {
+		Assert.notNull(encoding, "Encoding must not be null");
+		this.encoding = encoding;
+	}
+
+	/**
+	 * {@return a generator that reproduces the IDs of {@link JdkSha256HexIdGenerator}}
+	 */
+	public static CanonicalSha256IdGenerator jdkCompatible() {
+		return new CanonicalSha256IdGenerator(Encoding.JDK_SERIALIZATION);
+	}
+
+	public Encoding getEncoding() {
+		return this.encoding;
+	}
+
+	@Override
+	public String generateId(Object... contents) {
+		Assert.notNull(contents, "Contents must not be null");
+		DigestState state = DIGEST_STATE.get();
+		state.reset();
+		if (this.encoding == Encoding.JDK_SERIALIZATION) {
+			return jdkCompatibleId(state, contents);
+		}
+		for (Object content : contents) {
+			state.writeValue(content);
+		}
+		return toUuid(state.digest()).toString();
+	}
+
+	private static String jdkCompatibleId(DigestState state, Object... contents) {
+		try {
+			ObjectOutputStream out = new ObjectOutputStream(state.byteOut);
+			for (Object content : contents) {
+				out.writeObject(content);
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			throw new RuntimeException("Failed to serialize", e);
+		}
+		state.byteOut.writeTo(state.digest);
+		byte[] hash = state.digest.digest();
+
+		byte[] hex = new byte[hash.length * 2];
+		for (int i = 0; i < hash.length; i++) {
+			hex[i * 2] = (byte) HEX_DIGITS[(hash[i] >> 4) & 0x0f];
+			hex[i * 2 + 1] = (byte) HEX_DIGITS[hash[i] & 0x0f];
+		}
+		return UUID.nameUUIDFromBytes(hex).toString();
+	}
+
+	private static UUID toUuid(byte[] hash) {
+		hash[6] &= 0x0f;
+		hash[6] |= 0x50; // version 5
+		hash[8] &= 0x3f;
+		hash[8] |= (byte) 0x80; // IETF variant
+		long msb = 0;
+		long lsb = 0;
+		for (int i = 0; i < 8; i++) {
+			msb = (msb << 8) | (hash[i] & 0xff);
+		}
+		for (int i = 8; i < 16; i++) {
+			lsb = (lsb << 8) | (hash[i] & 0xff);
+		}
+		return new UUID(msb, lsb);
+	}
+
+	/**
+	 * Per-thread, reusable digest and scratch buffer.
+	 */
+	private static final class DigestState {
+
+		private final MessageDigest digest;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private ReusableByteArrayOutputStream byteOut = new ReusableByteArrayOutputStream();
+
+		private int position;
+
+		DigestState() {
+			try {
+				this.digest = MessageDigest.getInstance(SHA_256);
+			}
+			catch (NoSuchAlgorithmException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+
+		void reset() {
+			this.digest.reset();
+			if (this.byteOut.capacity() > MAX_RETAINED_BUFFER_SIZE) {
+				// Do not hold on to the buffer of an unusually large document
+				this.byteOut = new ReusableByteArrayOutputStream();
+			}
+			else {
+				this.byteOut.reset();
+			}
+			this.position = 0;
+		}
+
+		byte[] digest() {
+			flush();
+			return this.digest.digest();
+		}
+
+		private void flush() {
+			if (this.position > 0) {
+				this.digest.update(this.buffer, 0, this.position);
+				this.position = 0;
+			}
+		}
+
+		private void writeByte(int b) {
+			if (this.position == this.buffer.length) {
+				flush();
+			}
+			this.buffer[this.position++] = (byte) b;
+		}
+
+		private void writeInt(int value) {
+			writeByte(value >>> 24);
+			writeByte(value >>> 16);
+			writeByte(value >>> 8);
+			writeByte(value);
+		}
+
+		private void writeLong(long value) {
+			writeInt((int) (value >>> 32));
+			writeInt((int) value);
+		}
+
+		private void writeString(CharSequence value) {
+			int length = value.length();
+			writeInt(length);
+			for (int i = 0; i < length; i++) {
+				char c = value.charAt(i);
+				if (c < 0x80) {
+					writeByte(c);
+				}
+				else if (c < 0x800) {
+					writeByte(0xc0 | (c >> 6));
+					writeByte(0x80 | (c & 0x3f));
+				}
+				else if (Character.isHighSurrogate(c) && i + 1 < length
+						&& Character.isLowSurrogate(value.charAt(i + 1))) {
+					int codePoint = Character.toCodePoint(c, value.charAt(++i));
+					writeByte(0xf0 | (codePoint >> 18));
+					writeByte(0x80 | ((codePoint >> 12) & 0x3f));
+					writeByte(0x80 | ((codePoint >> 6) & 0x3f));
+					writeByte(0x80 | (codePoint & 0x3f));
+				}
+				else {
+					writeByte(0xe0 | (c >> 12));
+					writeByte(0x80 | ((c >> 6) & 0x3f));
+					writeByte(0x80 | (c & 0x3f));
+				}
+			}
+		}
+
+		void writeValue(Object value) {
+			if (value == null) {
+				writeByte(NULL_TAG);
+			}
+			else if (value instanceof CharSequence text) {
+				writeByte(STRING_TAG);
+				writeString(text);
+			}
+			else if (value instanceof Boolean bool) {
+				writeByte(BOOLEAN_TAG);
+				writeByte(bool ? 1 : 0);
+			}
+			else if (value instanceof Integer || value instanceof Long || value instanceof Short
+					|| value instanceof Byte) {
+				writeByte(LONG_TAG);
+				writeLong(((Number) value).longValue());
+			}
+			else if (value instanceof Double || value instanceof Float) {
+				writeByte(DOUBLE_TAG);
+				writeLong(Double.doubleToLongBits(((Number) value).doubleValue()));
+			}
+			else if (value instanceof Number number) {
+				writeByte(NUMBER_TAG);
+				writeString(number.toString());
+			}
+			else if (value instanceof Map<?, ?> map) {
+				writeByte(MAP_TAG);
+				writeInt(map.size());
+				List<Map.Entry<?, ?>> entries = new ArrayList<>(map.entrySet());
+				entries.sort(Comparator.comparing(entry -> String.valueOf(entry.getKey())));
+				for (Map.Entry<?, ?> entry : entries) {
+					writeValue(entry.getKey());
+					writeValue(entry.getValue());
+				}
+			}
+			else if (value instanceof Set<?> set) {
+				writeByte(SET_TAG);
+				writeInt(set.size());
+				List<Object> elements = new ArrayList<>(set);
+				elements.sort(Comparator.comparing(String::valueOf));
+				for (Object element : elements) {
+					writeValue(element);
+				}
+			}
+			else if (value instanceof Collection<?> collection) {
+				writeByte(LIST_TAG);
+				writeInt(collection.size());
+				for (Object element : collection) {
+					writeValue(element);
+				}
+			}
+			else if (value instanceof byte[] bytes) {
+				writeByte(BYTES_TAG);
+				writeInt(bytes.length);
+				flush();
+				this.digest.update(bytes);
+			}
+			else if (value instanceof Object[] array) {
+				writeValue(Arrays.asList(array));
+			}
+			else if (value instanceof Enum<?> enumValue) {
+				writeByte(ENUM_TAG);
+				writeString(enumValue.getDeclaringClass().getName());
+				writeString(enumValue.name());
+			}
+			else {
+				writeByte(OBJECT_TAG);
+				writeString(value.getClass().getName());
+				writeString(value.toString());
+			}
+		}
+
+	}
+
+	/**
+	 * Feeds the internal buffer to the digest to avoid copying the serialized bytes.
+	 */
+	private static final class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+
+		ReusableByteArrayOutputStream() {
+			super(BUFFER_SIZE);
+		}
+
+		void writeTo(MessageDigest digest) {
+			digest.update(this.buf, 0, this.count);
+		}
+
+		int capacity() {
+			return this.buf.length;
+		}
+
+	}
+
+}
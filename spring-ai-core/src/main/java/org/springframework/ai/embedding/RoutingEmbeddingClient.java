@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.embedding;
+
+import java.util.List;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.model.routing.Router;
+import org.springframework.util.Assert;
+
+/**
+ * Routes embedding requests to the fastest healthy of several embedding clients. See
+ * {@link Router} for the routing policy.
+ *
+ * <p>
+ * Embeddings of different models are not comparable, so requests are only routed within a
+ * consistent-model group: the backends serving the same model, e.g. through different
+ * providers or regions. Groups are router capabilities, and each backend is restricted to
+ * the group of its model. Hedged requests and fail-overs never leave the group.
+ *
+ * <pre class="code">
+ * Router&lt;EmbeddingClient&gt; router = Router.&lt;EmbeddingClient&gt;builder()
+ * 	.withBackend("openai", openAiEmbeddingClient, 1, "ada-002")
+ * 	.withBackend("azure", azureOpenAiEmbeddingClient, 1, "ada-002")
+ * 	.withBackend("ollama", ollamaEmbeddingClient, 1, "llama2")
+ * 	.build();
+ * var embeddingClient = new RoutingEmbeddingClient(router, "ada-002");
+ * </pre>
+ */
+public class RoutingEmbeddingClient extends AbstractEmbeddingClient {
+
+	private final Router<EmbeddingClient> router;
+
+	private final String modelGroup;
+
+	/**
+	 * Creates a routing client.
+	 * @param router the router of the embedding clients.
+	 * @param modelGroup the consistent-model group to route the requests within.
+	 */
+	public RoutingEmbeddingClient(Router<EmbeddingClient> router, String modelGroup) {
+		Assert.notNull(router, "Router must not be null");
+		Assert.hasText(modelGroup, "Model group must not be empty");
+		this.router = router;
+		this.modelGroup = modelGroup;
+	}
+
+	@Override
+	public EmbeddingResponse call(EmbeddingRequest request) {
+		return this.router.call(this.modelGroup, embeddingClient -> embeddingClient.call(request));
+	}
+
+	@Override
+	public List<Double> embed(String text) {
+		return this.router.call(this.modelGroup, embeddingClient -> embeddingClient.embed(text));
+	}
+
+	@Override
+	public List<Double> embed(Document document) {
+		return this.router.call(this.modelGroup, embeddingClient -> embeddingClient.embed(document));
+	}
+
+	@Override
+	public List<List<Double>> embed(List<String> texts) {
+		return this.router.call(this.modelGroup, embeddingClient -> embeddingClient.embed(texts));
+	}
+
+	/**
+	 * Returns a client routing the requests within another group of the same router.
+	 * @param modelGroup the consistent-model group.
+	 * @return the routing client of the group.
+	 */
+	public RoutingEmbeddingClient forModelGroup(String modelGroup) {
+		return new RoutingEmbeddingClient(this.router, modelGroup);
+	}
+
+	public String getModelGroup() {
+		return this.modelGroup;
+	}
+
+}
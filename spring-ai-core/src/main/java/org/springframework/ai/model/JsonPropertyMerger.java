@@ -0,0 +1,473 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model;
+
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+import com.fasterxml.jackson.annotation.JsonView;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.introspect.Annotated;
+import com.fasterxml.jackson.databind.introspect.AnnotatedConstructor;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMember;
+import com.fasterxml.jackson.databind.introspect.AnnotatedMethod;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+
+import org.springframework.util.ClassUtils;
+
+/**
+ * A precomputed {@link ModelOptionsUtils#merge(Object, Object, Class, List)} of a source
+ * class and a target class into a result class. The JSON properties of the three classes
+ * are introspected once with the Jackson {@link ObjectMapper}, and a merge then copies
+ * the values directly through method handles: the non-null source value of each result
+ * property, or else its non-null target value.
+ *
+ * <p>
+ * A value is copied as is when the declared types of both properties are the same, apart
+ * from collections, maps and arrays which are copied into new ones sharing their
+ * elements. Other values are converted through JSON, as a full round trip would. Classes
+ * whose JSON form the introspection does not model, such as classes with custom
+ * serializers, unwrapped properties or creator methods, are not supported and are merged
+ * with a JSON round trip.
+ */
+final class JsonPropertyMerger {
+
+	private static final List<Class<? extends Annotation>> UNSUPPORTED_ANNOTATIONS = List.of(JsonSerialize.class,
+			JsonDeserialize.class, JsonFormat.class, JsonUnwrapped.class, JsonRawValue.class, JsonView.class);
+
+	private static final List<Class<? extends Annotation>> UNSUPPORTED_CLASS_ANNOTATIONS = List.of(JsonSerialize.class,
+			JsonDeserialize.class, JsonTypeInfo.class, JsonFilter.class, JsonIgnoreProperties.class);
+
+	private final ObjectMapper objectMapper;
+
+	private final MethodHandle instantiator;
+
+	private final boolean record;
+
+	private final Object[] defaultArguments;
+
+	private final Slot[] slots;
+
+	private JsonPropertyMerger(ObjectMapper objectMapper, MethodHandle instantiator, boolean record,
+			Object[] defaultArguments, List<Slot> slots) {
+		this.objectMapper = objectMapper;
+		this.instantiator = instantiator;
+		this.record = record;
+		this.defaultArguments = defaultArguments;
+		this.slots = slots.toArray(new Slot[0]);
+	}
+
+	/**
+	 * Builds the merger of the given classes.
+	 * @param objectMapper the mapper whose configuration defines the JSON properties.
+	 * @param sourceClass the source class, or {@code null} for no source.
+	 * @param targetClass the target class, or {@code null} for no target.
+	 * @param resultClass the class of the merged objects.
+	 * @param acceptedFieldNames the JSON names of the merged properties.
+	 * @return the merger, or {@code null} if the classes are not supported.
+	 */
+	static JsonPropertyMerger of(ObjectMapper objectMapper, Class<?> sourceClass, Class<?> targetClass,
+			Class<?> resultClass, Set<String> acceptedFieldNames) {
+		try {
+			Map<String, Accessor> sourceAccessors = getters(objectMapper, sourceClass);
+			Map<String, Accessor> targetAccessors = getters(objectMapper, targetClass);
+			if (sourceAccessors == null || targetAccessors == null) {
+				return null;
+			}
+			return resultClass.isRecord()
+					? forRecord(objectMapper, resultClass, acceptedFieldNames, sourceAccessors, targetAccessors)
+					: forBean(objectMapper, resultClass, acceptedFieldNames, sourceAccessors, targetAccessors);
+		}
+		catch (ReflectiveOperationException | RuntimeException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Merges the source into the target.
+	 * @param source the source object, may be {@code null}.
+	 * @param target the target object, may be {@code null}.
+	 * @return a new instance of the result class.
+	 */
+	Object merge(Object source, Object target) {
+		try {
+			if (this.record) {
+				Object[] arguments = this.defaultArguments.clone();
+				for (Slot slot : this.slots) {
+					Object value = slot.value(this.objectMapper, source, target);
+					if (value != null) {
+						arguments[slot.index] = value;
+					}
+				}
+				return this.instantiator.invoke(arguments);
+			}
+			Object result = this.instantiator.invoke();
+			for (Slot slot : this.slots) {
+				Object value = slot.value(this.objectMapper, source, target);
+				if (value != null) {
+					slot.setter.invoke(result, value);
+				}
+			}
+			return result;
+		}
+		catch (RuntimeException | Error e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static JsonPropertyMerger forRecord(ObjectMapper objectMapper, Class<?> resultClass,
+			Set<String> acceptedFieldNames, Map<String, Accessor> sourceAccessors,
+			Map<String, Accessor> targetAccessors) throws ReflectiveOperationException {
+
+		BeanDescription description = objectMapper.getDeserializationConfig()
+			.introspect(objectMapper.constructType(resultClass));
+		if (!isSupported(description)) {
+			return null;
+		}
+		Map<String, String> jsonNames = new HashMap<>();
+		for (BeanPropertyDefinition property : description.findProperties()) {
+			if (hasUnsupportedAnnotation(property.getPrimaryMember())) {
+				return null;
+			}
+			jsonNames.put(property.getInternalName(), property.getName());
+		}
+
+		RecordComponent[] components = resultClass.getRecordComponents();
+		Class<?>[] parameterTypes = new Class<?>[components.length];
+		for (int i = 0; i < components.length; i++) {
+			parameterTypes[i] = components[i].getType();
+		}
+		Object[] defaultArguments = new Object[components.length];
+		Map<String, Slot> slots = new LinkedHashMap<>();
+		for (int i = 0; i < components.length; i++) {
+			Class<?> type = components[i].getType();
+			if (type.isPrimitive()) {
+				defaultArguments[i] = Array.get(Array.newInstance(type, 1), 0);
+			}
+			String jsonName = jsonNames.get(components[i].getName());
+			if (jsonName != null && acceptedFieldNames.contains(jsonName)) {
+				JavaType javaType = objectMapper.getTypeFactory().constructType(components[i].getGenericType());
+				slots.put(jsonName,
+						new Slot(i, null, javaType, sourceAccessors.get(jsonName), targetAccessors.get(jsonName)));
+			}
+		}
+		if (!coversAllNames(acceptedFieldNames, slots.keySet(), sourceAccessors, targetAccessors)) {
+			return null;
+		}
+
+		Constructor<?> constructor = resultClass.getDeclaredConstructor(parameterTypes);
+		MethodHandle instantiator = unreflect(constructor).asType(MethodType.genericMethodType(components.length))
+			.asSpreader(Object[].class, components.length);
+		return new JsonPropertyMerger(objectMapper, instantiator, true, defaultArguments,
+				new ArrayList<>(slots.values()));
+	}
+
+	private static JsonPropertyMerger forBean(ObjectMapper objectMapper, Class<?> resultClass,
+			Set<String> acceptedFieldNames, Map<String, Accessor> sourceAccessors,
+			Map<String, Accessor> targetAccessors) throws ReflectiveOperationException {
+
+		if (resultClass.isInterface() || Modifier.isAbstract(resultClass.getModifiers()) || resultClass.isEnum()) {
+			return null;
+		}
+		BeanDescription description = objectMapper.getDeserializationConfig()
+			.introspect(objectMapper.constructType(resultClass));
+		AnnotatedConstructor defaultConstructor = description.findDefaultConstructor();
+		if (!isSupported(description) || defaultConstructor == null) {
+			return null;
+		}
+
+		Map<String, Slot> slots = new LinkedHashMap<>();
+		for (BeanPropertyDefinition property : description.findProperties()) {
+			if (property.hasConstructorParameter() || hasUnsupportedAnnotation(property.getPrimaryMember())) {
+				return null;
+			}
+			AnnotatedMember mutator = property.getMutator();
+			if (mutator == null || !acceptedFieldNames.contains(property.getName())) {
+				continue;
+			}
+			MethodHandle setter;
+			JavaType javaType;
+			if (mutator instanceof AnnotatedMethod method) {
+				setter = unreflect(method.getAnnotated());
+				javaType = method.getParameterType(0);
+			}
+			else {
+				setter = unreflectSetter((Field) mutator.getMember());
+				javaType = mutator.getType();
+			}
+			setter = setter.asType(MethodType.methodType(void.class, Object.class, Object.class));
+			slots.put(property.getName(), new Slot(-1, setter, javaType, sourceAccessors.get(property.getName()),
+					targetAccessors.get(property.getName())));
+		}
+		if (!coversAllNames(acceptedFieldNames, slots.keySet(), sourceAccessors, targetAccessors)) {
+			return null;
+		}
+
+		MethodHandle instantiator = unreflect(defaultConstructor.getAnnotated())
+			.asType(MethodType.methodType(Object.class));
+		return new JsonPropertyMerger(objectMapper, instantiator, false, new Object[0],
+				new ArrayList<>(slots.values()));
+	}
+
+	/**
+	 * Returns the JSON getters of the class, by JSON property name, or {@code null} if
+	 * the class is not supported.
+	 */
+	private static Map<String, Accessor> getters(ObjectMapper objectMapper, Class<?> clazz)
+			throws ReflectiveOperationException {
+		Map<String, Accessor> accessors = new HashMap<>();
+		if (clazz == null) {
+			return accessors;
+		}
+		if (Map.class.isAssignableFrom(clazz) || Collection.class.isAssignableFrom(clazz) || clazz.isArray()
+				|| clazz.isEnum() || ClassUtils.isSimpleValueType(clazz)) {
+			return null;
+		}
+		BeanDescription description = objectMapper.getSerializationConfig()
+			.introspect(objectMapper.constructType(clazz));
+		if (!isSupported(description) || description.findJsonValueAccessor() != null
+				|| description.findAnyGetter() != null) {
+			return null;
+		}
+		for (BeanPropertyDefinition property : description.findProperties()) {
+			AnnotatedMember accessor = property.getAccessor();
+			if (accessor == null) {
+				continue;
+			}
+			if (hasUnsupportedAnnotation(accessor)) {
+				return null;
+			}
+			Member member = accessor.getMember();
+			MethodHandle getter = (member instanceof Method method) ? unreflect(method)
+					: unreflectGetter((Field) member);
+			accessors.put(property.getName(),
+					new Accessor(getter.asType(MethodType.methodType(Object.class, Object.class)), accessor.getType()));
+		}
+		return accessors;
+	}
+
+	private static boolean isSupported(BeanDescription description) {
+		for (Class<? extends Annotation> annotation : UNSUPPORTED_CLASS_ANNOTATIONS) {
+			if (description.getClassInfo().hasAnnotation(annotation)) {
+				return false;
+			}
+		}
+		for (AnnotatedConstructor constructor : description.getConstructors()) {
+			if (constructor.hasAnnotation(JsonCreator.class)) {
+				return false;
+			}
+		}
+		for (AnnotatedMethod factory : description.getFactoryMethods()) {
+			if (factory.hasAnnotation(JsonCreator.class)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean hasUnsupportedAnnotation(Annotated annotated) {
+		if (annotated == null) {
+			return false;
+		}
+		for (Class<? extends Annotation> annotation : UNSUPPORTED_ANNOTATIONS) {
+			if (annotated.hasAnnotation(annotation)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Checks that every accepted property that the source or the target can hold is a
+	 * property of the result. Otherwise the JSON round trip decides how to handle it.
+	 */
+	private static boolean coversAllNames(Set<String> acceptedFieldNames, Set<String> resultNames,
+			Map<String, Accessor> sourceAccessors, Map<String, Accessor> targetAccessors) {
+		for (String name : acceptedFieldNames) {
+			if (!resultNames.contains(name)
+					&& (sourceAccessors.containsKey(name) || targetAccessors.containsKey(name))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+		makeAccessible(method);
+		return MethodHandles.lookup().unreflect(method);
+	}
+
+	private static MethodHandle unreflect(Constructor<?> constructor) throws IllegalAccessException {
+		makeAccessible(constructor);
+		return MethodHandles.lookup().unreflectConstructor(constructor);
+	}
+
+	private static MethodHandle unreflectGetter(Field field) throws IllegalAccessException {
+		makeAccessible(field);
+		return MethodHandles.lookup().unreflectGetter(field);
+	}
+
+	private static MethodHandle unreflectSetter(Field field) throws IllegalAccessException {
+		makeAccessible(field);
+		return MethodHandles.lookup().unreflectSetter(field);
+	}
+
+	private static void makeAccessible(AccessibleObject member) throws IllegalAccessException {
+		if (!member.trySetAccessible()) {
+			throw new IllegalAccessException("Cannot access " + member);
+		}
+	}
+
+	/**
+	 * Whether values of the given declared type are copied without conversion to a
+	 * property of the given declared type. Untyped values are always converted, since
+	 * their JSON form may differ from their Java form.
+	 */
+	private static boolean isDirectCopy(JavaType from, JavaType to) {
+		if (isUntyped(to)) {
+			return false;
+		}
+		if (from.equals(to)) {
+			return true;
+		}
+		return to.isPrimitive() && to.containedTypeCount() == 0
+				&& ClassUtils.resolvePrimitiveIfNecessary(to.getRawClass()) == from.getRawClass();
+	}
+
+	private static boolean isUntyped(JavaType type) {
+		if (type.getRawClass() == Object.class) {
+			return true;
+		}
+		for (int i = 0; i < type.containedTypeCount(); i++) {
+			if (isUntyped(type.containedType(i))) {
+				return true;
+			}
+		}
+		return type.isArrayType() && isUntyped(type.getContentType());
+	}
+
+	private record Accessor(MethodHandle getter, JavaType type) {
+
+		Object get(Object bean) throws Throwable {
+			return this.getter.invokeExact(bean);
+		}
+
+	}
+
+	/**
+	 * A merged property of the result, with the record component index or the setter to
+	 * fill it.
+	 */
+	private static final class Slot {
+
+		private final int index;
+
+		private final MethodHandle setter;
+
+		private final JavaType type;
+
+		private final Accessor source;
+
+		private final Accessor target;
+
+		private final boolean sourceDirect;
+
+		private final boolean targetDirect;
+
+		Slot(int index, MethodHandle setter, JavaType type, Accessor source, Accessor target) {
+			this.index = index;
+			this.setter = setter;
+			this.type = type;
+			this.source = source;
+			this.target = target;
+			this.sourceDirect = (source != null) && isDirectCopy(source.type(), type);
+			this.targetDirect = (target != null) && isDirectCopy(target.type(), type);
+		}
+
+		Object value(ObjectMapper objectMapper, Object source, Object target) throws Throwable {
+			if (source != null && this.source != null) {
+				Object value = this.source.get(source);
+				if (value != null) {
+					return this.sourceDirect ? copy(value) : convert(objectMapper, value);
+				}
+			}
+			if (target != null && this.target != null) {
+				Object value = this.target.get(target);
+				if (value != null) {
+					return this.targetDirect ? copy(value) : convert(objectMapper, value);
+				}
+			}
+			return null;
+		}
+
+		private Object copy(Object value) {
+			Class<?> rawClass = this.type.getRawClass();
+			if (value instanceof List<?> list && rawClass.isAssignableFrom(ArrayList.class)) {
+				return new ArrayList<>(list);
+			}
+			if (value instanceof Set<?> set && rawClass.isAssignableFrom(LinkedHashSet.class)) {
+				return new LinkedHashSet<>(set);
+			}
+			if (value instanceof Map<?, ?> map && rawClass.isAssignableFrom(LinkedHashMap.class)) {
+				return new LinkedHashMap<>(map);
+			}
+			if (value instanceof Object[] array) {
+				return array.clone();
+			}
+			return value;
+		}
+
+		private Object convert(ObjectMapper objectMapper, Object value) throws IOException {
+			return objectMapper.readValue(objectMapper.writeValueAsBytes(value), this.type);
+		}
+
+	}
+
+}
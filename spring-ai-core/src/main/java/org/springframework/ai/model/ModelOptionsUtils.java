@@ -17,12 +17,19 @@
 package org.springframework.ai.model;
 
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
@@ -40,9 +47,11 @@ import com.github.victools.jsonschema.generator.SchemaVersion;
 import com.github.victools.jsonschema.module.jackson.JacksonModule;
 import com.github.victools.jsonschema.module.jackson.JacksonOption;
 
+import org.springframework.beans.BeanUtils;
 import org.springframework.beans.BeanWrapper;
 import org.springframework.beans.BeanWrapperImpl;
 import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
 import org.springframework.util.CollectionUtils;
 
 /**
@@ -60,8 +69,14 @@ public final class ModelOptionsUtils {
 
 	private static ConcurrentHashMap<Class<?>, List<String>> REQUEST_FIELD_NAMES_PER_CLASS = new ConcurrentHashMap<Class<?>, List<String>>();
 
+	private static final ConcurrentHashMap<MergerKey, Optional<JsonPropertyMerger>> JSON_PROPERTY_MERGERS = new ConcurrentHashMap<>();
+
+	private static final ConcurrentHashMap<MergerKey, Optional<List<BeanProperty>>> BEAN_PROPERTIES = new ConcurrentHashMap<>();
+
 	private static AtomicReference<SchemaGenerator> SCHEMA_GENERATOR_CACHE = new AtomicReference<>();
 
+	private static final ConcurrentHashMap<Class<?>, String> JSON_SCHEMA_PER_CLASS = new ConcurrentHashMap<>();
+
 	private ModelOptionsUtils() {
 
 	}
@@ -87,6 +102,11 @@ public final class ModelOptionsUtils {
 	 * source null values are ignored. If the acceptedFieldNames is not empty, only the
 	 * fields with the given names are merged and returned. If the acceptedFieldNames is
 	 * empty, use the {@code @JsonProperty} names, inferred from the provided clazz.
+	 * <p>
+	 * The properties of each combination of source, target and returned classes are
+	 * resolved once, and their values are then copied directly, without serializing the
+	 * objects to JSON. Collections, maps and arrays are copied into new ones, and values
+	 * of differing types are converted as by JSON serialization.
 	 * @param <T> they type of the class to return.
 	 * @param source the source object to merge.
 	 * @param target the target object to merge into.
@@ -96,18 +116,38 @@ public final class ModelOptionsUtils {
 	 */
 	public static <T> T merge(Object source, Object target, Class<T> clazz, List<String> acceptedFieldNames) {
 
-		if (source == null) {
-			source = Map.of();
-		}
-
 		List<String> requestFieldNames = CollectionUtils.isEmpty(acceptedFieldNames)
 				? REQUEST_FIELD_NAMES_PER_CLASS.computeIfAbsent(clazz, ModelOptionsUtils::getJsonPropertyValues)
-				: acceptedFieldNames;
+				: List.copyOf(acceptedFieldNames);
 
 		if (CollectionUtils.isEmpty(requestFieldNames)) {
 			throw new IllegalArgumentException("No @JsonProperty fields found in the " + clazz.getName());
 		}
 
+		if (!(source instanceof Map) && !(target instanceof Map)) {
+			MergerKey key = new MergerKey((source != null) ? source.getClass() : null,
+					(target != null) ? target.getClass() : null, clazz, requestFieldNames);
+			Optional<JsonPropertyMerger> merger = JSON_PROPERTY_MERGERS.computeIfAbsent(key,
+					k -> Optional.ofNullable(JsonPropertyMerger.of(OBJECT_MAPPER, k.sourceClass(), k.targetClass(),
+							k.resultClass(), new HashSet<>(k.acceptedFieldNames()))));
+			if (merger.isPresent()) {
+				return clazz.cast(merger.get().merge(source, target));
+			}
+		}
+
+		return jsonMerge(source, target, clazz, requestFieldNames);
+	}
+
+	/**
+	 * Merges through a JSON round trip, for the classes that {@link JsonPropertyMerger}
+	 * does not support.
+	 */
+	private static <T> T jsonMerge(Object source, Object target, Class<T> clazz, List<String> requestFieldNames) {
+
+		if (source == null) {
+			source = Map.of();
+		}
+
 		Map<String, Object> sourceMap = ModelOptionsUtils.objectToMap(source);
 		Map<String, Object> targetMap = ModelOptionsUtils.objectToMap(target);
 
@@ -116,9 +156,10 @@ public final class ModelOptionsUtils {
 			.filter(e -> e.getValue() != null)
 			.collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue())));
 
+		Set<String> acceptedNames = new HashSet<>(requestFieldNames);
 		targetMap = targetMap.entrySet()
 			.stream()
-			.filter(e -> requestFieldNames.contains(e.getKey()))
+			.filter(e -> acceptedNames.contains(e.getKey()))
 			.collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
 
 		return ModelOptionsUtils.mapToClass(targetMap, clazz);
@@ -257,10 +298,40 @@ public final class ModelOptionsUtils {
 		Assert.notNull(source, "Source object must not be null");
 		Assert.notNull(target, "Target object must not be null");
 
+		Optional<List<BeanProperty>> properties = BEAN_PROPERTIES.computeIfAbsent(
+				new MergerKey(source.getClass(), target.getClass(), sourceInterfaceClazz, null),
+				key -> Optional.ofNullable(getBeanProperties(key.sourceClass(), key.targetClass(), key.resultClass())));
+
+		if (properties.isEmpty()) {
+			return wrapperMergeBeans(source, target, sourceInterfaceClazz, overrideNonNullTargetValues);
+		}
+
+		try {
+			for (BeanProperty property : properties.get()) {
+				Object value = property.getter().invokeExact((Object) source);
+				if (value != null && (overrideNonNullTargetValues
+						|| (Object) property.targetGetter().invokeExact((Object) target) == null)) {
+					property.setter().invokeExact((Object) target, value);
+				}
+			}
+		}
+		catch (RuntimeException | Error e) {
+			throw e;
+		}
+		catch (Throwable e) {
+			throw new RuntimeException(e);
+		}
+
+		return target;
+	}
+
+	private static <T> T wrapperMergeBeans(Object source, T target, Class<?> sourceInterfaceClazz,
+			boolean overrideNonNullTargetValues) {
+
 		BeanWrapper sourceBeanWrap = new BeanWrapperImpl(source);
 		BeanWrapper targetBeanWrap = new BeanWrapperImpl(target);
 
-		List<String> interfaceNames = Arrays.stream(sourceInterfaceClazz.getMethods()).map(m -> m.getName()).toList();
+		Set<String> interfaceNames = getMethodNames(sourceInterfaceClazz);
 
 		for (PropertyDescriptor descriptor : sourceBeanWrap.getPropertyDescriptors()) {
 
@@ -284,16 +355,70 @@ public final class ModelOptionsUtils {
 		return target;
 	}
 
+	/**
+	 * Resolves the interface properties copied by {@link #mergeBeans}, or returns
+	 * {@code null} if one of them needs the type conversion or error handling of a
+	 * {@link BeanWrapper}.
+	 */
+	private static List<BeanProperty> getBeanProperties(Class<?> sourceClass, Class<?> targetClass,
+			Class<?> sourceInterfaceClazz) {
+		Set<String> interfaceNames = getMethodNames(sourceInterfaceClazz);
+		List<BeanProperty> properties = new ArrayList<>();
+		MethodType getterType = MethodType.methodType(Object.class, Object.class);
+		try {
+			for (PropertyDescriptor descriptor : BeanUtils.getPropertyDescriptors(sourceClass)) {
+				String propertyName = descriptor.getName();
+				if (BEAN_MERGE_FIELD_EXCISIONS.contains(propertyName)
+						|| !interfaceNames.contains(toGetName(propertyName))) {
+					continue;
+				}
+				PropertyDescriptor targetDescriptor = BeanUtils.getPropertyDescriptor(targetClass, propertyName);
+				Method getter = descriptor.getReadMethod();
+				if (getter == null || targetDescriptor == null || targetDescriptor.getReadMethod() == null
+						|| targetDescriptor.getWriteMethod() == null) {
+					return null;
+				}
+				Method setter = targetDescriptor.getWriteMethod();
+				if (!ClassUtils.isAssignable(setter.getParameterTypes()[0], getter.getReturnType())) {
+					return null;
+				}
+				properties.add(new BeanProperty(unreflect(getter).asType(getterType),
+						unreflect(targetDescriptor.getReadMethod()).asType(getterType),
+						unreflect(setter).asType(MethodType.methodType(void.class, Object.class, Object.class))));
+			}
+		}
+		catch (IllegalAccessException e) {
+			return null;
+		}
+		return properties;
+	}
+
+	private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+		if (!method.trySetAccessible()) {
+			throw new IllegalAccessException("Cannot access " + method);
+		}
+		return MethodHandles.lookup().unreflect(method);
+	}
+
+	private static Set<String> getMethodNames(Class<?> clazz) {
+		return Arrays.stream(clazz.getMethods()).map(m -> m.getName()).collect(Collectors.toSet());
+	}
+
 	private static String toGetName(String name) {
 		return "get" + name.substring(0, 1).toUpperCase() + name.substring(1);
 	}
 
 	/**
-	 * Generates JSON Schema (version 2020_12) for the given class.
+	 * Generates JSON Schema (version 2020_12) for the given class. The schema is
+	 * generated once per class and then cached.
 	 * @param clazz the class to generate JSON Schema for.
 	 * @return the generated JSON Schema as a String.
 	 */
 	public static String getJsonSchema(Class<?> clazz) {
+		return JSON_SCHEMA_PER_CLASS.computeIfAbsent(clazz, ModelOptionsUtils::generateJsonSchema);
+	}
+
+	private static String generateJsonSchema(Class<?> clazz) {
 
 		if (SCHEMA_GENERATOR_CACHE.get() == null) {
 
@@ -311,4 +436,11 @@ public final class ModelOptionsUtils {
 		return SCHEMA_GENERATOR_CACHE.get().generateSchema(clazz).toPrettyString();
 	}
 
+	private record MergerKey(Class<?> sourceClass, Class<?> targetClass, Class<?> resultClass,
+			List<String> acceptedFieldNames) {
+	}
+
+	private record BeanProperty(MethodHandle getter, MethodHandle targetGetter, MethodHandle setter) {
+	}
+
 }
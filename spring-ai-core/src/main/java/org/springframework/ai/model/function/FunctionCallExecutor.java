@@ -0,0 +1,326 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.function;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.util.Assert;
+
+/**
+ * Runs the function calls requested by a model in one response. The responses are
+ * returned in the order of the calls, whatever order the calls complete in. If a call
+ * fails or times out, the calls still running are cancelled and its error is thrown.
+ *
+ * <p>
+ * By default the calls run one after another on the calling thread. When an
+ * {@link Executor} is configured (for example a virtual-thread-per-task executor), at
+ * most {@code maxConcurrency} calls are in flight at any time. Without an executor but
+ * with a {@code maxConcurrency} greater than one, or with timeouts, a fixed thread pool
+ * is created for the duration of each {@link #call(List)}.
+ *
+ * <p>
+ * The executor also caps the number of function call rounds of a conversation, that is
+ * the number of consecutive model responses requesting function calls.
+ */
+public class FunctionCallExecutor {
+
+	/**
+	 * Sequential execution on the calling thread, without timeouts.
+	 */
+	public static final FunctionCallExecutor SEQUENTIAL = builder().build();
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	private final Duration defaultTimeout;
+
+	private final Map<String, Duration> timeouts;
+
+	private final int maxRounds;
+
+	private FunctionCallExecutor(Builder builder) {
+		this.executor = builder.executor;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.defaultTimeout = builder.defaultTimeout;
+		this.timeouts = Map.copyOf(builder.timeouts);
+		this.maxRounds = builder.maxRounds;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * A function call requested by the model.
+	 *
+	 * @param functionCallback the function to call.
+	 * @param arguments the JSON arguments of the call.
+	 */
+	public record FunctionCall(FunctionCallback functionCallback, String arguments) {
+
+		public FunctionCall {
+			Assert.notNull(functionCallback, "Function callback must not be null");
+		}
+
+	}
+
+	/**
+	 * {@return the maximum number of function call rounds of a conversation}
+	 */
+	public int getMaxRounds() {
+		return this.maxRounds;
+	}
+
+	/**
+	 * Calls the functions and returns their responses.
+	 * @param calls the function calls.
+	 * @return the response of each call, in the order of the calls.
+	 * @throws IllegalStateException if a call times out.
+	 */
+	public List<String> call(List<FunctionCall> calls) {
+		Assert.notNull(calls, "Calls must not be null");
+
+		boolean hasTimeouts = this.defaultTimeout != null || !this.timeouts.isEmpty();
+		if (calls.isEmpty()
+				|| (this.executor == null && !hasTimeouts && (this.maxConcurrency == 1 || calls.size() == 1))) {
+			List<String> responses = new ArrayList<>(calls.size());
+			for (FunctionCall call : calls) {
+				responses.add(call.functionCallback().call(call.arguments()));
+			}
+			return responses;
+		}
+
+		if (this.executor != null) {
+			return callConcurrently(calls, this.executor);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.maxConcurrency, calls.size()));
+		try {
+			return callConcurrently(calls, pool);
+		}
+		finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private List<String> callConcurrently(List<FunctionCall> calls, Executor executor) {
+		Semaphore inFlight = new Semaphore(this.maxConcurrency);
+		List<CallTask> tasks = new ArrayList<>(calls.size());
+		try {
+			for (FunctionCall call : calls) {
+				awaitPermit(inFlight, tasks);
+				CallTask task = new CallTask(call, timeout(call), inFlight);
+				tasks.add(task);
+				executor.execute(task);
+			}
+			List<String> responses = new ArrayList<>(tasks.size());
+			for (CallTask task : tasks) {
+				responses.add(task.await());
+			}
+			return responses;
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while calling functions", e);
+		}
+		finally {
+			tasks.forEach(task -> task.cancel(true));
+		}
+	}
+
+	/**
+	 * Waits for a free slot, failing as soon as one of the running calls times out.
+	 */
+	private static void awaitPermit(Semaphore inFlight, List<CallTask> tasks) throws InterruptedException {
+		while (true) {
+			CallTask next = null;
+			for (CallTask task : tasks) {
+				if (!task.isDone() && task.deadlineNanos != Long.MAX_VALUE
+						&& (next == null || task.deadlineNanos - next.deadlineNanos < 0)) {
+					next = task;
+				}
+			}
+			if (next == null) {
+				inFlight.acquire();
+				return;
+			}
+			if (inFlight.tryAcquire(Math.max(next.deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS)) {
+				return;
+			}
+			if (!next.isDone() && next.deadlineNanos - System.nanoTime() <= 0) {
+				throw next.timeoutException();
+			}
+		}
+	}
+
+	private Duration timeout(FunctionCall call) {
+		return this.timeouts.getOrDefault(call.functionCallback().getName(), this.defaultTimeout);
+	}
+
+	/**
+	 * A function call that frees its concurrency slot when it completes or is cancelled.
+	 */
+	private static final class CallTask extends FutureTask<String> {
+
+		private final FunctionCall call;
+
+		private final Duration timeout;
+
+		private final long deadlineNanos;
+
+		private final Semaphore inFlight;
+
+		CallTask(FunctionCall call, Duration timeout, Semaphore inFlight) {
+			super(() -> call.functionCallback().call(call.arguments()));
+			this.call = call;
+			this.timeout = timeout;
+			this.deadlineNanos = (timeout != null) ? System.nanoTime() + timeout.toNanos() : Long.MAX_VALUE;
+			this.inFlight = inFlight;
+		}
+
+		@Override
+		protected void done() {
+			this.inFlight.release();
+		}
+
+		String await() throws InterruptedException {
+			try {
+				return (this.timeout != null)
+						? get(Math.max(this.deadlineNanos - System.nanoTime(), 0), TimeUnit.NANOSECONDS) : get();
+			}
+			catch (TimeoutException e) {
+				throw timeoutException();
+			}
+			catch (CancellationException e) {
+				throw new IllegalStateException(
+						"Function call '" + this.call.functionCallback().getName() + "' was cancelled", e);
+			}
+			catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				if (e.getCause() instanceof Error error) {
+					throw error;
+				}
+				throw new IllegalStateException("Function call '" + this.call.functionCallback().getName() + "' failed",
+						e.getCause());
+			}
+		}
+
+		IllegalStateException timeoutException() {
+			return new IllegalStateException(
+					"Function call '" + this.call.functionCallback().getName() + "' timed out after " + this.timeout);
+		}
+
+	}
+
+	public static class Builder {
+
+		private Executor executor;
+
+		private int maxConcurrency = 1;
+
+		private Duration defaultTimeout;
+
+		private final Map<String, Duration> timeouts = new HashMap<>();
+
+		private int maxRounds = 25;
+
+		private Builder() {
+		}
+
+		/**
+		 * Executor used to run the calls, e.g. a virtual-thread-per-task executor. If not
+		 * set, calls run on the calling thread or, when the max concurrency is greater
+		 * than one or timeouts are set, on a temporary fixed thread pool.
+		 * @param executor the executor to use.
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Maximum number of calls in flight at any time.
+		 * @param maxConcurrency max concurrency, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency >= 1, "Max concurrency must be >= 1");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Timeout of the calls of the functions without a specific timeout. By default
+		 * calls do not time out.
+		 * @param timeout the timeout.
+		 * @return this builder
+		 */
+		public Builder withTimeout(Duration timeout) {
+			Assert.isTrue(timeout == null || timeout.toNanos() > 0, "Timeout must be positive");
+			this.defaultTimeout = timeout;
+			return this;
+		}
+
+		/**
+		 * Timeout of the calls of the given function.
+		 * @param functionName the function name.
+		 * @param timeout the timeout.
+		 * @return this builder
+		 */
+		public Builder withTimeout(String functionName, Duration timeout) {
+			Assert.hasText(functionName, "Function name must not be empty");
+			Assert.isTrue(timeout != null && timeout.toNanos() > 0, "Timeout must be positive");
+			this.timeouts.put(functionName, timeout);
+			return this;
+		}
+
+		/**
+		 * Maximum number of consecutive model responses requesting function calls in a
+		 * conversation. Defaults to 25.
+		 * @param maxRounds max rounds, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxRounds(int maxRounds) {
+			Assert.isTrue(maxRounds >= 1, "Max rounds must be >= 1");
+			this.maxRounds = maxRounds;
+			return this;
+		}
+
+		public FunctionCallExecutor build() {
+			return new FunctionCallExecutor(this);
+		}
+
+	}
+
+}
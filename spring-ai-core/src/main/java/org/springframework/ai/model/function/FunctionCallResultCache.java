@@ -0,0 +1,314 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.function;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.util.Assert;
+
+/**
+ * Memoizes the responses of function calls, for functions whose response only depends on
+ * their arguments for some time, such as reference data lookups. Entries are keyed by the
+ * function name and the canonical form of the JSON arguments, where object keys are
+ * sorted and insignificant whitespace is removed, so that the same arguments written
+ * differently by the model share an entry.
+ *
+ * <p>
+ * Every function has a time to live, and the least recently used entries are evicted
+ * beyond the maximum size. Concurrent calls with the same arguments wait for a single
+ * call of the function. Failed calls are not cached. A cache can be shared by several
+ * callbacks:
+ *
+ * <pre class="code">
+ * var cache = FunctionCallResultCache.builder()
+ * 	.withTtl(Duration.ofMinutes(10))
+ * 	.withTtl("currentWeather", Duration.ofMinutes(1))
+ * 	.withMaxSize(10_000)
+ * 	.build();
+ * var callback = FunctionCallbackWrapper.builder(new CurrencyRateService())
+ * 	.withName("currencyRate")
+ * 	.withDescription("Get the exchange rate of a currency")
+ * 	.withResultCache(cache)
+ * 	.build();
+ * </pre>
+ *
+ * @see FunctionCallbackWrapper.Builder#withResultCache(FunctionCallResultCache)
+ */
+public class FunctionCallResultCache {
+
+	private static final ObjectMapper CANONICAL_OBJECT_MAPPER = new ObjectMapper()
+		.enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS)
+		.enable(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+
+	private final Duration defaultTtl;
+
+	private final Map<String, Duration> ttls;
+
+	private final int maxSize;
+
+	private final Map<Key, Entry> entries;
+
+	private final AtomicLong hits = new AtomicLong();
+
+	private final AtomicLong misses = new AtomicLong();
+
+	private final AtomicLong evictions = new AtomicLong();
+
+	private FunctionCallResultCache(Builder builder) {
+		this.defaultTtl = builder.defaultTtl;
+		this.ttls = Map.copyOf(builder.ttls);
+		this.maxSize = builder.maxSize;
+		this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+				if (size() > FunctionCallResultCache.this.maxSize) {
+					FunctionCallResultCache.this.evictions.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+
+		};
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Cache statistics since the creation of the cache.
+	 *
+	 * @param hits the number of calls answered from the cache, including the calls that
+	 * waited for a concurrent call with the same arguments.
+	 * @param misses the number of calls of the functions.
+	 * @param evictions the number of entries evicted because of the maximum size.
+	 * @param size the current number of entries, including expired ones not yet removed.
+	 */
+	public record Stats(long hits, long misses, long evictions, int size) {
+
+		public double hitRate() {
+			long requests = this.hits + this.misses;
+			return (requests == 0) ? 0 : (double) this.hits / requests;
+		}
+
+	}
+
+	/**
+	 * Returns the cached response of the function call, calling the function if the
+	 * response is not cached or has expired.
+	 * @param functionName the function name.
+	 * @param arguments the JSON arguments of the call.
+	 * @param call calls the function.
+	 * @return the function response.
+	 */
+	public String get(String functionName, String arguments, Supplier<String> call) {
+		Assert.notNull(functionName, "Function name must not be null");
+		Assert.notNull(call, "Call must not be null");
+
+		Key key = new Key(functionName, canonicalize(arguments));
+		CompletableFuture<String> response;
+		boolean owner = false;
+		synchronized (this.entries) {
+			Entry entry = this.entries.get(key);
+			if (entry == null || entry.isExpired(System.nanoTime())) {
+				entry = new Entry(new CompletableFuture<>(), ttl(functionName));
+				this.entries.put(key, entry);
+				owner = true;
+			}
+			response = entry.response();
+		}
+
+		if (!owner) {
+			this.hits.incrementAndGet();
+			try {
+				return response.join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				}
+				throw e;
+			}
+		}
+
+		this.misses.incrementAndGet();
+		try {
+			String value = call.get();
+			response.complete(value);
+			return value;
+		}
+		catch (RuntimeException | Error e) {
+			synchronized (this.entries) {
+				Entry entry = this.entries.get(key);
+				if (entry != null && entry.response() == response) {
+					this.entries.remove(key);
+				}
+			}
+			response.completeExceptionally(e);
+			throw e;
+		}
+	}
+
+	/**
+	 * Removes the cached responses of the function.
+	 * @param functionName the function name.
+	 */
+	public void invalidate(String functionName) {
+		synchronized (this.entries) {
+			this.entries.keySet().removeIf(key -> key.functionName().equals(functionName));
+		}
+	}
+
+	/**
+	 * Removes all the cached responses.
+	 */
+	public void clear() {
+		synchronized (this.entries) {
+			this.entries.clear();
+		}
+	}
+
+	/**
+	 * Removes the expired entries. Expired entries are otherwise replaced when they are
+	 * next requested, or evicted as the least recently used ones.
+	 */
+	public void removeExpired() {
+		long now = System.nanoTime();
+		synchronized (this.entries) {
+			Iterator<Entry> iterator = this.entries.values().iterator();
+			while (iterator.hasNext()) {
+				if (iterator.next().isExpired(now)) {
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	public Stats getStats() {
+		int size;
+		synchronized (this.entries) {
+			size = this.entries.size();
+		}
+		return new Stats(this.hits.get(), this.misses.get(), this.evictions.get(), size);
+	}
+
+	private Duration ttl(String functionName) {
+		return this.ttls.getOrDefault(functionName, this.defaultTtl);
+	}
+
+	/**
+	 * Returns the JSON arguments with sorted object keys and without whitespace, or the
+	 * arguments as is if they are not valid JSON. Decimal numbers keep all their digits,
+	 * so that arguments that only differ beyond double precision get distinct keys.
+	 */
+	static String canonicalize(String arguments) {
+		if (arguments == null) {
+			return "";
+		}
+		try {
+			return CANONICAL_OBJECT_MAPPER
+				.writeValueAsString(CANONICAL_OBJECT_MAPPER.readValue(arguments, Object.class));
+		}
+		catch (JsonProcessingException e) {
+			return arguments;
+		}
+	}
+
+	private record Key(String functionName, String arguments) {
+	}
+
+	private record Entry(CompletableFuture<String> response, long expiresAtNanos) {
+
+		Entry(CompletableFuture<String> response, Duration ttl) {
+			this(response, System.nanoTime() + ttl.toNanos());
+		}
+
+		boolean isExpired(long now) {
+			return now - this.expiresAtNanos >= 0;
+		}
+
+	}
+
+	public static class Builder {
+
+		private Duration defaultTtl = Duration.ofMinutes(5);
+
+		private final Map<String, Duration> ttls = new HashMap<>();
+
+		private int maxSize = 1000;
+
+		private Builder() {
+		}
+
+		/**
+		 * Time to live of the responses of the functions without a specific time to live.
+		 * Defaults to 5 minutes.
+		 * @param ttl the time to live.
+		 * @return this builder
+		 */
+		public Builder withTtl(Duration ttl) {
+			Assert.isTrue(ttl != null && ttl.toNanos() > 0, "TTL must be positive");
+			this.defaultTtl = ttl;
+			return this;
+		}
+
+		/**
+		 * Time to live of the responses of the given function.
+		 * @param functionName the function name.
+		 * @param ttl the time to live.
+		 * @return this builder
+		 */
+		public Builder withTtl(String functionName, Duration ttl) {
+			Assert.hasText(functionName, "Function name must not be empty");
+			Assert.isTrue(ttl != null && ttl.toNanos() > 0, "TTL must be positive");
+			this.ttls.put(functionName, ttl);
+			return this;
+		}
+
+		/**
+		 * Maximum number of cached responses, beyond which the least recently used are
+		 * evicted. Defaults to 1000.
+		 * @param maxSize max size, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxSize(int maxSize) {
+			Assert.isTrue(maxSize >= 1, "Max size must be >= 1");
+			this.maxSize = maxSize;
+			return this;
+		}
+
+		public FunctionCallResultCache build() {
+			return new FunctionCallResultCache(this);
+		}
+
+	}
+
+}
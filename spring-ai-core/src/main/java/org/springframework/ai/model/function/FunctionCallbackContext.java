@@ -16,6 +16,8 @@
 package org.springframework.ai.model.function;
 
 import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import com.fasterxml.jackson.annotation.JsonClassDescription;
@@ -44,6 +46,9 @@ import org.springframework.util.StringUtils;
  * <li>Provided as a {@code @JsonClassDescription} annotation on the input class</li>
  * </ul>
  *
+ * The callbacks of singleton beans are resolved once, along with their input type schema,
+ * and then reused.
+ *
  * @author Christian Tzolov
  * @author Christopher Smith
  */
@@ -51,13 +56,28 @@ public class FunctionCallbackContext implements ApplicationContextAware {
 
 	private GenericApplicationContext applicationContext;
 
+	private final Map<CallbackKey, FunctionCallback> functionCallbacks = new ConcurrentHashMap<>();
+
 	@Override
 	public void setApplicationContext(@NonNull ApplicationContext applicationContext) throws BeansException {
 		this.applicationContext = (GenericApplicationContext) applicationContext;
+		this.functionCallbacks.clear();
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
 	public FunctionCallback getFunctionCallback(@NonNull String beanName, @Nullable String defaultDescription) {
+		CallbackKey key = new CallbackKey(beanName, defaultDescription);
+		FunctionCallback functionCallback = this.functionCallbacks.get(key);
+		if (functionCallback == null) {
+			functionCallback = createFunctionCallback(beanName, defaultDescription);
+			if (this.applicationContext.isSingleton(beanName)) {
+				this.functionCallbacks.putIfAbsent(key, functionCallback);
+			}
+		}
+		return functionCallback;
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private FunctionCallback createFunctionCallback(String beanName, String defaultDescription) {
 
 		Type beanType = FunctionContextUtils.findType(this.applicationContext.getBeanFactory(), beanName);
 
@@ -111,4 +131,7 @@ public class FunctionCallbackContext implements ApplicationContextAware {
 		}
 	}
 
+	private record CallbackKey(String beanName, String defaultDescription) {
+	}
+
 }
@@ -15,6 +15,8 @@ public class FunctionCallbackWrapper<I, O> extends AbstractFunctionCallback<I, O
 
 	private Function<I, O> function;
 
+	private FunctionCallResultCache resultCache;
+
 	public FunctionCallbackWrapper(String name, String description, Class<I> inputType, Function<I, O> function) {
 		super(name, description, inputType);
 		Assert.notNull(function, "Function must not be null");
@@ -37,6 +39,17 @@ public class FunctionCallbackWrapper<I, O> extends AbstractFunctionCallback<I, O
 		this(name, description, resolveInputType(function), responseConverter, function);
 	}
 
+	private FunctionCallbackWrapper(Builder<I, O> builder) {
+		this(builder.name, builder.description,
+				(builder.inputType != null) ? builder.inputType : resolveInputType(builder.function),
+				builder.responseConverter, builder.function);
+		this.resultCache = builder.resultCache;
+	}
+
+	public static <I, O> Builder<I, O> builder(Function<I, O> function) {
+		return new Builder<>(function);
+	}
+
 	@SuppressWarnings("unchecked")
 	private static <I, O> Class<I> resolveInputType(Function<I, O> function) {
 		return (Class<I>) TypeResolverHelper.getFunctionInputClass((Class<Function<I, O>>) function.getClass());
@@ -47,4 +60,73 @@ public class FunctionCallbackWrapper<I, O> extends AbstractFunctionCallback<I, O
 		return this.function.apply(input);
 	}
 
+	@Override
+	public String call(String functionArguments) {
+		if (this.resultCache == null) {
+			return super.call(functionArguments);
+		}
+		return this.resultCache.get(getName(), functionArguments, () -> super.call(functionArguments));
+	}
+
+	public static class Builder<I, O> {
+
+		private final Function<I, O> function;
+
+		private String name;
+
+		private String description;
+
+		private Class<I> inputType;
+
+		private Function<O, String> responseConverter = Object::toString;
+
+		private FunctionCallResultCache resultCache;
+
+		private Builder(Function<I, O> function) {
+			Assert.notNull(function, "Function must not be null");
+			this.function = function;
+		}
+
+		public Builder<I, O> withName(String name) {
+			this.name = name;
+			return this;
+		}
+
+		public Builder<I, O> withDescription(String description) {
+			this.description = description;
+			return this;
+		}
+
+		/**
+		 * Input type of the function. Resolved from the function class if not set.
+		 * @param inputType the input type.
+		 * @return this builder
+		 */
+		public Builder<I, O> withInputType(Class<I> inputType) {
+			this.inputType = inputType;
+			return this;
+		}
+
+		public Builder<I, O> withResponseConverter(Function<O, String> responseConverter) {
+			this.responseConverter = responseConverter;
+			return this;
+		}
+
+		/**
+		 * Cache of the function responses, to use only for functions whose response
+		 * depends on their arguments alone. Calls are not cached by default.
+		 * @param resultCache the cache, possibly shared with other callbacks.
+		 * @return this builder
+		 */
+		public Builder<I, O> withResultCache(FunctionCallResultCache resultCache) {
+			this.resultCache = resultCache;
+			return this;
+		}
+
+		public FunctionCallbackWrapper<I, O> build() {
+			return new FunctionCallbackWrapper<>(this);
+		}
+
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.routing;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+import org.springframework.util.Assert;
+
+/**
+ * Latency and error statistics of a {@link Router} backend, over sliding windows of its
+ * latest requests. The latency of a request is the time to its first response element, so
+ * the time to first token of a streamed response. Requests cancelled before their first
+ * element, such as the losers of hedged requests, have no latency sample: their elapsed
+ * time is only a lower bound of their latency, kept apart from the percentiles until the
+ * next request of the backend responds.
+ *
+ * <p>
+ * Instances are thread-safe.
+ */
+public final class BackendStats {
+
+	private final long[] latencies;
+
+	private int latencyCount;
+
+	private int nextLatency;
+
+	private final boolean[] failures;
+
+	private int outcomeCount;
+
+	private int nextOutcome;
+
+	private int failureCount;
+
+	private long lastFailureNanos;
+
+	private long latencyLowerBoundNanos;
+
+	BackendStats(int windowSize) {
+		Assert.isTrue(windowSize >= 1, "Window size must be >= 1");
+		this.latencies = new long[windowSize];
+		this.failures = new boolean[windowSize];
+	}
+
+	synchronized void recordLatency(long latencyNanos) {
+		this.latencies[this.nextLatency] = latencyNanos;
+		this.nextLatency = (this.nextLatency + 1) % this.latencies.length;
+		this.latencyCount = Math.min(this.latencyCount + 1, this.latencies.length);
+		this.latencyLowerBoundNanos = 0;
+	}
+
+	synchronized void recordCancellation(long elapsedNanos) {
+		this.latencyLowerBoundNanos = Math.max(this.latencyLowerBoundNanos, elapsedNanos);
+	}
+
+	synchronized void recordOutcome(boolean failure) {
+		if (this.outcomeCount == this.failures.length && this.failures[this.nextOutcome]) {
+			this.failureCount--;
+		}
+		this.failures[this.nextOutcome] = failure;
+		this.nextOutcome = (this.nextOutcome + 1) % this.failures.length;
+		this.outcomeCount = Math.min(this.outcomeCount + 1, this.failures.length);
+		if (failure) {
+			this.failureCount++;
+			this.lastFailureNanos = System.nanoTime();
+		}
+	}
+
+	/**
+	 * {@return the number of latency samples in the window}
+	 */
+	public synchronized int getLatencyCount() {
+		return this.latencyCount;
+	}
+
+	/**
+	 * Returns the latency percentile over the window.
+	 * @param percentile the percentile, between 0 and 1, e.g. 0.95 for the p95.
+	 * @return the latency, or {@code null} if there are no samples.
+	 */
+	public Duration getLatencyPercentile(double percentile) {
+		Assert.isTrue(percentile > 0 && percentile <= 1, "Percentile must be in (0, 1]");
+		long[] sorted;
+		synchronized (this) {
+			if (this.latencyCount == 0) {
+				return null;
+			}
+			sorted = Arrays.copyOf(this.latencies, this.latencyCount);
+		}
+		Arrays.sort(sorted);
+		int index = Math.max((int) Math.ceil(percentile * sorted.length) - 1, 0);
+		return Duration.ofNanos(sorted[index]);
+	}
+
+	/**
+	 * Returns the longest elapsed time of the requests cancelled before their first
+	 * element since the last latency sample, a lower bound of the current latency.
+	 * @return the lower bound, or {@code null} if no request was cancelled since the last
+	 * sample.
+	 */
+	public synchronized Duration getLatencyLowerBound() {
+		return (this.latencyLowerBoundNanos > 0) ? Duration.ofNanos(this.latencyLowerBoundNanos) : null;
+	}
+
+	/**
+	 * {@return the number of completed requests in the window}
+	 */
+	public synchronized int getOutcomeCount() {
+		return this.outcomeCount;
+	}
+
+	/**
+	 * {@return the ratio of failed requests in the window, between 0 and 1}
+	 */
+	public synchronized double getErrorRate() {
+		return (this.outcomeCount == 0) ? 0 : (double) this.failureCount / this.outcomeCount;
+	}
+
+	synchronized long getLastFailureNanos() {
+		return this.lastFailureNanos;
+	}
+
+	@Override
+	public String toString() {
+		return "BackendStats{" + "p50=" + getLatencyPercentile(0.5) + ", p95=" + getLatencyPercentile(0.95)
+				+ ", errorRate=" + getErrorRate() + ", outcomes=" + getOutcomeCount() + '}';
+	}
+
+}
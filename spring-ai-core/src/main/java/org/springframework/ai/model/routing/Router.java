@@ -0,0 +1,470 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.routing;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.util.Assert;
+
+/**
+ * Routes requests across interchangeable backends, such as chat or embedding clients of
+ * several providers, to the fastest healthy one.
+ *
+ * <p>
+ * Every backend has a weight, and optionally a weight per capability, a capability being
+ * any label the caller attaches to requests, e.g. {@code "tools"} or an embedding model
+ * group. A backend declaring capability weights is only eligible for those capabilities.
+ * The eligible backends are ordered healthy first, then by their median latency divided
+ * by their weight, backends without latency samples first so that they get some. The
+ * latency lower bound of a backend whose last requests were cancelled before responding
+ * replaces its median when greater.
+ *
+ * <p>
+ * A request goes to the first backend. With hedging enabled, if it has not responded
+ * after its latency percentile, or if it fails first, a duplicate request goes to the
+ * second backend. The first response wins and the other request is cancelled. When both
+ * fail before responding, the request fails over to the next backends one at a time.
+ * Streamed requests never fail over once they have emitted an element.
+ *
+ * <p>
+ * A backend is unhealthy while its error rate is above the maximum and its last failure
+ * is more recent than the cooldown. Unhealthy backends are only tried after the healthy
+ * ones.
+ *
+ * <pre class="code">
+ * Router&lt;ChatClient&gt; router = Router.&lt;ChatClient&gt;builder()
+ * 	.withBackend("openai", openAiChatClient)
+ * 	.withBackend("azure", azureOpenAiChatClient)
+ * 	.withBackend("ollama", ollamaChatClient, 0.5)
+ * 	// only send requests without a capability or "summary" requests to ollama
+ * 	.withCapabilityWeight("ollama", "summary", 0.5)
+ * 	.build();
+ * </pre>
+ *
+ * @param <C> the backend client type.
+ * @see BackendStats
+ */
+public class Router<C> {
+
+	/**
+	 * Minimum number of outcomes in the window for a backend to be considered unhealthy.
+	 */
+	private static final int MIN_HEALTH_OUTCOMES = 5;
+
+	/**
+	 * Minimum number of latency samples to derive the hedge delay from.
+	 */
+	private static final int MIN_HEDGE_SAMPLES = 10;
+
+	private final List<Backend<C>> backends;
+
+	private final boolean hedging;
+
+	private final double hedgePercentile;
+
+	private final Duration initialHedgeDelay;
+
+	private final double maxErrorRate;
+
+	private final Duration cooldown;
+
+	private final Scheduler scheduler;
+
+	private Router(Builder<C> builder) {
+		Assert.notEmpty(builder.backends, "At least one backend is required");
+		this.backends = builder.backends.values()
+			.stream()
+			.map(spec -> new Backend<>(spec.name, spec.client, spec.weight, Map.copyOf(spec.capabilityWeights),
+					new BackendStats(builder.windowSize)))
+			.toList();
+		this.hedging = builder.hedging;
+		this.hedgePercentile = builder.hedgePercentile;
+		this.initialHedgeDelay = builder.initialHedgeDelay;
+		this.maxErrorRate = builder.maxErrorRate;
+		this.cooldown = builder.cooldown;
+		this.scheduler = builder.scheduler;
+	}
+
+	public static <C> Builder<C> builder() {
+		return new Builder<>();
+	}
+
+	/**
+	 * Sends a blocking request, on the scheduler so that hedged requests run
+	 * concurrently.
+	 * @param <T> the response type.
+	 * @param capability the capability required by the request, or {@code null} for any
+	 * backend.
+	 * @param request sends the request to a backend.
+	 * @return the first response.
+	 * @throws IllegalStateException if no backend is eligible for the capability.
+	 */
+	public <T> T call(String capability, Function<C, T> request) {
+		Assert.notNull(request, "Request must not be null");
+		return stream(capability,
+				client -> Mono.fromCallable(() -> request.apply(client)).subscribeOn(this.scheduler).flux())
+			.singleOrEmpty()
+			.block();
+	}
+
+	/**
+	 * Sends a streamed request.
+	 * @param <T> the response element type.
+	 * @param capability the capability required by the request, or {@code null} for any
+	 * backend.
+	 * @param request sends the request to a backend.
+	 * @return the elements of the first backend to emit one or to complete without
+	 * elements.
+	 */
+	public <T> Flux<T> stream(String capability, Function<C, Flux<T>> request) {
+		Assert.notNull(request, "Request must not be null");
+		return Flux.defer(() -> {
+			List<Backend<C>> candidates = candidates(capability);
+			if (candidates.isEmpty()) {
+				return Flux
+					.error(new IllegalStateException("No backend is eligible for capability '" + capability + "'"));
+			}
+			return route(candidates, 0, request);
+		});
+	}
+
+	/**
+	 * {@return the statistics of each backend, by backend name}
+	 */
+	public Map<String, BackendStats> getStats() {
+		Map<String, BackendStats> stats = new LinkedHashMap<>();
+		for (Backend<C> backend : this.backends) {
+			stats.put(backend.name(), backend.stats());
+		}
+		return stats;
+	}
+
+	/**
+	 * Returns the eligible backends, in the order they are tried.
+	 */
+	List<Backend<C>> candidates(String capability) {
+		long now = System.nanoTime();
+		List<Candidate<C>> candidates = new ArrayList<>(this.backends.size());
+		for (Backend<C> backend : this.backends) {
+			double weight = backend.weight(capability);
+			if (weight > 0) {
+				Duration median = backend.stats().getLatencyPercentile(0.5);
+				Duration lowerBound = backend.stats().getLatencyLowerBound();
+				long latency = Math.max((median != null) ? median.toNanos() : 0,
+						(lowerBound != null) ? lowerBound.toNanos() : 0);
+				double score = latency / weight;
+				candidates.add(new Candidate<>(backend, isHealthy(backend.stats(), now), score));
+			}
+		}
+		candidates.sort(Comparator.<Candidate<C>, Boolean>comparing(candidate -> !candidate.healthy())
+			.thenComparingDouble(Candidate::score));
+		return candidates.stream().map(Candidate::backend).toList();
+	}
+
+	private boolean isHealthy(BackendStats stats, long now) {
+		return stats.getOutcomeCount() < MIN_HEALTH_OUTCOMES || stats.getErrorRate() <= this.maxErrorRate
+				|| now - stats.getLastFailureNanos() >= this.cooldown.toNanos();
+	}
+
+	private <T> Flux<T> route(List<Backend<C>> candidates, int index, Function<C, Flux<T>> request) {
+		Backend<C> backend = candidates.get(index);
+		if (index + 1 == candidates.size()) {
+			return attempt(backend, request);
+		}
+		if (this.hedging && index == 0) {
+			return Flux.defer(() -> {
+				// An empty completion is a response too: it is marked with an empty
+				// Optional, so that an empty primary wins the race and cancels the hedge
+				Sinks.Empty<Void> failed = Sinks.empty();
+				Flux<Optional<T>> primary = attempt(backend, request).doOnError(e -> failed.tryEmitEmpty())
+					.map(Optional::of)
+					.defaultIfEmpty(Optional.empty());
+				Flux<Optional<T>> hedge = Mono.firstWithSignal(Mono.delay(hedgeDelay(backend)).then(), failed.asMono())
+					.thenMany(Flux.defer(() -> route(candidates, 1, request)))
+					.map(Optional::of)
+					.defaultIfEmpty(Optional.empty());
+				return Flux.firstWithValue(primary, hedge)
+					.onErrorMap(Router::unwrap)
+					.filter(Optional::isPresent)
+					.map(Optional::get);
+			});
+		}
+		return Flux.defer(() -> {
+			AtomicBoolean emitted = new AtomicBoolean();
+			return attempt(backend, request).doOnNext(element -> emitted.set(true))
+				.onErrorResume(e -> !emitted.get(), e -> route(candidates, index + 1, request));
+		});
+	}
+
+	/**
+	 * Sends the request to the backend, recording its latency and outcome. A request
+	 * cancelled before its first element only records a latency lower bound.
+	 */
+	private <T> Flux<T> attempt(Backend<C> backend, Function<C, Flux<T>> request) {
+		return Flux.defer(() -> {
+			long start = System.nanoTime();
+			AtomicBoolean first = new AtomicBoolean(true);
+			Runnable recordLatency = () -> {
+				if (first.compareAndSet(true, false)) {
+					backend.stats().recordLatency(System.nanoTime() - start);
+				}
+			};
+			return request.apply(backend.client()).doOnNext(element -> recordLatency.run()).doOnComplete(() -> {
+				recordLatency.run();
+				backend.stats().recordOutcome(false);
+			}).doOnError(e -> {
+				first.set(false);
+				backend.stats().recordOutcome(true);
+			}).doOnCancel(() -> {
+				if (first.compareAndSet(true, false)) {
+					backend.stats().recordCancellation(System.nanoTime() - start);
+				}
+			});
+		});
+	}
+
+	private Duration hedgeDelay(Backend<C> backend) {
+		if (backend.stats().getLatencyCount() < MIN_HEDGE_SAMPLES) {
+			return this.initialHedgeDelay;
+		}
+		return backend.stats().getLatencyPercentile(this.hedgePercentile);
+	}
+
+	/**
+	 * Returns the last error of the backends when all failed.
+	 */
+	private static Throwable unwrap(Throwable error) {
+		if (error instanceof NoSuchElementException && error.getCause() != null) {
+			List<Throwable> errors = Exceptions.unwrapMultiple(error.getCause());
+			return unwrap(errors.get(errors.size() - 1));
+		}
+		return error;
+	}
+
+	record Backend<C>(String name, C client, double weight, Map<String, Double> capabilityWeights, BackendStats stats) {
+
+		/**
+		 * Returns the weight of the backend for the capability, 0 if it is not eligible.
+		 */
+		double weight(String capability) {
+			if (capability == null || this.capabilityWeights.isEmpty()) {
+				return this.weight;
+			}
+			return this.capabilityWeights.getOrDefault(capability, 0.0);
+		}
+
+	}
+
+	private record Candidate<C>(Backend<C> backend, boolean healthy, double score) {
+	}
+
+	public static class Builder<C> {
+
+		private final Map<String, BackendSpec<C>> backends = new LinkedHashMap<>();
+
+		private boolean hedging = true;
+
+		private double hedgePercentile = 0.95;
+
+		private Duration initialHedgeDelay = Duration.ofSeconds(2);
+
+		private double maxErrorRate = 0.5;
+
+		private Duration cooldown = Duration.ofSeconds(30);
+
+		private int windowSize = 100;
+
+		private Scheduler scheduler = Schedulers.boundedElastic();
+
+		private Builder() {
+		}
+
+		/**
+		 * Adds a backend with a weight of 1.
+		 * @param name the unique backend name.
+		 * @param client the backend client.
+		 * @return this builder
+		 */
+		public Builder<C> withBackend(String name, C client) {
+			return withBackend(name, client, 1);
+		}
+
+		/**
+		 * Adds a backend. A backend with twice the weight of another is preferred as long
+		 * as its median latency is less than twice the other's.
+		 * @param name the unique backend name.
+		 * @param client the backend client.
+		 * @param weight the weight, must be > 0.
+		 * @param capabilities the capabilities the backend is restricted to, with the
+		 * same weight, if any.
+		 * @return this builder
+		 */
+		public Builder<C> withBackend(String name, C client, double weight, String... capabilities) {
+			Assert.hasText(name, "Name must not be empty");
+			Assert.notNull(client, "Client must not be null");
+			Assert.isTrue(weight > 0, "Weight must be > 0");
+			Assert.isTrue(!this.backends.containsKey(name), () -> "Duplicate backend '" + name + "'");
+			BackendSpec<C> spec = new BackendSpec<>(name, client, weight);
+			for (String capability : capabilities) {
+				spec.capabilityWeights.put(capability, weight);
+			}
+			this.backends.put(name, spec);
+			return this;
+		}
+
+		/**
+		 * Sets the weight of a backend for a capability, restricting the backend to the
+		 * capabilities it has a weight for. A weight of 0 makes it ineligible for the
+		 * capability.
+		 * @param name the backend name.
+		 * @param capability the capability.
+		 * @param weight the weight, must be >= 0.
+		 * @return this builder
+		 */
+		public Builder<C> withCapabilityWeight(String name, String capability, double weight) {
+			BackendSpec<C> spec = this.backends.get(name);
+			Assert.notNull(spec, () -> "Unknown backend '" + name + "'");
+			Assert.hasText(capability, "Capability must not be empty");
+			Assert.isTrue(weight >= 0, "Weight must be >= 0");
+			spec.capabilityWeights.put(capability, weight);
+			return this;
+		}
+
+		/**
+		 * Whether to send hedged requests. Defaults to true.
+		 * @param hedging whether to hedge.
+		 * @return this builder
+		 */
+		public Builder<C> withHedging(boolean hedging) {
+			this.hedging = hedging;
+			return this;
+		}
+
+		/**
+		 * Latency percentile of the first backend after which a hedged request is sent.
+		 * Defaults to 0.95.
+		 * @param hedgePercentile the percentile, between 0 and 1.
+		 * @return this builder
+		 */
+		public Builder<C> withHedgePercentile(double hedgePercentile) {
+			Assert.isTrue(hedgePercentile > 0 && hedgePercentile <= 1, "Hedge percentile must be in (0, 1]");
+			this.hedgePercentile = hedgePercentile;
+			return this;
+		}
+
+		/**
+		 * Delay after which a hedged request is sent while the first backend has too few
+		 * latency samples. Defaults to 2 seconds.
+		 * @param initialHedgeDelay the delay.
+		 * @return this builder
+		 */
+		public Builder<C> withInitialHedgeDelay(Duration initialHedgeDelay) {
+			Assert.isTrue(initialHedgeDelay != null && !initialHedgeDelay.isNegative(),
+					"Initial hedge delay must not be negative");
+			this.initialHedgeDelay = initialHedgeDelay;
+			return this;
+		}
+
+		/**
+		 * Error rate above which a backend is unhealthy. Defaults to 0.5.
+		 * @param maxErrorRate the error rate, between 0 and 1.
+		 * @return this builder
+		 */
+		public Builder<C> withMaxErrorRate(double maxErrorRate) {
+			Assert.isTrue(maxErrorRate >= 0 && maxErrorRate <= 1, "Max error rate must be in [0, 1]");
+			this.maxErrorRate = maxErrorRate;
+			return this;
+		}
+
+		/**
+		 * Time after its last failure after which an unhealthy backend is tried again
+		 * first. Defaults to 30 seconds.
+		 * @param cooldown the cooldown.
+		 * @return this builder
+		 */
+		public Builder<C> withCooldown(Duration cooldown) {
+			Assert.isTrue(cooldown != null && !cooldown.isNegative(), "Cooldown must not be negative");
+			this.cooldown = cooldown;
+			return this;
+		}
+
+		/**
+		 * Number of latest requests the statistics of a backend are computed over.
+		 * Defaults to 100.
+		 * @param windowSize the window size, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder<C> withWindowSize(int windowSize) {
+			Assert.isTrue(windowSize >= 1, "Window size must be >= 1");
+			this.windowSize = windowSize;
+			return this;
+		}
+
+		/**
+		 * Scheduler running the blocking requests of {@link Router#call}. Defaults to
+		 * {@link Schedulers#boundedElastic()}.
+		 * @param scheduler the scheduler.
+		 * @return this builder
+		 */
+		public Builder<C> withScheduler(Scheduler scheduler) {
+			Assert.notNull(scheduler, "Scheduler must not be null");
+			this.scheduler = scheduler;
+			return this;
+		}
+
+		public Router<C> build() {
+			return new Router<>(this);
+		}
+
+	}
+
+	private static final class BackendSpec<C> {
+
+		private final String name;
+
+		private final C client;
+
+		private final double weight;
+
+		private final Map<String, Double> capabilityWeights = new HashMap<>();
+
+		BackendSpec(String name, C client, double weight) {
+			this.name = name;
+			this.client = client;
+			this.weight = weight;
+		}
+
+	}
+
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentReader;
+import org.springframework.ai.writer.CheckpointFormat;
+import org.springframework.core.io.Resource;
+import org.springframework.util.Assert;
+
+/**
+ * Caches the documents extracted from a resource on disk, so that re-reading an unchanged
+ * file skips the parsing. The cache entry is keyed by a fingerprint of the resource, made
+ * of its size and a SHA-256 hash of its content, combined with a reader key describing
+ * the reader and its configuration.
+ *
+ * <p>
+ * The delegate reader is only created on a cache miss, which matters for readers that
+ * parse their input in the constructor:
+ *
+ * <pre class="code">
+ * var config = PdfDocumentReaderConfig.defaultConfig();
+ * var reader = new CachingDocumentReader(cacheDirectory, resource, "page-pdf " + config,
+ * 		pdf -&gt; new PagePdfDocumentReader(pdf, config));
+ * </pre>
+ *
+ * Entries are GZIP compressed {@link CheckpointFormat#BINARY} records, holding the
+ * document ids, contents and metadata. They are written to a temporary file first and
+ * then moved into place, so concurrent readers of the same file never see a partial
+ * entry. An unreadable entry is treated as a miss.
+ */
+public class CachingDocumentReader implements DocumentReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(CachingDocumentReader.class);
+
+	private static final String ENTRY_SUFFIX = ".bin.gz";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private final Path cacheDirectory;
+
+	private final Resource resource;
+
+	private final String readerKey;
+
+	private final Function<Resource, DocumentReader> readerFactory;
+
+	/**
+	 * Creates a caching reader.
+	 * @param cacheDirectory the directory holding the cache entries, created if missing.
+	 * @param resource the resource to read.
+	 * @param readerKey identifies the reader and every setting that affects its output.
+	 * @param readerFactory creates the delegate reader on a cache miss. The reader is
+	 * closed after use if it is {@link AutoCloseable}.
+	 */
+	public CachingDocumentReader(Path cacheDirectory, Resource resource, String readerKey,
+			Function<Resource, DocumentReader> readerFactory) {
+		Assert.notNull(cacheDirectory, "Cache directory must not be null");
+		Assert.notNull(resource, "Resource must not be null");
+		Assert.notNull(readerKey, "Reader key must not be null");
+		Assert.notNull(readerFactory, "Reader factory must not be null");
+		this.cacheDirectory = cacheDirectory;
+		this.resource = resource;
+		this.readerKey = readerKey;
+		this.readerFactory = readerFactory;
+	}
+
+	@Override
+	public List<Document> get() {
+		Path entry = this.cacheDirectory.resolve(cacheKey() + ENTRY_SUFFIX);
+		if (Files.isRegularFile(entry)) {
+			try {
+				return new CheckpointDocumentReader(entry, CheckpointFormat.BINARY).get();
+			}
+			catch (RuntimeException e) {
+				logger.warn("Ignoring unreadable cache entry {}: {}", entry, e.getMessage());
+			}
+		}
+		List<Document> documents = read();
+		try {
+			write(entry, documents);
+		}
+		catch (IOException e) {
+			logger.warn("Failed to write cache entry {}: {}", entry, e.getMessage());
+		}
+		return documents;
+	}
+
+	/**
+	 * {@return the hex encoded key of the cache entry of the resource}
+	 */
+	public String cacheKey() {
+		MessageDigest digest;
+		MessageDigest contentDigest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+			contentDigest = MessageDigest.getInstance("SHA-256");
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		digest.update(this.readerKey.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+		long size = 0;
+		byte[] buffer = new byte[BUFFER_SIZE];
+		try (InputStream in = this.resource.getInputStream()) {
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				contentDigest.update(buffer, 0, read);
+				size += read;
+			}
+			digest.update(Long.toString(size).getBytes(StandardCharsets.US_ASCII));
+			digest.update((byte) 0);
+			digest.update(contentDigest.digest());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to fingerprint " + this.resource, e);
+		}
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private List<Document> read() {
+		DocumentReader reader = this.readerFactory.apply(this.resource);
+		try {
+			return reader.get();
+		}
+		finally {
+			if (reader instanceof AutoCloseable closeable) {
+				try {
+					closeable.close();
+				}
+				catch (Exception e) {
+					logger.debug("Failed to close reader of {}", this.resource, e);
+				}
+			}
+		}
+	}
+
+	private void write(Path entry, List<Document> documents) throws IOException {
+		Files.createDirectories(this.cacheDirectory);
+		Path tempFile = Files.createTempFile(this.cacheDirectory, "entry-", ".tmp");
+		try {
+			try (OutputStream out = new GZIPOutputStream(
+					new BufferedOutputStream(Files.newOutputStream(tempFile), BUFFER_SIZE), BUFFER_SIZE)) {
+				for (Document document : documents) {
+					CheckpointFormat.BINARY.write(document, out);
+				}
+			}
+			Files.move(tempFile, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		finally {
+			Files.deleteIfExists(tempFile);
+		}
+	}
+
+}
@@ -0,0 +1,132 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import java.util.zip.GZIPInputStream;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentReader;
+import org.springframework.ai.writer.CheckpointDocumentWriter;
+import org.springframework.ai.writer.CheckpointFormat;
+import org.springframework.util.Assert;
+
+/**
+ * Reads back the {@link Document}s, including ids, metadata and embeddings, written by a
+ * {@link CheckpointDocumentWriter}. GZIP compressed files are detected automatically.
+ *
+ * <p>
+ * Use {@link #stream()} to replay large checkpoints in constant memory. The returned
+ * stream holds the file open and must be closed.
+ */
+public class CheckpointDocumentReader implements DocumentReader {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private final Path path;
+
+	private final CheckpointFormat format;
+
+	public CheckpointDocumentReader(Path path) {
+		this(path, CheckpointFormat.JSON_LINES);
+	}
+
+	public CheckpointDocumentReader(Path path, CheckpointFormat format) {
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(format, "Format must not be null");
+		this.path = path;
+		this.format = format;
+	}
+
+	@Override
+	public List<Document> get() {
+		try (Stream<Document> documents = stream()) {
+			return documents.toList();
+		}
+	}
+
+	/**
+	 * Lazily reads the documents one record at a time.
+	 * @return the document stream, to be closed after use.
+	 */
+	public Stream<Document> stream() {
+		InputStream in = open();
+		CheckpointFormat.RecordIterator records = this.format.reader(in);
+		Iterator<Document> iterator = new Iterator<>() {
+
+			private Document next;
+
+			@Override
+			public boolean hasNext() {
+				if (this.next == null) {
+					this.next = records.nextUnchecked();
+				}
+				return this.next != null;
+			}
+
+			@Override
+			public Document next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				Document current = this.next;
+				this.next = null;
+				return current;
+			}
+
+		};
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(() -> {
+				try {
+					in.close();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+	}
+
+	private InputStream open() {
+		try {
+			FileChannel channel = FileChannel.open(this.path, StandardOpenOption.READ);
+			BufferedInputStream in = new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE);
+			in.mark(2);
+			boolean gzip = in.read() == 0x1f && in.read() == 0x8b;
+			in.reset();
+			return gzip ? new GZIPInputStream(in, BUFFER_SIZE) : in;
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to open checkpoint file " + this.path, e);
+		}
+	}
+
+}
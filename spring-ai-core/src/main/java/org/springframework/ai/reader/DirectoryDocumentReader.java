@@ -0,0 +1,383 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * Reads all the files of a directory tree, handing each file to the
+ * {@link DocumentReader} registered for its extension. JSON files are read with a
+ * {@link JsonReader} and text files with a {@link TextReader} by default; readers for
+ * other formats, such as the PDF or Tika readers, are registered on the builder.
+ *
+ * <p>
+ * Files are read concurrently, with at most {@code maxConcurrency} files in flight, and
+ * their documents are returned in the order of the file paths. A file that fails to read
+ * does not stop the run: its error is passed to the configured failure handler and the
+ * file contributes no documents.
+ */
+public class DirectoryDocumentReader implements DocumentReader {
+
+	private static final Logger logger = LoggerFactory.getLogger(DirectoryDocumentReader.class);
+
+	private final Path root;
+
+	private final String pattern;
+
+	private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+	private final Map<String, Function<Resource, DocumentReader>> readers;
+
+	private final Function<Resource, DocumentReader> defaultReader;
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	private final BiConsumer<Path, Throwable> failureHandler;
+
+	private DirectoryDocumentReader(Builder builder) {
+		this.root = builder.root;
+		this.pattern = builder.pattern;
+		this.readers = Map.copyOf(builder.readers);
+		this.defaultReader = builder.defaultReader;
+		this.executor = builder.executor;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.failureHandler = builder.failureHandler;
+	}
+
+	/**
+	 * @param root the directory to read.
+	 * @return a builder for a reader of the given directory.
+	 */
+	public static Builder builder(Path root) {
+		return new Builder(root);
+	}
+
+	@Override
+	public List<Document> get() {
+		try (Stream<Document> documents = stream()) {
+			return documents.toList();
+		}
+	}
+
+	/**
+	 * Lazily reads the documents, file by file in path order, while the following files
+	 * are read in the background.
+	 * @return the document stream, to be closed after use.
+	 */
+	public Stream<Document> stream() {
+		List<Path> files = listFiles();
+		ExecutorService pool = null;
+		Executor filesExecutor = this.executor;
+		if (filesExecutor == null && this.maxConcurrency > 1 && files.size() > 1) {
+			pool = Executors.newFixedThreadPool(Math.min(this.maxConcurrency, files.size()));
+			filesExecutor = pool;
+		}
+		FileIterator iterator = new FileIterator(files, filesExecutor, pool);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.flatMap(List::stream)
+			.onClose(iterator::cancel);
+	}
+
+	/**
+	 * Lists the regular files that match the pattern and have a reader, sorted by path.
+	 */
+	private List<Path> listFiles() {
+		try (Stream<Path> paths = Files.walk(this.root)) {
+			return paths.filter(Files::isRegularFile).filter(this::matches).sorted().toList();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to list the files of " + this.root, e);
+		}
+	}
+
+	private boolean matches(Path file) {
+		if (this.pattern != null) {
+			String relativePath = this.root.relativize(file)
+				.toString()
+				.replace(file.getFileSystem().getSeparator(), "/");
+			if (!this.pathMatcher.match(this.pattern, relativePath)) {
+				return false;
+			}
+		}
+		return readerFor(file) != null;
+	}
+
+	private Function<Resource, DocumentReader> readerFor(Path file) {
+		String extension = StringUtils.getFilenameExtension(file.getFileName().toString());
+		Function<Resource, DocumentReader> reader = (extension != null)
+				? this.readers.get(extension.toLowerCase(Locale.ROOT)) : null;
+		return (reader != null) ? reader : this.defaultReader;
+	}
+
+	private List<Document> read(Path file) {
+		DocumentReader reader = null;
+		try {
+			reader = readerFor(file).apply(new FileSystemResource(file));
+			return reader.get();
+		}
+		catch (Exception e) {
+			this.failureHandler.accept(file, e);
+			return List.of();
+		}
+		finally {
+			if (reader instanceof AutoCloseable closeable) {
+				try {
+					closeable.close();
+				}
+				catch (Exception e) {
+					logger.debug("Failed to close reader of {}", file, e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the files ahead of the consumer, keeping up to twice the max concurrency of
+	 * files queued so that the next reads are ready to start, and hands out their
+	 * documents in path order. At most max concurrency files are read at the same time,
+	 * whatever the executor.
+	 */
+	private class FileIterator implements Iterator<List<Document>> {
+
+		private final List<Path> files;
+
+		private final Executor executor;
+
+		private final int readAhead;
+
+		/**
+		 * Pool created for this iterator, shut down once all the files are submitted.
+		 */
+		private final ExecutorService pool;
+
+		private final Semaphore inFlight = new Semaphore(maxConcurrency);
+
+		private final Deque<CompletableFuture<List<Document>>> pending = new ArrayDeque<>();
+
+		private int nextFile;
+
+		private volatile boolean cancelled;
+
+		FileIterator(List<Path> files, Executor executor, ExecutorService pool) {
+			this.files = files;
+			this.executor = executor;
+			this.pool = pool;
+			this.readAhead = (executor != null) ? 2 * maxConcurrency : 1;
+		}
+
+		@Override
+		public boolean hasNext() {
+			fill();
+			return !this.pending.isEmpty();
+		}
+
+		@Override
+		public List<Document> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			return this.pending.removeFirst().join();
+		}
+
+		private void fill() {
+			while (this.nextFile < this.files.size() && this.pending.size() < this.readAhead) {
+				Path file = this.files.get(this.nextFile++);
+				this.pending.addLast((this.executor != null)
+						? CompletableFuture.supplyAsync(() -> readWithPermit(file), this.executor)
+						: CompletableFuture.completedFuture(read(file)));
+				if (this.nextFile == this.files.size() && this.pool != null) {
+					this.pool.shutdown();
+				}
+			}
+		}
+
+		private List<Document> readWithPermit(Path file) {
+			try {
+				this.inFlight.acquire();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return List.of();
+			}
+			try {
+				return this.cancelled ? List.of() : read(file);
+			}
+			finally {
+				this.inFlight.release();
+			}
+		}
+
+		void cancel() {
+			this.cancelled = true;
+			this.nextFile = this.files.size();
+			this.pending.forEach(future -> future.cancel(false));
+			this.pending.clear();
+			if (this.pool != null) {
+				this.pool.shutdownNow();
+			}
+		}
+
+	}
+
+	public static class Builder {
+
+		private final Path root;
+
+		private String pattern;
+
+		private final Map<String, Function<Resource, DocumentReader>> readers = new HashMap<>();
+
+		private Function<Resource, DocumentReader> defaultReader;
+
+		private Executor executor;
+
+		private int maxConcurrency = Runtime.getRuntime().availableProcessors();
+
+		private BiConsumer<Path, Throwable> failureHandler = (file, error) -> logger.warn("Failed to read {}: {}", file,
+				error.getMessage());
+
+		private Builder(Path root) {
+			Assert.notNull(root, "Root directory must not be null");
+			Assert.isTrue(Files.isDirectory(root), () -> "Root must be a directory: " + root);
+			this.root = root;
+			withReader(JsonReader::new, "json");
+			withReader(TextReader::new, "txt", "text", "md");
+		}
+
+		/**
+		 * Ant-style pattern, such as {@code reports/**}{@code /*.pdf}, matched against
+		 * the file paths relative to the root directory. Defaults to all files.
+		 * @param pattern the path pattern.
+		 * @return this builder
+		 */
+		public Builder withPattern(String pattern) {
+			Assert.hasText(pattern, "Pattern must not be empty");
+			this.pattern = pattern;
+			return this;
+		}
+
+		/**
+		 * Reader for the files with the given extensions, replacing any reader previously
+		 * registered for them, e.g.
+		 * {@code withReader(PagePdfDocumentReader::new, "pdf")}.
+		 * @param reader creates the reader of a file. The reader is closed after use if
+		 * it is {@link AutoCloseable}.
+		 * @param extensions the file extensions, without the leading dot, matched
+		 * ignoring case.
+		 * @return this builder
+		 */
+		public Builder withReader(Function<Resource, DocumentReader> reader, String... extensions) {
+			Assert.notNull(reader, "Reader must not be null");
+			Assert.notEmpty(extensions, "Extensions must not be empty");
+			for (String extension : extensions) {
+				this.readers.put(extension.toLowerCase(Locale.ROOT), reader);
+			}
+			return this;
+		}
+
+		/**
+		 * Reader for the files without a reader registered for their extension, such as a
+		 * Tika based reader. By default these files are skipped.
+		 * @param defaultReader creates the reader of a file, closed after use if it is
+		 * {@link AutoCloseable}.
+		 * @return this builder
+		 */
+		public Builder withDefaultReader(Function<Resource, DocumentReader> defaultReader) {
+			this.defaultReader = defaultReader;
+			return this;
+		}
+
+		/**
+		 * Executor used to read the files, e.g. a virtual-thread-per-task executor. If
+		 * not set, a fixed thread pool of max concurrency threads is created for each
+		 * read and shut down once all the files are submitted.
+		 * @param executor the executor to use.
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Maximum number of files read at the same time. Defaults to the number of
+		 * available processors. With 1 and no executor, the files are read on the calling
+		 * thread.
+		 * @param maxConcurrency max concurrency, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency >= 1, "Max concurrency must be >= 1");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Callback invoked with the path and the error of every file that failed to read.
+		 * Defaults to logging a warning.
+		 * @param failureHandler the failure handler.
+		 * @return this builder
+		 */
+		public Builder withFailureHandler(BiConsumer<Path, Throwable> failureHandler) {
+			Assert.notNull(failureHandler, "Failure handler must not be null");
+			this.failureHandler = failureHandler;
+			return this;
+		}
+
+		public DirectoryDocumentReader build() {
+			return new DirectoryDocumentReader(this);
+		}
+
+	}
+
+}
@@ -94,16 +94,28 @@ public class ExtractedTextFormatter {
 
 		var text = trimAdjacentBlankLines(pageText);
 
-		if (pageNumber >= this.numberOfTopPagesToSkipBeforeDelete) {
-			text = deleteTopTextLines(text, this.numberOfTopTextLinesToDelete);
-			text = deleteBottomTextLines(text, this.numberOfBottomTextLinesToDelete);
+		int start = 0;
+		int end = text.length();
+		if (pageNumber >= this.numberOfTopPagesToSkipBeforeDelete && StringUtils.hasText(text)) {
+			start = topTruncateIndex(text, this.numberOfTopTextLinesToDelete);
+			if (hasText(text, start, end)) {
+				end = bottomTruncateIndex(text, start, this.numberOfBottomTextLinesToDelete);
+			}
 		}
 
 		if (this.leftAlignment) {
-			text = alignToLeft(text);
+			return alignToLeft(text, start, end);
 		}
 
-		return text;
+		return text.substring(start, end);
+	}
+
+	@Override
+	public String toString() {
+		return "ExtractedTextFormatter{leftAlignment=" + this.leftAlignment + ", numberOfTopPagesToSkipBeforeDelete="
+				+ this.numberOfTopPagesToSkipBeforeDelete + ", numberOfTopTextLinesToDelete="
+				+ this.numberOfTopTextLinesToDelete + ", numberOfBottomTextLinesToDelete="
+				+ this.numberOfBottomTextLinesToDelete + "}";
 	}
 
 	/**
@@ -216,7 +228,31 @@ public class ExtractedTextFormatter {
 	 * @return Returns the same text but with blank lines trimmed.
 	 */
 	public static String trimAdjacentBlankLines(String pageText) {
-		return pageText.replaceAll("(?m)(^ *\n)", "\n").replaceAll("(?m)^$([\r\n]+?)(^$[\r\n]+?^)+", "$1");
+		int length = pageText.length();
+		StringBuilder text = new StringBuilder(length);
+		int lineStart = 0;
+		while (lineStart < length) {
+			int contentEnd = lineContentEnd(pageText, lineStart, length);
+			int lineEnd = lineEnd(pageText, contentEnd, length);
+			if (!isBlankLine(pageText, lineStart, contentEnd, lineEnd)) {
+				text.append(pageText, lineStart, lineEnd);
+				lineStart = lineEnd;
+				continue;
+			}
+			// Keep the first blank line of a run and drop the following ones, except a
+			// last blank line ending the text.
+			text.append(pageText, contentEnd, lineEnd);
+			lineStart = lineEnd;
+			while (lineStart < length) {
+				int nextContentEnd = lineContentEnd(pageText, lineStart, length);
+				int nextLineEnd = lineEnd(pageText, nextContentEnd, length);
+				if (nextLineEnd == length || !isBlankLine(pageText, lineStart, nextContentEnd, nextLineEnd)) {
+					break;
+				}
+				lineStart = nextLineEnd;
+			}
+		}
+		return text.toString();
 	}
 
 	/**
@@ -224,7 +260,104 @@ public class ExtractedTextFormatter {
 	 * @return Returns the same text but aligned to the left side.
 	 */
 	public static String alignToLeft(String pageText) {
-		return pageText.replaceAll("(?m)(^ *| +(?= |$))", "").replaceAll("(?m)^$(	?)(^$[\r\n]+?^)+", "$1");
+		return alignToLeft(pageText, 0, pageText.length());
+	}
+
+	/**
+	 * Strips the leading and trailing spaces of each line, collapses runs of spaces and
+	 * drops the empty lines, except a last empty line ending the text.
+	 */
+	private static String alignToLeft(String pageText, int start, int end) {
+		StringBuilder text = new StringBuilder(end - start);
+		// A last line of spaces vanishes, so the line before it ends the text.
+		int textEnd = end;
+		while (textEnd > start && pageText.charAt(textEnd - 1) == ' ') {
+			textEnd--;
+		}
+		if (textEnd > start && pageText.charAt(textEnd - 1) != '\n' && pageText.charAt(textEnd - 1) != '\r') {
+			textEnd = end;
+		}
+		int lineStart = start;
+		while (lineStart < end) {
+			int contentEnd = lineContentEnd(pageText, lineStart, end);
+			int lineEnd = lineEnd(pageText, contentEnd, end);
+			int lengthBefore = text.length();
+			boolean pendingSpace = false;
+			for (int i = lineStart; i < contentEnd; i++) {
+				char c = pageText.charAt(i);
+				if (c == ' ') {
+					pendingSpace = text.length() > lengthBefore;
+				}
+				else {
+					if (pendingSpace) {
+						text.append(' ');
+						pendingSpace = false;
+					}
+					text.append(c);
+				}
+			}
+			if (text.length() > lengthBefore || lineEnd == textEnd) {
+				text.append(pageText, contentEnd, lineEnd);
+			}
+			lineStart = lineEnd;
+		}
+		return text.toString();
+	}
+
+	/**
+	 * A line of spaces only counts as blank when it ends with a {@code \n}.
+	 */
+	private static boolean isBlankLine(String text, int lineStart, int contentEnd, int lineEnd) {
+		if (contentEnd == lineEnd) {
+			return false;
+		}
+		if (contentEnd == lineStart) {
+			return true;
+		}
+		if (text.charAt(contentEnd) != '\n') {
+			return false;
+		}
+		for (int i = lineStart; i < contentEnd; i++) {
+			if (text.charAt(i) != ' ') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * {@return the index of the line terminator, or {@code end}}
+	 */
+	private static int lineContentEnd(String text, int from, int end) {
+		for (int i = from; i < end; i++) {
+			char c = text.charAt(i);
+			if (c == '\n' || c == '\r') {
+				return i;
+			}
+		}
+		return end;
+	}
+
+	/**
+	 * {@return the index after the line terminator starting at {@code contentEnd}}
+	 */
+	private static int lineEnd(String text, int contentEnd, int end) {
+		if (contentEnd == end) {
+			return end;
+		}
+		if (text.charAt(contentEnd) == '\r' && contentEnd + 1 < end && text.charAt(contentEnd + 1) == '\n') {
+			return contentEnd + 2;
+		}
+		return contentEnd + 1;
+	}
+
+	private static boolean hasText(String text, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (!Character.isWhitespace(text.charAt(i))) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 	/**
@@ -237,16 +370,22 @@ public class ExtractedTextFormatter {
 		if (!StringUtils.hasText(pageText)) {
 			return pageText;
 		}
+		return pageText.substring(0, bottomTruncateIndex(pageText, 0, numberOfLines));
+	}
 
+	private static int bottomTruncateIndex(String pageText, int start, int numberOfLines) {
 		int lineCount = 0;
 		int truncateIndex = pageText.length();
 		int nextTruncateIndex = truncateIndex;
 		while (lineCount < numberOfLines && nextTruncateIndex >= 0) {
 			nextTruncateIndex = pageText.lastIndexOf(System.lineSeparator(), truncateIndex - 1);
+			if (nextTruncateIndex < start) {
+				nextTruncateIndex = -1;
+			}
 			truncateIndex = nextTruncateIndex < 0 ? truncateIndex : nextTruncateIndex;
 			lineCount++;
 		}
-		return pageText.substring(0, truncateIndex);
+		return truncateIndex;
 	}
 
 	/**
@@ -274,6 +413,10 @@ public class ExtractedTextFormatter {
 		if (!StringUtils.hasText(pageText)) {
 			return pageText;
 		}
+		return pageText.substring(topTruncateIndex(pageText, numberOfLines));
+	}
+
+	private static int topTruncateIndex(String pageText, int numberOfLines) {
 		int lineCount = 0;
 
 		int truncateIndex = 0;
@@ -283,7 +426,7 @@ public class ExtractedTextFormatter {
 			truncateIndex = nextTruncateIndex < 0 ? truncateIndex : nextTruncateIndex;
 			lineCount++;
 		}
-		return pageText.substring(truncateIndex, pageText.length());
+		return truncateIndex;
 	}
 
 }
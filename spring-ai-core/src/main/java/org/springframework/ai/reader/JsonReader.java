@@ -1,11 +1,21 @@
 package org.springframework.ai.reader;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonPointer;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -13,8 +23,22 @@ import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
 import org.springframework.core.io.Resource;
 
+/**
+ * Reads {@link Document}s from JSON objects. The input is parsed incrementally with a
+ * streaming {@link JsonParser}, so only one JSON object is held in memory at a time.
+ *
+ * <p>
+ * The resource can hold a JSON array of objects, a single object, or a sequence of root
+ * values such as JSON Lines. A {@link #setJsonPointer(String) JSON Pointer} selects a
+ * nested array (or object) inside each root value.
+ */
 public class JsonReader implements DocumentReader {
 
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+	private static final TypeReference<Map<String, Object>> MAP_TYPE = new TypeReference<>() {
+	};
+
 	private Resource resource;
 
 	private JsonMetadataGenerator jsonMetadataGenerator;
@@ -24,6 +48,11 @@ public class JsonReader implements DocumentReader {
 	 */
 	private List<String> jsonKeysToUse;
 
+	/**
+	 * Location of the array of objects to read within each root value.
+	 */
+	private JsonPointer jsonPointer = JsonPointer.empty();
+
 	public JsonReader(Resource resource) {
 		this(resource, new ArrayList<>().toArray(new String[0]));
 	}
@@ -41,43 +70,209 @@ public class JsonReader implements DocumentReader {
 		this.jsonKeysToUse = List.of(jsonKeysToUse);
 	}
 
+	/**
+	 * Selects the array of objects to read, e.g. {@code /catalog/products}. Root values
+	 * that do not contain the pointed location are skipped.
+	 * @param jsonPointer a RFC 6901 JSON Pointer expression.
+	 */
+	public void setJsonPointer(String jsonPointer) {
+		Objects.requireNonNull(jsonPointer, "The JSON pointer must not be null");
+		this.jsonPointer = JsonPointer.compile(jsonPointer);
+	}
+
+	public String getJsonPointer() {
+		return this.jsonPointer.toString();
+	}
+
 	@Override
 	public List<Document> get() {
-		ObjectMapper objectMapper = new ObjectMapper();
-		List<Document> documents = new ArrayList<>();
+		try (Stream<Document> documents = stream()) {
+			return documents.toList();
+		}
+	}
+
+	/**
+	 * Lazily reads the documents, one JSON object at a time.
+	 * @return the document stream, to be closed after use.
+	 */
+	public Stream<Document> stream() {
+		JsonParser parser;
 		try {
-			// TODO, not all json will be an array
-			List<Map<String, Object>> jsonData = objectMapper.readValue(this.resource.getInputStream(),
-					new TypeReference<List<Map<String, Object>>>() {
-					});
-			for (Map<String, Object> item : jsonData) {
-				StringBuilder sb = new StringBuilder();
-				for (String key : jsonKeysToUse) {
-					if (item.containsKey(key)) {
-						sb.append(key);
-						sb.append(": ");
-						sb.append(item.get(key));
-						sb.append(System.lineSeparator());
-					}
+			parser = OBJECT_MAPPER.getFactory().createParser(this.resource.getInputStream());
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Iterator<Document> iterator = new DocumentIterator(parser);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(() -> {
+				try {
+					parser.close();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+	}
+
+	private Document toDocument(Map<String, Object> item) {
+		StringBuilder sb = new StringBuilder();
+		for (String key : jsonKeysToUse) {
+			if (item.containsKey(key)) {
+				sb.append(key);
+				sb.append(": ");
+				sb.append(item.get(key));
+				sb.append(System.lineSeparator());
+			}
+		}
+
+		Map<String, Object> metadata = this.jsonMetadataGenerator.generate(item);
+
+		if (!sb.isEmpty()) {
+			return new Document(sb.toString(), metadata);
+		}
+		return new Document(item.toString(), metadata);
+	}
+
+	/**
+	 * Pulls one object at a time out of the token stream.
+	 */
+	private class DocumentIterator implements Iterator<Document> {
+
+		private final JsonParser parser;
+
+		private boolean inArray;
+
+		private Document next;
+
+		DocumentIterator(JsonParser parser) {
+			this.parser = parser;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				try {
+					this.next = advance();
 				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return this.next != null;
+		}
 
-				Map<String, Object> metadata = this.jsonMetadataGenerator.generate(item);
+		@Override
+		public Document next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Document current = this.next;
+			this.next = null;
+			return current;
+		}
+
+		private Document advance() throws IOException {
+			while (true) {
+				if (this.inArray) {
+					JsonToken token = this.parser.nextToken();
+					if (token == JsonToken.END_ARRAY) {
+						this.inArray = false;
+						skipToRootEnd();
+					}
+					else if (token == JsonToken.START_OBJECT) {
+						return toDocument(OBJECT_MAPPER.readValue(this.parser, MAP_TYPE));
+					}
+					else if (token == null) {
+						return null;
+					}
+					else {
+						this.parser.skipChildren();
+					}
+					continue;
+				}
 
-				Document document;
-				if (!sb.isEmpty()) {
-					document = new Document(sb.toString(), metadata);
+				JsonToken token = this.parser.nextToken();
+				if (token == null) {
+					return null;
+				}
+				if (!navigate()) {
+					skipToRootEnd();
+					continue;
+				}
+				if (this.parser.currentToken() == JsonToken.START_ARRAY) {
+					this.inArray = true;
+				}
+				else if (this.parser.currentToken() == JsonToken.START_OBJECT) {
+					Document document = toDocument(OBJECT_MAPPER.readValue(this.parser, MAP_TYPE));
+					skipToRootEnd();
+					return document;
 				}
 				else {
-					document = new Document(item.toString(), metadata);
+					this.parser.skipChildren();
+					skipToRootEnd();
 				}
+			}
+		}
 
-				documents.add(document);
+		/**
+		 * Moves the parser from the start of a root value to the value selected by the
+		 * JSON pointer.
+		 * @return false if the root value does not contain the pointed location.
+		 */
+		private boolean navigate() throws IOException {
+			JsonPointer pointer = JsonReader.this.jsonPointer;
+			while (!pointer.matches()) {
+				JsonToken token = this.parser.currentToken();
+				boolean found = false;
+				if (token == JsonToken.START_OBJECT && pointer.getMatchingProperty() != null) {
+					while (this.parser.nextToken() == JsonToken.FIELD_NAME) {
+						String name = this.parser.currentName();
+						this.parser.nextToken();
+						if (name.equals(pointer.getMatchingProperty())) {
+							found = true;
+							break;
+						}
+						this.parser.skipChildren();
+					}
+				}
+				else if (token == JsonToken.START_ARRAY && pointer.getMatchingIndex() >= 0) {
+					int index = 0;
+					while (this.parser.nextToken() != JsonToken.END_ARRAY) {
+						if (index++ == pointer.getMatchingIndex()) {
+							found = true;
+							break;
+						}
+						this.parser.skipChildren();
+					}
+				}
+				else {
+					this.parser.skipChildren();
+				}
+				if (!found) {
+					return false;
+				}
+				pointer = pointer.tail();
 			}
+			return true;
 		}
-		catch (IOException e) {
-			throw new RuntimeException(e);
+
+		/**
+		 * Skips the remainder of the current root value.
+		 */
+		private void skipToRootEnd() throws IOException {
+			while (!this.parser.getParsingContext().inRoot()) {
+				JsonToken token = this.parser.nextToken();
+				if (token == null) {
+					return;
+				}
+				if (token.isStructStart()) {
+					this.parser.skipChildren();
+				}
+			}
 		}
-		return documents;
+
 	}
 
 }
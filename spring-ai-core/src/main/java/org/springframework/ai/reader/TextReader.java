@@ -1,12 +1,27 @@
 package org.springframework.ai.reader;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
 import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentReader;
@@ -15,6 +30,11 @@ import org.springframework.core.io.Resource;
 import org.springframework.util.StreamUtils;
 
 /**
+ * Reads a text resource as a single {@link Document}, or, when a
+ * {@link #setWindowSize(int) window size} is set, as a lazy sequence of documents cut at
+ * paragraph or line boundaries. Windowed documents carry their byte offsets and line
+ * range in the metadata.
+ *
  * @author Craig Walls
  * @author Christian Tzolov
  */
@@ -24,6 +44,30 @@ public class TextReader implements DocumentReader {
 
 	public static final String SOURCE_METADATA = "source";
 
+	/**
+	 * Offset of the first byte of a window.
+	 */
+	public static final String START_BYTE_METADATA = "start_byte";
+
+	/**
+	 * Offset after the last byte of a window.
+	 */
+	public static final String END_BYTE_METADATA = "end_byte";
+
+	/**
+	 * One based number of the first line of a window.
+	 */
+	public static final String START_LINE_METADATA = "start_line";
+
+	/**
+	 * One based number of the last line of a window.
+	 */
+	public static final String END_LINE_METADATA = "end_line";
+
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	private static final int MIN_LINE_BYTES = 16;
+
 	/**
 	 * Input resource to load the text from.
 	 */
@@ -36,6 +80,11 @@ public class TextReader implements DocumentReader {
 
 	private Map<String, Object> customMetadata = new HashMap<>();
 
+	/**
+	 * Maximum number of characters per document, 0 to read the resource as a whole.
+	 */
+	private int windowSize = 0;
+
 	public TextReader(String resourceUrl) {
 		this(new DefaultResourceLoader().getResource(resourceUrl));
 	}
@@ -54,6 +103,25 @@ public class TextReader implements DocumentReader {
 		return this.charset;
 	}
 
+	/**
+	 * Splits the text into documents of at most {@code windowSize} characters. Windows
+	 * end at a paragraph break when one falls in their second half, otherwise at a line
+	 * break. Only lines longer than the window are cut mid line. Windowed reading
+	 * requires an ASCII compatible charset, such as UTF-8 or ISO-8859-1.
+	 * @param windowSize the maximum window size in characters, or 0 (the default) to read
+	 * the whole resource into a single document.
+	 */
+	public void setWindowSize(int windowSize) {
+		if (windowSize < 0) {
+			throw new IllegalArgumentException("The window size must not be negative");
+		}
+		this.windowSize = windowSize;
+	}
+
+	public int getWindowSize() {
+		return this.windowSize;
+	}
+
 	/**
 	 * Metadata associated with all documents created by the loader.
 	 * @return Metadata to be assigned to the output Documents.
@@ -64,6 +132,11 @@ public class TextReader implements DocumentReader {
 
 	@Override
 	public List<Document> get() {
+		if (this.windowSize > 0) {
+			try (Stream<Document> documents = stream()) {
+				return documents.toList();
+			}
+		}
 		try {
 
 			String document = StreamUtils.copyToString(this.resource.getInputStream(), this.charset);
@@ -81,4 +154,272 @@ public class TextReader implements DocumentReader {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * Lazily reads the windowed documents, holding at most one window in memory. Lines
+	 * longer than the window are read in window sized pieces. Each window can be handed
+	 * to a splitter as soon as it is read. Without a window size the stream holds the
+	 * single document returned by {@link #get()}.
+	 * @return the document stream, to be closed after use.
+	 */
+	public Stream<Document> stream() {
+		if (this.windowSize == 0) {
+			return get().stream();
+		}
+		if (!Arrays.equals("\n".getBytes(this.charset), new byte[] { '\n' })) {
+			throw new IllegalStateException("Windowed reading does not support the " + this.charset + " charset");
+		}
+		InputStream in;
+		try {
+			in = this.resource.getInputStream();
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		Iterator<Document> iterator = new WindowIterator(in);
+		return StreamSupport
+			.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED | Spliterator.NONNULL), false)
+			.onClose(() -> {
+				try {
+					in.close();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+	}
+
+	private record Line(String text, long startByte, long endByte, long number, boolean blank) {
+	}
+
+	/**
+	 * Decodes the input line by line and groups the lines into windows.
+	 */
+	private class WindowIterator implements Iterator<Document> {
+
+		private final InputStream in;
+
+		private final byte[] buffer = new byte[BUFFER_SIZE];
+
+		private int position;
+
+		private int limit;
+
+		// Capped at the window size: a longer line is read in pieces, of at most as many
+		// characters as bytes
+		private final byte[] lineBytes = new byte[Math.max(windowSize, MIN_LINE_BYTES)];
+
+		private int lineLength;
+
+		private boolean lineContinues;
+
+		private final CharsetDecoder decoder = charset.newDecoder()
+			.onMalformedInput(CodingErrorAction.REPLACE)
+			.onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+		private long byteOffset;
+
+		private long lineNumber;
+
+		private boolean eof;
+
+		private final Deque<Line> window = new ArrayDeque<>();
+
+		private int windowLength;
+
+		private Document next;
+
+		WindowIterator(InputStream in) {
+			this.in = in;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (this.next == null) {
+				try {
+					this.next = advance();
+				}
+				catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+			return this.next != null;
+		}
+
+		@Override
+		public Document next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Document current = this.next;
+			this.next = null;
+			return current;
+		}
+
+		private Document advance() throws IOException {
+			while (true) {
+				while (this.windowLength > windowSize) {
+					Document document = emit(cutIndex());
+					if (document != null) {
+						return document;
+					}
+				}
+				Line line = readLine();
+				if (line == null) {
+					if (this.window.isEmpty()) {
+						return null;
+					}
+					Document document = emit(this.window.size());
+					if (document != null) {
+						return document;
+					}
+					continue;
+				}
+				if (line.text().length() > windowSize) {
+					splitLongLine(line);
+				}
+				else {
+					this.window.addLast(line);
+					this.windowLength += line.text().length();
+				}
+			}
+		}
+
+		/**
+		 * Number of lines of the window to emit: up to the last paragraph break in the
+		 * second half of the window that fits, or all the lines that fit.
+		 */
+		private int cutIndex() {
+			int length = 0;
+			int index = 0;
+			int lastFitting = 0;
+			int paragraphCut = 0;
+			for (Line line : this.window) {
+				length += line.text().length();
+				if (length > windowSize) {
+					break;
+				}
+				index++;
+				lastFitting = index;
+				if (line.blank() && length >= windowSize / 2) {
+					paragraphCut = index;
+				}
+			}
+			int cut = (paragraphCut > 0) ? paragraphCut : lastFitting;
+			return Math.max(cut, 1);
+		}
+
+		private Document emit(int lineCount) {
+			Line first = this.window.peekFirst();
+			Line last = first;
+			StringBuilder content = new StringBuilder(Math.min(this.windowLength, windowSize));
+			boolean blank = true;
+			for (int i = 0; i < lineCount; i++) {
+				last = this.window.removeFirst();
+				this.windowLength -= last.text().length();
+				content.append(last.text());
+				blank &= last.blank();
+			}
+			if (blank) {
+				return null;
+			}
+			Map<String, Object> metadata = new HashMap<>(customMetadata);
+			metadata.put(CHARSET_METADATA, charset.name());
+			metadata.put(SOURCE_METADATA, resource.getFilename());
+			metadata.put(START_BYTE_METADATA, first.startByte());
+			metadata.put(END_BYTE_METADATA, last.endByte());
+			metadata.put(START_LINE_METADATA, first.number());
+			metadata.put(END_LINE_METADATA, last.number());
+			return new Document(content.toString(), metadata);
+		}
+
+		/**
+		 * Queues a line longer than the window as window sized pieces.
+		 */
+		private void splitLongLine(Line line) {
+			String text = line.text();
+			long startByte = line.startByte();
+			int start = 0;
+			while (start < text.length()) {
+				int end = Math.min(start + windowSize, text.length());
+				if (end < text.length() && Character.isHighSurrogate(text.charAt(end - 1)) && end - 1 > start) {
+					end--;
+				}
+				String piece = text.substring(start, end);
+				long endByte = (end == text.length()) ? line.endByte() : startByte + piece.getBytes(charset).length;
+				this.window.addLast(new Line(piece, startByte, endByte, line.number(), piece.isBlank()));
+				this.windowLength += piece.length();
+				startByte = endByte;
+				start = end;
+			}
+		}
+
+		/**
+		 * Reads the next line, including its terminator, or the next piece of a line
+		 * longer than the line buffer. A piece ends on a character boundary, the bytes of
+		 * a character cut by the buffer start the next piece.
+		 */
+		private Line readLine() throws IOException {
+			boolean terminated = false;
+			while (!terminated && this.lineLength < this.lineBytes.length) {
+				if (this.position == this.limit) {
+					if (this.eof || !fill()) {
+						break;
+					}
+				}
+				int start = this.position;
+				int end = start;
+				int max = Math.min(this.limit, start + this.lineBytes.length - this.lineLength);
+				while (end < max) {
+					if (this.buffer[end++] == '\n') {
+						terminated = true;
+						break;
+					}
+				}
+				int count = end - start;
+				System.arraycopy(this.buffer, start, this.lineBytes, this.lineLength, count);
+				this.lineLength += count;
+				this.position = end;
+			}
+			if (this.lineLength == 0) {
+				return null;
+			}
+			boolean complete = terminated || this.eof;
+			ByteBuffer bytes = ByteBuffer.wrap(this.lineBytes, 0, this.lineLength);
+			CharBuffer chars = CharBuffer.allocate((int) (this.lineLength * this.decoder.maxCharsPerByte()) + 1);
+			this.decoder.reset();
+			this.decoder.decode(bytes, chars, complete);
+			if (complete) {
+				this.decoder.flush(chars);
+			}
+			int consumed = bytes.position();
+			if (consumed == 0) {
+				// Not a single character in the buffer, decode the bytes as malformed
+				consumed = this.lineLength;
+				chars.clear().put(new String(this.lineBytes, 0, consumed, charset));
+			}
+			String text = chars.flip().toString();
+			System.arraycopy(this.lineBytes, consumed, this.lineBytes, 0, this.lineLength - consumed);
+			this.lineLength -= consumed;
+			long startByte = this.byteOffset;
+			this.byteOffset += consumed;
+			if (!this.lineContinues) {
+				this.lineNumber++;
+			}
+			this.lineContinues = !complete;
+			return new Line(text, startByte, this.byteOffset, this.lineNumber, text.isBlank());
+		}
+
+		private boolean fill() throws IOException {
+			int read = this.in.read(this.buffer);
+			if (read <= 0) {
+				this.eof = true;
+				return false;
+			}
+			this.position = 0;
+			this.limit = read;
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.ai.parser.MapOutputParser;
+import org.springframework.ai.parser.OutputParser;
+import org.springframework.util.Assert;
+
+/**
+ * Packs several document contents into one structured, numbered prompt so the metadata
+ * enrichers can send one request per batch of short chunks instead of one per chunk. The
+ * model is asked to answer with a JSON object keyed by section number, which is parsed
+ * back with a {@link MapOutputParser}.
+ *
+ * @see KeywordMetadataEnricher
+ * @see SummaryMetadataEnricher
+ */
+public class DocumentPacker {
+
+	public static final int DEFAULT_TOKEN_BUDGET = 3000;
+
+	public static final int DEFAULT_MAX_DOCUMENTS_PER_PROMPT = 20;
+
+	private static final String SECTION_HEADER = "### Section %d\n";
+
+	private static final String DEFAULT_FORMAT = """
+			Your response should be a single JSON object with one entry per section.
+			The keys must be the section numbers ("1", "2", ...) and the values the answer for that section.
+			Do not include any explanations, only provide a RFC8259 compliant JSON response following this format without deviation.
+			Do not include markdown code blocks in your response.
+			""";
+
+	private static final Logger logger = LoggerFactory.getLogger(DocumentPacker.class);
+
+	private static final Encoding ENCODING = Encodings.newLazyEncodingRegistry().getEncoding(EncodingType.CL100K_BASE);
+
+	/**
+	 * Max number of tokens of the packed sections, excluding the fixed instructions.
+	 */
+	private final int tokenBudget;
+
+	/**
+	 * Max number of documents packed into a single prompt.
+	 */
+	private final int maxDocumentsPerPrompt;
+
+	private final OutputParser<Map<String, Object>> outputParser;
+
+	public DocumentPacker() {
+		this(DEFAULT_TOKEN_BUDGET, DEFAULT_MAX_DOCUMENTS_PER_PROMPT);
+	}
+
+	public DocumentPacker(int tokenBudget, int maxDocumentsPerPrompt) {
+		this(tokenBudget, maxDocumentsPerPrompt, new MapOutputParser());
+	}
+
+	public DocumentPacker(int tokenBudget, int maxDocumentsPerPrompt, OutputParser<Map<String, Object>> outputParser) {
+		Assert.isTrue(tokenBudget > 0, "Token budget must be > 0");
+		Assert.isTrue(maxDocumentsPerPrompt >= 1, "Max documents per prompt must be >= 1");
+		Assert.notNull(outputParser, "OutputParser must not be null");
+		this.tokenBudget = tokenBudget;
+		this.maxDocumentsPerPrompt = maxDocumentsPerPrompt;
+		this.outputParser = outputParser;
+	}
+
+	/**
+	 * Computes one answer per document, packing the documents into as few prompts as the
+	 * token budget allows. Documents that do not share a prompt with others, and
+	 * documents whose answer is missing from or could not be parsed out of a packed
+	 * response, use a single-document call instead. A failed packed call is not retried:
+	 * its documents fall back to single calls right away, so the executor's retries and
+	 * failure handler only ever apply to single calls and see the failed document.
+	 * @param documents the documents to process.
+	 * @param content extracts the text of a document that goes into its section.
+	 * @param packedCall calls the model with the numbered sections of one group and
+	 * returns the raw response.
+	 * @param singleCall computes the answer for one document on its own.
+	 * @param executor executes the packed and the fallback calls.
+	 * @return one answer per document, in document order, {@code null} for documents
+	 * whose single call failed.
+	 */
+	public <D> List<String> execute(List<D> documents, Function<D, String> content, Function<String, String> packedCall,
+			Function<D, String> singleCall, EnrichmentExecutor executor) {
+
+		List<String> contents = documents.stream().map(content).toList();
+		List<List<Integer>> groups = new ArrayList<>();
+		List<Integer> missing = new ArrayList<>();
+		for (List<Integer> group : pack(contents)) {
+			if (group.size() > 1) {
+				groups.add(group);
+			}
+			else {
+				missing.addAll(group);
+			}
+		}
+
+		var packedOutcomes = executor.execute(groups, group -> {
+			String response;
+			try {
+				response = packedCall.apply(sections(group.stream().map(contents::get).toList()));
+			}
+			catch (RuntimeException e) {
+				logger.debug("Packed call for {} documents failed, falling back to single calls", group.size(), e);
+				return Map.<Integer, String>of();
+			}
+			try {
+				return parse(response, group.size());
+			}
+			catch (RuntimeException e) {
+				logger.debug("Unparsable packed response for {} documents, falling back to single calls", group.size(),
+						e);
+				return Map.<Integer, String>of();
+			}
+		});
+
+		List<String> answers = new ArrayList<>(documents.size());
+		documents.forEach(document -> answers.add(null));
+		for (int g = 0; g < groups.size(); g++) {
+			List<Integer> group = groups.get(g);
+			Map<Integer, String> groupAnswers = packedOutcomes.get(g).value();
+			for (int i = 0; i < group.size(); i++) {
+				String answer = groupAnswers.get(i);
+				if (answer != null) {
+					answers.set(group.get(i), answer);
+				}
+				else {
+					missing.add(group.get(i));
+				}
+			}
+		}
+
+		if (!missing.isEmpty()) {
+			missing.sort(null);
+			var singleOutcomes = executor.execute(missing.stream().map(documents::get).toList(), singleCall);
+			for (int i = 0; i < missing.size(); i++) {
+				answers.set(missing.get(i), singleOutcomes.get(i).value());
+			}
+		}
+		return answers;
+	}
+
+	/**
+	 * Groups consecutive contents so that each group fits in the token budget. A content
+	 * that exceeds the budget on its own forms a single-element group.
+	 * @param contents the document contents to pack.
+	 * @return groups of indexes into {@code contents}, in order.
+	 */
+	public List<List<Integer>> pack(List<String> contents) {
+		List<List<Integer>> groups = new ArrayList<>();
+		List<Integer> group = new ArrayList<>();
+		int groupTokens = 0;
+		for (int i = 0; i < contents.size(); i++) {
+			int tokens = ENCODING.countTokens(contents.get(i)) + 8; // + section header
+			if (!group.isEmpty()
+					&& (groupTokens + tokens > this.tokenBudget || group.size() == this.maxDocumentsPerPrompt)) {
+				groups.add(group);
+				group = new ArrayList<>();
+				groupTokens = 0;
+			}
+			group.add(i);
+			groupTokens += tokens;
+		}
+		if (!group.isEmpty()) {
+			groups.add(group);
+		}
+		return groups;
+	}
+
+	/**
+	 * Renders the contents as numbered sections, starting at 1.
+	 * @param contents the contents of one packed group.
+	 * @return the sections text.
+	 */
+	public String sections(List<String> contents) {
+		StringBuilder sections = new StringBuilder(
+				contents.stream().mapToInt(String::length).sum() + 32 * contents.size());
+		for (int i = 0; i < contents.size(); i++) {
+			sections.append(String.format(SECTION_HEADER, i + 1)).append(contents.get(i)).append("\n\n");
+		}
+		return sections.toString();
+	}
+
+	/**
+	 * {@return the output format instructions for a packed prompt}
+	 */
+	public String getFormat() {
+		return DEFAULT_FORMAT;
+	}
+
+	/**
+	 * Parses the per-section answers from the model response. Sections missing from the
+	 * response are absent from the returned map.
+	 * @param response the raw model response.
+	 * @param sectionCount the number of sections in the prompt.
+	 * @return the answers keyed by zero based section index.
+	 * @throws RuntimeException if the response cannot be parsed.
+	 */
+	public Map<Integer, String> parse(String response, int sectionCount) {
+		Map<String, Object> parsed = this.outputParser.parse(stripCodeFence(response));
+		Map<Integer, String> answers = new HashMap<>();
+		for (int i = 0; i < sectionCount; i++) {
+			Object answer = parsed.get(String.valueOf(i + 1));
+			if (answer instanceof Collection<?> values) {
+				answer = values.stream().map(String::valueOf).collect(Collectors.joining(", "));
+			}
+			if (answer != null && !answer.toString().isBlank()) {
+				answers.put(i, answer.toString().trim());
+			}
+		}
+		return answers;
+	}
+
+	private static String stripCodeFence(String response) {
+		String text = response.trim();
+		if (text.startsWith("```")) {
+			text = text.substring(text.indexOf('\n') + 1);
+			int end = text.lastIndexOf("```");
+			if (end >= 0) {
+				text = text.substring(0, end);
+			}
+		}
+		return text;
+	}
+
+}
@@ -0,0 +1,314 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import org.springframework.util.Assert;
+
+/**
+ * Runs the per-document model calls of the metadata enrichers with bounded concurrency,
+ * an optional rate limit and per-task retries. The last error of a task that fails all
+ * its attempts is passed to the failure handler. The default handler rethrows it, which
+ * aborts the batch. A handler that returns normally lets the batch go on, with the error
+ * returned in the corresponding {@link Outcome}.
+ *
+ * <p>
+ * By default tasks run one after another on the calling thread. When an {@link Executor}
+ * is configured (for example a virtual-thread-per-task executor), at most
+ * {@code maxConcurrency} tasks are in flight at any time. Without an executor but with a
+ * {@code maxConcurrency} greater than one, a fixed thread pool is created for the
+ * duration of each {@link #execute(List, Function)} call.
+ *
+ * @see KeywordMetadataEnricher
+ * @see SummaryMetadataEnricher
+ */
+public class EnrichmentExecutor {
+
+	private static final Logger logger = LoggerFactory.getLogger(EnrichmentExecutor.class);
+
+	/**
+	 * Sequential execution on the calling thread, without retries, rethrowing the first
+	 * task error.
+	 */
+	public static final EnrichmentExecutor SEQUENTIAL = builder().build();
+
+	private final Executor executor;
+
+	private final int maxConcurrency;
+
+	private final long permitIntervalNanos;
+
+	private final int maxAttempts;
+
+	private final Duration retryBackoff;
+
+	private final BiConsumer<Object, Throwable> failureHandler;
+
+	private final AtomicLong nextPermitNanos = new AtomicLong(Long.MIN_VALUE);
+
+	private EnrichmentExecutor(Builder builder) {
+		this.executor = builder.executor;
+		this.maxConcurrency = builder.maxConcurrency;
+		this.permitIntervalNanos = (builder.requestsPerSecond > 0)
+				? (long) (TimeUnit.SECONDS.toNanos(1) / builder.requestsPerSecond) : 0;
+		this.maxAttempts = builder.maxAttempts;
+		this.retryBackoff = builder.retryBackoff;
+		this.failureHandler = builder.failureHandler;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * The result of one task: either a value or the error of its last attempt.
+	 */
+	public record Outcome<T>(T value, Throwable error) {
+
+		public boolean isSuccess() {
+			return this.error == null;
+		}
+
+	}
+
+	/**
+	 * Applies the task to every input and returns the outcomes in input order.
+	 * @param inputs the task inputs, e.g. the documents to enrich.
+	 * @param task the task to apply to each input.
+	 * @return one outcome per input, in input order.
+	 */
+	public <I, T> List<Outcome<T>> execute(List<I> inputs, Function<I, T> task) {
+		Assert.notNull(inputs, "Inputs must not be null");
+		Assert.notNull(task, "Task must not be null");
+
+		if (inputs.size() <= 1 || (this.executor == null && this.maxConcurrency == 1)) {
+			List<Outcome<T>> outcomes = new ArrayList<>(inputs.size());
+			for (I input : inputs) {
+				outcomes.add(callWithRetry(input, task));
+			}
+			return outcomes;
+		}
+
+		if (this.executor != null) {
+			return executeConcurrently(inputs, task, this.executor);
+		}
+
+		ExecutorService pool = Executors.newFixedThreadPool(Math.min(this.maxConcurrency, inputs.size()));
+		try {
+			return executeConcurrently(inputs, task, pool);
+		}
+		finally {
+			pool.shutdown();
+		}
+	}
+
+	private <I, T> List<Outcome<T>> executeConcurrently(List<I> inputs, Function<I, T> task, Executor executor) {
+		Semaphore inFlight = new Semaphore(this.maxConcurrency);
+		List<CompletableFuture<Outcome<T>>> futures = new ArrayList<>(inputs.size());
+		try {
+			for (I input : inputs) {
+				inFlight.acquire();
+				futures.add(CompletableFuture.supplyAsync(() -> callWithRetry(input, task), executor)
+					.whenComplete((outcome, error) -> inFlight.release()));
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			futures.forEach(future -> future.cancel(true));
+			throw new IllegalStateException("Interrupted while submitting enrichment tasks", e);
+		}
+
+		List<Outcome<T>> outcomes = new ArrayList<>(futures.size());
+		try {
+			for (CompletableFuture<Outcome<T>> future : futures) {
+				outcomes.add(future.join());
+			}
+		}
+		catch (CompletionException e) {
+			futures.forEach(future -> future.cancel(true));
+			if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			if (e.getCause() instanceof Error error) {
+				throw error;
+			}
+			throw e;
+		}
+		return outcomes;
+	}
+
+	private <I, T> Outcome<T> callWithRetry(I input, Function<I, T> task) {
+		Throwable lastError = null;
+		for (int attempt = 1; attempt <= this.maxAttempts; attempt++) {
+			try {
+				acquirePermit();
+				return new Outcome<>(task.apply(input), null);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				lastError = e;
+				break;
+			}
+			catch (Exception e) {
+				lastError = e;
+				if (attempt < this.maxAttempts) {
+					logger.debug("Enrichment attempt {} of {} failed, retrying", attempt, this.maxAttempts, e);
+					LockSupport.parkNanos(this.retryBackoff.toNanos() << (attempt - 1));
+				}
+			}
+		}
+		this.failureHandler.accept(input, lastError);
+		return new Outcome<>(null, lastError);
+	}
+
+	private static void rethrow(Object input, Throwable error) {
+		if (error instanceof RuntimeException runtimeException) {
+			throw runtimeException;
+		}
+		if (error instanceof Error e) {
+			throw e;
+		}
+		throw new IllegalStateException("Enrichment task failed", error);
+	}
+
+	/**
+	 * Spaces task starts evenly to honour the configured requests per second.
+	 */
+	private void acquirePermit() throws InterruptedException {
+		if (this.permitIntervalNanos == 0) {
+			return;
+		}
+		long now = System.nanoTime();
+		long slot = this.nextPermitNanos.getAndAccumulate(now,
+				(next, current) -> Math.max(next, current) + this.permitIntervalNanos);
+		long wait = Math.max(slot, now) - now;
+		if (wait > 0) {
+			TimeUnit.NANOSECONDS.sleep(wait);
+		}
+	}
+
+	public static class Builder {
+
+		private Executor executor;
+
+		private int maxConcurrency = 1;
+
+		private double requestsPerSecond = 0;
+
+		private int maxAttempts = 1;
+
+		private Duration retryBackoff = Duration.ofMillis(500);
+
+		private BiConsumer<Object, Throwable> failureHandler = EnrichmentExecutor::rethrow;
+
+		private Builder() {
+		}
+
+		/**
+		 * Executor used to run the tasks, e.g. a virtual-thread-per-task executor. If not
+		 * set, tasks run on the calling thread or, when the max concurrency is greater
+		 * than one, on a temporary fixed thread pool.
+		 * @param executor the executor to use.
+		 * @return this builder
+		 */
+		public Builder withExecutor(Executor executor) {
+			this.executor = executor;
+			return this;
+		}
+
+		/**
+		 * Maximum number of tasks in flight at any time.
+		 * @param maxConcurrency max concurrency, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxConcurrency(int maxConcurrency) {
+			Assert.isTrue(maxConcurrency >= 1, "Max concurrency must be >= 1");
+			this.maxConcurrency = maxConcurrency;
+			return this;
+		}
+
+		/**
+		 * Maximum number of task attempts started per second. Zero disables rate
+		 * limiting.
+		 * @param requestsPerSecond the rate limit.
+		 * @return this builder
+		 */
+		public Builder withRequestsPerSecond(double requestsPerSecond) {
+			Assert.isTrue(requestsPerSecond >= 0, "Requests per second must be >= 0");
+			this.requestsPerSecond = requestsPerSecond;
+			return this;
+		}
+
+		/**
+		 * Number of attempts per task, including the first one.
+		 * @param maxAttempts max attempts, must be >= 1.
+		 * @return this builder
+		 */
+		public Builder withMaxAttempts(int maxAttempts) {
+			Assert.isTrue(maxAttempts >= 1, "Max attempts must be >= 1");
+			this.maxAttempts = maxAttempts;
+			return this;
+		}
+
+		/**
+		 * Initial delay between attempts, doubled after every failed attempt.
+		 * @param retryBackoff the initial backoff.
+		 * @return this builder
+		 */
+		public Builder withRetryBackoff(Duration retryBackoff) {
+			Assert.notNull(retryBackoff, "Retry backoff must not be null");
+			this.retryBackoff = retryBackoff;
+			return this;
+		}
+
+		/**
+		 * Callback invoked with the input and the last error of every task that failed
+		 * all its attempts. If it returns normally, the other tasks go on and the error
+		 * is returned in the task {@link Outcome}. Defaults to rethrowing the error.
+		 * @param failureHandler the failure handler.
+		 * @return this builder
+		 */
+		public Builder withFailureHandler(BiConsumer<Object, Throwable> failureHandler) {
+			Assert.notNull(failureHandler, "Failure handler must not be null");
+			this.failureHandler = failureHandler;
+			return this;
+		}
+
+		public EnrichmentExecutor build() {
+			return new EnrichmentExecutor(this);
+		}
+
+	}
+
+}
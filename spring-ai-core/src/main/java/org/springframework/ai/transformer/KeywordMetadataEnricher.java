@@ -22,8 +22,8 @@ import java.util.Map;
 import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentTransformer;
+import org.springframework.ai.chat.prompt.CompiledTemplate;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.util.Assert;
 
 /**
@@ -33,7 +33,7 @@ import org.springframework.util.Assert;
  */
 public class KeywordMetadataEnricher implements DocumentTransformer {
 
-	private static final String EXCERPT_KEYWORDS_METADATA_KEY = "excerpt_keywords";
+	static final String EXCERPT_KEYWORDS_METADATA_KEY = "excerpt_keywords";
 
 	public static final String CONTEXT_STR_PLACEHOLDER = "context_str";
 
@@ -41,6 +41,16 @@ public class KeywordMetadataEnricher implements DocumentTransformer {
 			{context_str}. Give %s unique keywords for this
 			document. Format as comma separated. Keywords: """;
 
+	public static final String SECTIONS_PLACEHOLDER = "sections";
+
+	public static final String FORMAT_PLACEHOLDER = "format";
+
+	public static final String PACKED_KEYWORDS_TEMPLATE = """
+			{sections}
+			Give %s unique keywords for each of the numbered sections above.
+			Format the keywords of each section as comma separated.
+			{format}""";
+
 	/**
 	 * Model predictor
 	 */
@@ -51,24 +61,79 @@ public class KeywordMetadataEnricher implements DocumentTransformer {
 	 */
 	private final int keywordCount;
 
+	/**
+	 * Keywords template with the keyword count applied.
+	 */
+	private final String keywordsTemplate;
+
+	/**
+	 * Executes the per-document model calls.
+	 */
+	private final EnrichmentExecutor enrichmentExecutor;
+
+	/**
+	 * Packs several documents into one prompt, or null to send one prompt per document.
+	 */
+	private final DocumentPacker documentPacker;
+
 	public KeywordMetadataEnricher(ChatClient chatClient, int keywordCount) {
+		this(chatClient, keywordCount, EnrichmentExecutor.SEQUENTIAL);
+	}
+
+	public KeywordMetadataEnricher(ChatClient chatClient, int keywordCount, EnrichmentExecutor enrichmentExecutor) {
+		this(chatClient, keywordCount, enrichmentExecutor, null);
+	}
+
+	public KeywordMetadataEnricher(ChatClient chatClient, int keywordCount, EnrichmentExecutor enrichmentExecutor,
+			DocumentPacker documentPacker) {
 		Assert.notNull(chatClient, "ChatClient must not be null");
 		Assert.isTrue(keywordCount >= 1, "Document count must be >= 1");
+		Assert.notNull(enrichmentExecutor, "EnrichmentExecutor must not be null");
 
 		this.chatClient = chatClient;
 		this.keywordCount = keywordCount;
+		this.keywordsTemplate = String.format(KEYWORDS_TEMPLATE, keywordCount);
+		this.enrichmentExecutor = enrichmentExecutor;
+		this.documentPacker = documentPacker;
 	}
 
+	/**
+	 * Adds the extracted keywords to the documents' metadata. A failed model call is
+	 * passed to the {@link EnrichmentExecutor}'s failure handler, which rethrows it by
+	 * default. With a handler that returns normally, the document is left unchanged.
+	 */
 	@Override
 	public List<Document> apply(List<Document> documents) {
-		for (Document document : documents) {
+		if (this.documentPacker != null) {
+			List<String> keywords = this.documentPacker.execute(documents, Document::getContent,
+					this::extractPackedKeywords, this::extractKeywords, this.enrichmentExecutor);
+			for (int i = 0; i < documents.size(); i++) {
+				if (keywords.get(i) != null) {
+					documents.get(i).getMetadata().put(EXCERPT_KEYWORDS_METADATA_KEY, keywords.get(i));
+				}
+			}
+			return documents;
+		}
 
-			var template = new PromptTemplate(String.format(KEYWORDS_TEMPLATE, keywordCount));
-			Prompt prompt = template.create(Map.of(CONTEXT_STR_PLACEHOLDER, document.getContent()));
-			String keywords = this.chatClient.call(prompt).getResult().getOutput().getContent();
-			document.getMetadata().putAll(Map.of(EXCERPT_KEYWORDS_METADATA_KEY, keywords));
+		var outcomes = this.enrichmentExecutor.execute(documents, this::extractKeywords);
+		for (int i = 0; i < documents.size(); i++) {
+			if (outcomes.get(i).isSuccess()) {
+				documents.get(i).getMetadata().put(EXCERPT_KEYWORDS_METADATA_KEY, outcomes.get(i).value());
+			}
 		}
 		return documents;
 	}
 
+	private String extractPackedKeywords(String sections) {
+		Prompt prompt = new Prompt(CompiledTemplate.compile(String.format(PACKED_KEYWORDS_TEMPLATE, this.keywordCount))
+			.render(Map.of(SECTIONS_PLACEHOLDER, sections, FORMAT_PLACEHOLDER, this.documentPacker.getFormat())));
+		return this.chatClient.call(prompt).getResult().getOutput().getContent();
+	}
+
+	private String extractKeywords(Document document) {
+		Prompt prompt = new Prompt(CompiledTemplate.compile(this.keywordsTemplate)
+			.render(Map.of(CONTEXT_STR_PLACEHOLDER, document.getContent())));
+		return this.chatClient.call(prompt).getResult().getOutput().getContent();
+	}
+
 }
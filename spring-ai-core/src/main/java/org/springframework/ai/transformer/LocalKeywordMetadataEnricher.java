@@ -0,0 +1,171 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentTransformer;
+import org.springframework.util.Assert;
+
+/**
+ * Keyword extractor that fills the same 'excerpt_keywords' metadata field as the
+ * {@link KeywordMetadataEnricher}, but computes the keywords in-process, without any
+ * model call.
+ *
+ * <p>
+ * Terms are scored with TF-IDF over the batch of documents being transformed, weighted
+ * YAKE-style by the position of their first occurrence, so that terms introduced early in
+ * a document rank higher. Documents that are too short to yield reliable keywords can
+ * optionally be delegated to a (model based) {@link KeywordMetadataEnricher}.
+ *
+ * @see LocalSummaryMetadataEnricher
+ */
+public class LocalKeywordMetadataEnricher implements DocumentTransformer {
+
+	public static final int DEFAULT_MIN_WORD_COUNT = 20;
+
+	/**
+	 * The number of keywords to extract.
+	 */
+	private final int keywordCount;
+
+	/**
+	 * Documents with fewer (non stop) words are considered low-confidence.
+	 */
+	private final int minWordCount;
+
+	/**
+	 * Enricher for the low-confidence documents, or null to keep the local keywords.
+	 */
+	private final KeywordMetadataEnricher fallbackEnricher;
+
+	/**
+	 * Executes the per-document analysis.
+	 */
+	private final EnrichmentExecutor enrichmentExecutor;
+
+	public LocalKeywordMetadataEnricher(int keywordCount) {
+		this(keywordCount, null);
+	}
+
+	public LocalKeywordMetadataEnricher(int keywordCount, KeywordMetadataEnricher fallbackEnricher) {
+		this(keywordCount, DEFAULT_MIN_WORD_COUNT, fallbackEnricher,
+				EnrichmentExecutor.builder()
+					.withExecutor(ForkJoinPool.commonPool())
+					.withMaxConcurrency(Runtime.getRuntime().availableProcessors())
+					.build());
+	}
+
+	public LocalKeywordMetadataEnricher(int keywordCount, int minWordCount, KeywordMetadataEnricher fallbackEnricher,
+			EnrichmentExecutor enrichmentExecutor) {
+		Assert.isTrue(keywordCount >= 1, "Keyword count must be >= 1");
+		Assert.isTrue(minWordCount >= 0, "Min word count must be >= 0");
+		Assert.notNull(enrichmentExecutor, "EnrichmentExecutor must not be null");
+
+		this.keywordCount = keywordCount;
+		this.minWordCount = minWordCount;
+		this.fallbackEnricher = fallbackEnricher;
+		this.enrichmentExecutor = enrichmentExecutor;
+	}
+
+	/**
+	 * Term frequencies and first positions of a single document.
+	 */
+	private record TermStatistics(Map<String, int[]> terms, int wordCount) {
+
+		static TermStatistics of(Document document) {
+			List<String> words = TextAnalysis.words(document.getContent());
+			Map<String, int[]> terms = new HashMap<>();
+			for (int position = 0; position < words.size(); position++) {
+				int first = position;
+				terms.computeIfAbsent(words.get(position), word -> new int[] { 0, first })[0]++;
+			}
+			return new TermStatistics(terms, words.size());
+		}
+
+	}
+
+	@Override
+	public List<Document> apply(List<Document> documents) {
+
+		// Failed tasks were reported to the executor's failure handler, their documents
+		// are left unchanged
+		List<TermStatistics> statistics = this.enrichmentExecutor.execute(documents, TermStatistics::of)
+			.stream()
+			.map(outcome -> outcome.isSuccess() ? outcome.value() : null)
+			.toList();
+
+		Map<String, Integer> documentFrequencies = new HashMap<>();
+		for (TermStatistics documentStatistics : statistics) {
+			if (documentStatistics != null) {
+				documentStatistics.terms().keySet().forEach(term -> documentFrequencies.merge(term, 1, Integer::sum));
+			}
+		}
+
+		var keywords = this.enrichmentExecutor.execute(statistics, documentStatistics -> (documentStatistics != null)
+				? keywords(documentStatistics, documentFrequencies, documents.size()) : "");
+
+		List<Document> lowConfidence = new ArrayList<>();
+		for (int i = 0; i < documents.size(); i++) {
+			TermStatistics documentStatistics = statistics.get(i);
+			if (documentStatistics == null) {
+				continue;
+			}
+			boolean confident = documentStatistics.wordCount() >= this.minWordCount
+					&& documentStatistics.terms().size() >= this.keywordCount;
+			if (!confident && this.fallbackEnricher != null) {
+				lowConfidence.add(documents.get(i));
+			}
+			else if (keywords.get(i).isSuccess() && !keywords.get(i).value().isEmpty()) {
+				documents.get(i)
+					.getMetadata()
+					.put(KeywordMetadataEnricher.EXCERPT_KEYWORDS_METADATA_KEY, keywords.get(i).value());
+			}
+		}
+
+		if (!lowConfidence.isEmpty()) {
+			this.fallbackEnricher.apply(lowConfidence);
+		}
+		return documents;
+	}
+
+	private String keywords(TermStatistics statistics, Map<String, Integer> documentFrequencies, int documentCount) {
+		if (statistics.wordCount() == 0) {
+			return "";
+		}
+		Map<String, Double> scores = new HashMap<>(statistics.terms().size());
+		statistics.terms().forEach((term, stats) -> {
+			double tf = (double) stats[0] / statistics.wordCount();
+			double idf = Math.log((1.0 + documentCount) / (1.0 + documentFrequencies.get(term))) + 1.0;
+			double positionWeight = 1.0 + Math.log(Math.log(3.0 + stats[1]));
+			scores.put(term, tf * idf / positionWeight);
+		});
+		return scores.entrySet()
+			.stream()
+			.sorted(Map.Entry.<String, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+			.limit(this.keywordCount)
+			.map(Map.Entry::getKey)
+			.collect(Collectors.joining(", "));
+	}
+
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentTransformer;
+import org.springframework.ai.transformer.SummaryMetadataEnricher.SummaryType;
+import org.springframework.util.Assert;
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Summary extractor that fills the same 'section_summary', 'prev_section_summary' and
+ * 'next_section_summary' metadata fields as the {@link SummaryMetadataEnricher}, but
+ * computes extractive summaries in-process, without any model call.
+ *
+ * <p>
+ * Sentences are ranked with TextRank: a sentence similarity graph based on shared words
+ * is scored with PageRank, and the top ranked sentences are returned in their original
+ * order. Documents with too few sentences to rank can optionally be summarized by a
+ * (model based) {@link SummaryMetadataEnricher}.
+ *
+ * @see LocalKeywordMetadataEnricher
+ */
+public class LocalSummaryMetadataEnricher implements DocumentTransformer {
+
+	public static final int DEFAULT_SENTENCE_COUNT = 3;
+
+	public static final int DEFAULT_MIN_SENTENCE_COUNT = 2;
+
+	/**
+	 * Only the leading sentences of very long documents are ranked, as TextRank is
+	 * quadratic in the number of sentences.
+	 */
+	private static final int MAX_RANKED_SENTENCES = 200;
+
+	private static final double DAMPING_FACTOR = 0.85;
+
+	private static final int MAX_ITERATIONS = 50;
+
+	private static final double CONVERGENCE_THRESHOLD = 1e-4;
+
+	private final List<SummaryType> summaryTypes;
+
+	/**
+	 * Number of sentences in each summary.
+	 */
+	private final int sentenceCount;
+
+	/**
+	 * Documents with fewer sentences are considered low-confidence.
+	 */
+	private final int minSentenceCount;
+
+	private final Locale locale;
+
+	/**
+	 * Enricher for the low-confidence documents, or null to keep the local summaries.
+	 */
+	private final SummaryMetadataEnricher fallbackEnricher;
+
+	/**
+	 * Executes the per-document analysis.
+	 */
+	private final EnrichmentExecutor enrichmentExecutor;
+
+	public LocalSummaryMetadataEnricher(List<SummaryType> summaryTypes) {
+		this(summaryTypes, null);
+	}
+
+	public LocalSummaryMetadataEnricher(List<SummaryType> summaryTypes, SummaryMetadataEnricher fallbackEnricher) {
+		this(summaryTypes, DEFAULT_SENTENCE_COUNT, DEFAULT_MIN_SENTENCE_COUNT, Locale.ENGLISH, fallbackEnricher,
+				EnrichmentExecutor.builder()
+					.withExecutor(ForkJoinPool.commonPool())
+					.withMaxConcurrency(Runtime.getRuntime().availableProcessors())
+					.build());
+	}
+
+	public LocalSummaryMetadataEnricher(List<SummaryType> summaryTypes, int sentenceCount, int minSentenceCount,
+			Locale locale, SummaryMetadataEnricher fallbackEnricher, EnrichmentExecutor enrichmentExecutor) {
+		Assert.isTrue(sentenceCount >= 1, "Sentence count must be >= 1");
+		Assert.isTrue(minSentenceCount >= 0, "Min sentence count must be >= 0");
+		Assert.notNull(locale, "Locale must not be null");
+		Assert.notNull(enrichmentExecutor, "EnrichmentExecutor must not be null");
+
+		this.summaryTypes = CollectionUtils.isEmpty(summaryTypes) ? List.of(SummaryType.CURRENT) : summaryTypes;
+		this.sentenceCount = sentenceCount;
+		this.minSentenceCount = minSentenceCount;
+		this.locale = locale;
+		this.fallbackEnricher = fallbackEnricher;
+		this.enrichmentExecutor = enrichmentExecutor;
+	}
+
+	@Override
+	public List<Document> apply(List<Document> documents) {
+
+		var sentences = this.enrichmentExecutor.execute(documents,
+				document -> TextAnalysis.sentences(document.getContent(), this.locale));
+
+		// Failed tasks were reported to the executor's failure handler, their documents
+		// get no summary
+		List<String> summaries = new ArrayList<>(
+				this.enrichmentExecutor
+					.execute(sentences,
+							documentSentences -> documentSentences.isSuccess() ? summarize(documentSentences.value())
+									: null)
+					.stream()
+					.map(outcome -> outcome.isSuccess() ? outcome.value() : null)
+					.toList());
+
+		if (this.fallbackEnricher != null) {
+			List<Integer> lowConfidence = IntStream.range(0, documents.size())
+				.filter(i -> sentences.get(i).isSuccess() && sentences.get(i).value().size() < this.minSentenceCount)
+				.boxed()
+				.toList();
+			if (!lowConfidence.isEmpty()) {
+				List<String> fallbackSummaries = this.fallbackEnricher
+					.summarize(lowConfidence.stream().map(documents::get).toList());
+				for (int i = 0; i < lowConfidence.size(); i++) {
+					summaries.set(lowConfidence.get(i), fallbackSummaries.get(i));
+				}
+			}
+		}
+
+		SummaryMetadataEnricher.linkSummaries(documents, summaries, this.summaryTypes);
+		return documents;
+	}
+
+	private String summarize(List<String> sentences) {
+		if (sentences.size() <= this.sentenceCount) {
+			return String.join(" ", sentences);
+		}
+		List<String> ranked = sentences.subList(0, Math.min(sentences.size(), MAX_RANKED_SENTENCES));
+		double[] scores = textRank(ranked);
+
+		return IntStream.range(0, ranked.size())
+			.boxed()
+			.sorted((a, b) -> Double.compare(scores[b], scores[a]))
+			.limit(this.sentenceCount)
+			.sorted()
+			.map(ranked::get)
+			.collect(Collectors.joining(" "));
+	}
+
+	private static double[] textRank(List<String> sentences) {
+		int n = sentences.size();
+		List<Set<String>> words = sentences.stream()
+			.map(sentence -> (Set<String>) new HashSet<>(TextAnalysis.words(sentence)))
+			.toList();
+
+		double[][] weights = new double[n][n];
+		double[] outWeights = new double[n];
+		for (int i = 0; i < n; i++) {
+			for (int j = i + 1; j < n; j++) {
+				double similarity = similarity(words.get(i), words.get(j));
+				weights[i][j] = similarity;
+				weights[j][i] = similarity;
+				outWeights[i] += similarity;
+				outWeights[j] += similarity;
+			}
+		}
+
+		double[] scores = new double[n];
+		Arrays.fill(scores, 1.0 / n);
+		for (int iteration = 0; iteration < MAX_ITERATIONS; iteration++) {
+			double[] next = new double[n];
+			double delta = 0;
+			for (int i = 0; i < n; i++) {
+				double rank = 0;
+				for (int j = 0; j < n; j++) {
+					if (weights[j][i] > 0) {
+						rank += weights[j][i] / outWeights[j] * scores[j];
+					}
+				}
+				next[i] = (1 - DAMPING_FACTOR) / n + DAMPING_FACTOR * rank;
+				delta += Math.abs(next[i] - scores[i]);
+			}
+			scores = next;
+			if (delta < CONVERGENCE_THRESHOLD) {
+				break;
+			}
+		}
+		return scores;
+	}
+
+	private static double similarity(Set<String> words1, Set<String> words2) {
+		if (words1.size() < 2 || words2.size() < 2) {
+			return 0;
+		}
+		int overlap = 0;
+		for (String word : words1) {
+			if (words2.contains(word)) {
+				overlap++;
+			}
+		}
+		return overlap / (Math.log(words1.size()) + Math.log(words2.size()));
+	}
+
+}
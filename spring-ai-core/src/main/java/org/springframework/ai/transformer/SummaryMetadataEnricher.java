@@ -25,8 +25,8 @@ import org.springframework.ai.chat.ChatClient;
 import org.springframework.ai.document.Document;
 import org.springframework.ai.document.DocumentTransformer;
 import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.chat.prompt.CompiledTemplate;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.ai.chat.prompt.PromptTemplate;
 import org.springframework.util.Assert;
 import org.springframework.util.CollectionUtils;
 
@@ -38,11 +38,11 @@ import org.springframework.util.CollectionUtils;
  */
 public class SummaryMetadataEnricher implements DocumentTransformer {
 
-	private static final String SECTION_SUMMARY_METADATA_KEY = "section_summary";
+	static final String SECTION_SUMMARY_METADATA_KEY = "section_summary";
 
-	private static final String NEXT_SECTION_SUMMARY_METADATA_KEY = "next_section_summary";
+	static final String NEXT_SECTION_SUMMARY_METADATA_KEY = "next_section_summary";
 
-	private static final String PREV_SECTION_SUMMARY_METADATA_KEY = "prev_section_summary";
+	static final String PREV_SECTION_SUMMARY_METADATA_KEY = "prev_section_summary";
 
 	private static final String CONTEXT_STR_PLACEHOLDER = "context_str";
 
@@ -54,6 +54,16 @@ public class SummaryMetadataEnricher implements DocumentTransformer {
 
 			Summary: """;
 
+	private static final String SECTIONS_PLACEHOLDER = "sections";
+
+	private static final String FORMAT_PLACEHOLDER = "format";
+
+	public static final String DEFAULT_PACKED_SUMMARY_EXTRACT_TEMPLATE = """
+			Here are the contents of several numbered sections:
+			{sections}
+			Summarize the key topics and entities of each section.
+			{format}""";
+
 	public enum SummaryType {
 
 		PREVIOUS, CURRENT, NEXT;
@@ -77,50 +87,119 @@ public class SummaryMetadataEnricher implements DocumentTransformer {
 	 */
 	private final String summaryTemplate;
 
+	/**
+	 * Executes the per-document model calls.
+	 */
+	private final EnrichmentExecutor enrichmentExecutor;
+
+	/**
+	 * Packs several documents into one prompt, or null to send one prompt per document.
+	 */
+	private final DocumentPacker documentPacker;
+
 	public SummaryMetadataEnricher(ChatClient chatClient, List<SummaryType> summaryTypes) {
 		this(chatClient, summaryTypes, DEFAULT_SUMMARY_EXTRACT_TEMPLATE, MetadataMode.ALL);
 	}
 
 	public SummaryMetadataEnricher(ChatClient chatClient, List<SummaryType> summaryTypes, String summaryTemplate,
 			MetadataMode metadataMode) {
+		this(chatClient, summaryTypes, summaryTemplate, metadataMode, EnrichmentExecutor.SEQUENTIAL);
+	}
+
+	public SummaryMetadataEnricher(ChatClient chatClient, List<SummaryType> summaryTypes, String summaryTemplate,
+			MetadataMode metadataMode, EnrichmentExecutor enrichmentExecutor) {
+		this(chatClient, summaryTypes, summaryTemplate, metadataMode, enrichmentExecutor, null);
+	}
+
+	/**
+	 * Creates an enricher that packs several documents into one summary prompt, using the
+	 * {@link #DEFAULT_PACKED_SUMMARY_EXTRACT_TEMPLATE}. The summary template is only used
+	 * for the single-document fallback calls.
+	 */
+	public SummaryMetadataEnricher(ChatClient chatClient, List<SummaryType> summaryTypes, String summaryTemplate,
+			MetadataMode metadataMode, EnrichmentExecutor enrichmentExecutor, DocumentPacker documentPacker) {
 		Assert.notNull(chatClient, "ChatClient must not be null");
 		Assert.hasText(summaryTemplate, "Summary template must not be empty");
+		Assert.notNull(enrichmentExecutor, "EnrichmentExecutor must not be null");
 
 		this.chatClient = chatClient;
 		this.summaryTypes = CollectionUtils.isEmpty(summaryTypes) ? List.of(SummaryType.CURRENT) : summaryTypes;
 		this.metadataMode = metadataMode;
 		this.summaryTemplate = summaryTemplate;
+		this.enrichmentExecutor = enrichmentExecutor;
+		this.documentPacker = documentPacker;
 	}
 
+	/**
+	 * Adds the section summaries to the documents' metadata. The summaries are computed
+	 * first, possibly concurrently, and then linked to the previous and next documents in
+	 * list order. A failed summary is left out of both its own document and its
+	 * neighbours.
+	 */
 	@Override
 	public List<Document> apply(List<Document> documents) {
+		linkSummaries(documents, summarize(documents), this.summaryTypes);
+		return documents;
+	}
 
-		List<String> documentSummaries = new ArrayList<>();
-		for (Document document : documents) {
-
-			var documentContext = document.getFormattedContent(this.metadataMode);
-
-			Prompt prompt = new PromptTemplate(this.summaryTemplate)
-				.create(Map.of(CONTEXT_STR_PLACEHOLDER, documentContext));
-			documentSummaries.add(this.chatClient.call(prompt).getResult().getOutput().getContent());
+	/**
+	 * Computes the summaries of the documents without modifying them.
+	 * @param documents the documents to summarize.
+	 * @return one summary per document, in document order, {@code null} for failed
+	 * documents.
+	 */
+	List<String> summarize(List<Document> documents) {
+		if (this.documentPacker != null) {
+			return this.documentPacker.execute(documents, document -> document.getFormattedContent(this.metadataMode),
+					this::summarizePacked, this::summarizeDocument, this.enrichmentExecutor);
+		}
+		var outcomes = this.enrichmentExecutor.execute(documents, this::summarizeDocument);
+		List<String> documentSummaries = new ArrayList<>(outcomes.size());
+		for (var outcome : outcomes) {
+			documentSummaries.add(outcome.value());
 		}
+		return documentSummaries;
+	}
 
+	/**
+	 * Adds the summaries of the requested types to the documents' metadata.
+	 */
+	static void linkSummaries(List<Document> documents, List<String> documentSummaries,
+			List<SummaryType> summaryTypes) {
 		for (int i = 0; i < documentSummaries.size(); i++) {
 			Map<String, Object> summaryMetadata = new HashMap<>();
-			if (i > 0 && this.summaryTypes.contains(SummaryType.PREVIOUS)) {
-				summaryMetadata.put(PREV_SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i - 1));
+			if (i > 0 && summaryTypes.contains(SummaryType.PREVIOUS)) {
+				putIfPresent(summaryMetadata, PREV_SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i - 1));
 			}
-			if (i < (documentSummaries.size() - 1) && this.summaryTypes.contains(SummaryType.NEXT)) {
-				summaryMetadata.put(NEXT_SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i + 1));
+			if (i < (documentSummaries.size() - 1) && summaryTypes.contains(SummaryType.NEXT)) {
+				putIfPresent(summaryMetadata, NEXT_SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i + 1));
 			}
-			if (this.summaryTypes.contains(SummaryType.CURRENT)) {
-				summaryMetadata.put(SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i));
+			if (summaryTypes.contains(SummaryType.CURRENT)) {
+				putIfPresent(summaryMetadata, SECTION_SUMMARY_METADATA_KEY, documentSummaries.get(i));
 			}
 
 			documents.get(i).getMetadata().putAll(summaryMetadata);
 		}
+	}
 
-		return documents;
+	private String summarizeDocument(Document document) {
+		var documentContext = document.getFormattedContent(this.metadataMode);
+
+		Prompt prompt = new Prompt(CompiledTemplate.compile(this.summaryTemplate)
+			.render(Map.of(CONTEXT_STR_PLACEHOLDER, documentContext)));
+		return this.chatClient.call(prompt).getResult().getOutput().getContent();
+	}
+
+	private String summarizePacked(String sections) {
+		Prompt prompt = new Prompt(CompiledTemplate.compile(DEFAULT_PACKED_SUMMARY_EXTRACT_TEMPLATE)
+			.render(Map.of(SECTIONS_PLACEHOLDER, sections, FORMAT_PLACEHOLDER, this.documentPacker.getFormat())));
+		return this.chatClient.call(prompt).getResult().getOutput().getContent();
+	}
+
+	private static void putIfPresent(Map<String, Object> metadata, String key, String summary) {
+		if (summary != null) {
+			metadata.put(key, summary);
+		}
 	}
 
 }
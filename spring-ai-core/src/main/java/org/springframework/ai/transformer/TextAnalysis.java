@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.text.BreakIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Minimal, dependency free text analysis shared by the local (LLM-free) enrichers.
+ */
+final class TextAnalysis {
+
+	static final Set<String> STOP_WORDS = Set.of("a", "about", "above", "after", "again", "against", "all", "also",
+			"am", "an", "and", "any", "are", "as", "at", "be", "because", "been", "before", "being", "below", "between",
+			"both", "but", "by", "can", "could", "did", "do", "does", "doing", "down", "during", "each", "few", "for",
+			"from", "further", "had", "has", "have", "having", "he", "her", "here", "hers", "herself", "him", "himself",
+			"his", "how", "i", "if", "in", "into", "is", "it", "its", "itself", "just", "may", "me", "might", "more",
+			"most", "must", "my", "myself", "no", "nor", "not", "now", "of", "off", "on", "once", "only", "or", "other",
+			"our", "ours", "ourselves", "out", "over", "own", "same", "shall", "she", "should", "so", "some", "such",
+			"than", "that", "the", "their", "theirs", "them", "themselves", "then", "there", "these", "they", "this",
+			"those", "through", "to", "too", "under", "until", "up", "upon", "us", "very", "was", "we", "were", "what",
+			"when", "where", "which", "while", "who", "whom", "why", "will", "with", "would", "you", "your", "yours",
+			"yourself", "yourselves");
+
+	private TextAnalysis() {
+	}
+
+	/**
+	 * Splits the text into lower case words of letters and digits, dropping stop words
+	 * and single characters.
+	 */
+	static List<String> words(String text) {
+		List<String> words = new ArrayList<>();
+		int start = -1;
+		for (int i = 0; i <= text.length(); i++) {
+			boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+			if (wordChar && start < 0) {
+				start = i;
+			}
+			else if (!wordChar && start >= 0) {
+				if (i - start > 1) {
+					String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+					if (!STOP_WORDS.contains(word)) {
+						words.add(word);
+					}
+				}
+				start = -1;
+			}
+		}
+		return words;
+	}
+
+	/**
+	 * Splits the text into trimmed, non blank sentences.
+	 */
+	static List<String> sentences(String text, Locale locale) {
+		BreakIterator iterator = BreakIterator.getSentenceInstance(locale);
+		iterator.setText(text);
+		List<String> sentences = new ArrayList<>();
+		int start = iterator.first();
+		for (int end = iterator.next(); end != BreakIterator.DONE; start = end, end = iterator.next()) {
+			String sentence = text.substring(start, end).trim();
+			if (!sentence.isEmpty()) {
+				sentences.add(sentence);
+			}
+		}
+		return sentences;
+	}
+
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.writer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentWriter;
+import org.springframework.util.Assert;
+
+/**
+ * Writes complete {@link Document}s (id, content, metadata and embedding) to a local
+ * checkpoint file, so that a pipeline stage can be replayed later with the
+ * {@link org.springframework.ai.reader.CheckpointDocumentReader}.
+ *
+ * <p>
+ * Each {@link #accept(List)} call encodes the batch on the calling thread and hands the
+ * bytes to a background thread, which writes them through a large buffer (and optional
+ * GZIP compression) to a {@link FileChannel}. At most {@code maxPendingBatches} batches
+ * are queued before {@code accept} blocks. Write failures are rethrown by the next call
+ * to {@code accept}, {@link #flush()} or {@link #close()}. The writer must be closed to
+ * guarantee that all documents reach the file.
+ *
+ * @see CheckpointFormat
+ */
+public class CheckpointDocumentWriter implements DocumentWriter, AutoCloseable {
+
+	public static final int DEFAULT_MAX_PENDING_BATCHES = 16;
+
+	private final CheckpointFormat format;
+
+	private final OutputStream out;
+
+	private final ExecutorService writerThread;
+
+	private final Semaphore pendingBatches;
+
+	private volatile Throwable failure;
+
+	private boolean closed;
+
+	public CheckpointDocumentWriter(Path path) {
+		this(path, CheckpointFormat.JSON_LINES, false, false);
+	}
+
+	public CheckpointDocumentWriter(Path path, CheckpointFormat format) {
+		this(path, format, false, false);
+	}
+
+	/**
+	 * Creates a checkpoint writer.
+	 * @param path the file to write to.
+	 * @param format the record format.
+	 * @param compress whether to GZIP compress the file.
+	 * @param append if {@code true}, documents are appended to an existing file. Appended
+	 * compressed batches form a multi-member GZIP file, which the reader handles.
+	 */
+	public CheckpointDocumentWriter(Path path, CheckpointFormat format, boolean compress, boolean append) {
+		this(path, format, compress, append, DEFAULT_MAX_PENDING_BATCHES);
+	}
+
+	public CheckpointDocumentWriter(Path path, CheckpointFormat format, boolean compress, boolean append,
+			int maxPendingBatches) {
+		Assert.notNull(path, "Path must not be null");
+		Assert.notNull(format, "Format must not be null");
+		Assert.isTrue(maxPendingBatches >= 1, "Max pending batches must be >= 1");
+
+		this.format = format;
+		this.pendingBatches = new Semaphore(maxPendingBatches);
+		try {
+			FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+					append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING);
+			OutputStream channelOut = Channels.newOutputStream(channel);
+			this.out = compress
+					? new GZIPOutputStream(new BufferedOutputStream(channelOut, CheckpointFormat.BUFFER_SIZE),
+							CheckpointFormat.BUFFER_SIZE)
+					: new BufferedOutputStream(channelOut, CheckpointFormat.BUFFER_SIZE);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to open checkpoint file " + path, e);
+		}
+		this.writerThread = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "checkpoint-writer-" + path.getFileName());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	@Override
+	public void accept(List<Document> documents) {
+		Assert.state(!this.closed, "Checkpoint writer is closed");
+		checkFailure();
+
+		ByteArrayOutputStream batch = new ByteArrayOutputStream(8192);
+		DataOutputStream batchOut = new DataOutputStream(batch);
+		try {
+			for (Document document : documents) {
+				this.format.write(document, batchOut);
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		try {
+			this.pendingBatches.acquire();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for the checkpoint writer", e);
+		}
+		this.writerThread.execute(() -> {
+			try {
+				if (this.failure == null) {
+					batch.writeTo(this.out);
+				}
+			}
+			catch (Throwable e) {
+				this.failure = e;
+			}
+			finally {
+				this.pendingBatches.release();
+			}
+		});
+	}
+
+	/**
+	 * Waits until all accepted batches are written and flushes the buffers. For
+	 * compressed files the data reaches the disk only on {@link #close()}.
+	 */
+	public void flush() {
+		Assert.state(!this.closed, "Checkpoint writer is closed");
+		try {
+			this.writerThread.submit(() -> {
+				this.out.flush();
+				return null;
+			}).get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while flushing the checkpoint writer", e);
+		}
+		catch (ExecutionException e) {
+			this.failure = e.getCause();
+		}
+		checkFailure();
+	}
+
+	@Override
+	public void close() {
+		if (this.closed) {
+			return;
+		}
+		try {
+			this.writerThread.submit(() -> {
+				this.out.close();
+				return null;
+			}).get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while closing the checkpoint writer", e);
+		}
+		catch (ExecutionException e) {
+			if (this.failure == null) {
+				this.failure = e.getCause();
+			}
+		}
+		finally {
+			this.closed = true;
+			this.writerThread.shutdown();
+		}
+		checkFailure();
+	}
+
+	private void checkFailure() {
+		Throwable error = this.failure;
+		if (error instanceof IOException ioException) {
+			throw new UncheckedIOException("Failed to write checkpoint", ioException);
+		}
+		if (error != null) {
+			throw new IllegalStateException("Failed to write checkpoint", error);
+		}
+	}
+
+}
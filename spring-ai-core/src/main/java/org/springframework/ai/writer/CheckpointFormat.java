@@ -0,0 +1,229 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.writer;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import org.springframework.ai.document.Document;
+
+/**
+ * Record formats of the pipeline checkpoint files written by the
+ * {@link CheckpointDocumentWriter} and read back by the
+ * {@link org.springframework.ai.reader.CheckpointDocumentReader}. Unlike the
+ * {@link FileDocumentWriter}, both formats keep the document id, metadata and embedding.
+ */
+public enum CheckpointFormat {
+
+	/**
+	 * One JSON object per line, with {@code id}, {@code content}, {@code metadata} and
+	 * {@code embedding} fields.
+	 */
+	JSON_LINES {
+
+		@Override
+		public void write(Document document, OutputStream out) throws IOException {
+			try (JsonGenerator generator = OBJECT_MAPPER.getFactory().createGenerator(out)) {
+				generator.writeStartObject();
+				generator.writeStringField(ID_FIELD, document.getId());
+				generator.writeStringField(CONTENT_FIELD, document.getContent());
+				generator.writeFieldName(METADATA_FIELD);
+				OBJECT_MAPPER.writeValue(generator, document.getMetadata());
+				generator.writeArrayFieldStart(EMBEDDING_FIELD);
+				for (Double value : document.getEmbedding()) {
+					generator.writeNumber(value);
+				}
+				generator.writeEndArray();
+				generator.writeEndObject();
+			}
+			out.write('\n');
+		}
+
+		@Override
+		public RecordIterator reader(InputStream in) {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), BUFFER_SIZE);
+			return () -> {
+				String line;
+				do {
+					line = reader.readLine();
+					if (line == null) {
+						return null;
+					}
+				}
+				while (line.isBlank());
+				Map<String, Object> record = OBJECT_MAPPER.readValue(line, RECORD_TYPE);
+				@SuppressWarnings("unchecked")
+				Map<String, Object> metadata = (Map<String, Object>) record.get(METADATA_FIELD);
+				Document document = new Document((String) record.get(ID_FIELD), (String) record.get(CONTENT_FIELD),
+						(metadata != null) ? metadata : new HashMap<>());
+				@SuppressWarnings("unchecked")
+				List<Number> embedding = (List<Number>) record.get(EMBEDDING_FIELD);
+				if (embedding != null && !embedding.isEmpty()) {
+					List<Double> values = new ArrayList<>(embedding.size());
+					embedding.forEach(value -> values.add(value.doubleValue()));
+					document.setEmbedding(values);
+				}
+				return document;
+			};
+		}
+
+	},
+
+	/**
+	 * Compact length-prefixed binary records. Strings are UTF-8 encoded, the metadata is
+	 * stored as UTF-8 JSON and the embedding as raw IEEE 754 doubles.
+	 */
+	BINARY {
+
+		@Override
+		public void write(Document document, OutputStream out) throws IOException {
+			DataOutputStream data = (out instanceof DataOutputStream dataOut) ? dataOut : new DataOutputStream(out);
+			data.writeByte(RECORD_MARKER);
+			writeBytes(data, document.getId().getBytes(StandardCharsets.UTF_8));
+			writeBytes(data, document.getContent().getBytes(StandardCharsets.UTF_8));
+			writeBytes(data, OBJECT_MAPPER.writeValueAsBytes(document.getMetadata()));
+			List<Double> embedding = document.getEmbedding();
+			data.writeInt(embedding.size());
+			for (Double value : embedding) {
+				data.writeDouble(value);
+			}
+		}
+
+		@Override
+		public RecordIterator reader(InputStream in) {
+			DataInputStream data = new DataInputStream(in);
+			return () -> {
+				int marker = data.read();
+				if (marker < 0) {
+					return null;
+				}
+				if (marker != RECORD_MARKER) {
+					throw new IOException("Corrupt checkpoint record, unexpected marker: " + marker);
+				}
+				String id = new String(readBytes(data), StandardCharsets.UTF_8);
+				String content = new String(readBytes(data), StandardCharsets.UTF_8);
+				Map<String, Object> metadata = OBJECT_MAPPER.readValue(readBytes(data), RECORD_TYPE);
+				Document document = new Document(id, content, metadata);
+				int dimensions = data.readInt();
+				if (dimensions > 0) {
+					List<Double> embedding = new ArrayList<>(dimensions);
+					for (int i = 0; i < dimensions; i++) {
+						embedding.add(data.readDouble());
+					}
+					document.setEmbedding(embedding);
+				}
+				return document;
+			};
+		}
+
+	};
+
+	static final int BUFFER_SIZE = 1 << 20;
+
+	private static final int RECORD_MARKER = 0xD0;
+
+	private static final String ID_FIELD = "id";
+
+	private static final String CONTENT_FIELD = "content";
+
+	private static final String METADATA_FIELD = "metadata";
+
+	private static final String EMBEDDING_FIELD = "embedding";
+
+	private static final TypeReference<Map<String, Object>> RECORD_TYPE = new TypeReference<>() {
+	};
+
+	private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+		.disable(SerializationFeature.FAIL_ON_EMPTY_BEANS)
+		.disable(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+		.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false)
+		.configure(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM, false);
+
+	/**
+	 * Writes a single document record.
+	 * @param document the document to write.
+	 * @param out the target stream, left open.
+	 * @throws IOException on write failure.
+	 */
+	public abstract void write(Document document, OutputStream out) throws IOException;
+
+	/**
+	 * Creates an iterator of the records of the stream.
+	 * @param in the source stream.
+	 * @return the record iterator.
+	 */
+	public abstract RecordIterator reader(InputStream in);
+
+	private static void writeBytes(DataOutputStream data, byte[] bytes) throws IOException {
+		data.writeInt(bytes.length);
+		data.write(bytes);
+	}
+
+	private static byte[] readBytes(DataInputStream data) throws IOException {
+		int length = data.readInt();
+		if (length < 0) {
+			throw new EOFException("Corrupt checkpoint record, negative length: " + length);
+		}
+		byte[] bytes = new byte[length];
+		data.readFully(bytes);
+		return bytes;
+	}
+
+	/**
+	 * Pull based record iterator.
+	 */
+	@FunctionalInterface
+	public interface RecordIterator {
+
+		/**
+		 * {@return the next document, or {@code null} at the end of the stream}
+		 * @throws IOException on read failure or corrupt input.
+		 */
+		Document next() throws IOException;
+
+		/**
+		 * Same as {@link #next()}, wrapping {@link IOException}s.
+		 */
+		default Document nextUnchecked() {
+			try {
+				return next();
+			}
+			catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.ai.writer;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.util.List;
 
@@ -25,7 +26,9 @@ import org.springframework.ai.document.MetadataMode;
 import org.springframework.util.Assert;
 
 /**
- * Writes the content of a list of {@link Document}s into a file.
+ * Writes the content of a list of {@link Document}s into a file. Only the formatted
+ * content is written; use the {@link CheckpointDocumentWriter} to persist complete
+ * documents, including ids, metadata and embeddings.
  *
  * @author Christian Tzolov
  */
@@ -35,6 +38,8 @@ public class FileDocumentWriter implements DocumentWriter {
 
 	public static final String METADATA_END_PAGE_NUMBER = "end_page_number";
 
+	private static final int BUFFER_SIZE = 64 * 1024;
+
 	private final String fileName;
 
 	private final boolean withDocumentMarkers;
@@ -73,7 +78,7 @@ public class FileDocumentWriter implements DocumentWriter {
 	@Override
 	public void accept(List<Document> docs) {
 
-		try (var writer = new FileWriter(this.fileName, this.append)) {
+		try (var writer = new BufferedWriter(new FileWriter(this.fileName, this.append), BUFFER_SIZE)) {
 
 			int index = 0;
 			for (Document doc : docs) {
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.chat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.chat.CachingChatClient.Stats;
+import org.springframework.ai.chat.messages.SystemMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.ai.chat.prompt.ChatOptionsBuilder;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.embedding.EmbeddingClient;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.vectorstore.SimpleVectorStore;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @see CachingChatClient
+ */
+public class CachingChatClientTests {
+
+	private final TestChatClient model = new TestChatClient();
+
+	@Test
+	void repeatedPromptIsAnsweredFromTheExactTier() {
+		CachingChatClient client = CachingChatClient.builder(this.model).build();
+
+		assertThat(client.call("What is the capital of France?")).isEqualTo("Answer 1");
+		assertThat(client.call("What is the capital of France?")).isEqualTo("Answer 1");
+		assertThat(content(client.call(new Prompt("What is the capital of France?",
+				ChatOptionsBuilder.builder().withTemperature(0.2f).build()))))
+			.isEqualTo("Answer 2");
+		assertThat(content(client.call(
+				new Prompt(List.of(new SystemMessage("Be brief"), new UserMessage("What is the capital of France?"))))))
+			.isEqualTo("Answer 3");
+
+		assertThat(client.getStats()).isEqualTo(new Stats(1, 0, 3, 3));
+	}
+
+	@Test
+	void tenantsDoNotShareEntries() {
+		ThreadLocal<String> tenant = ThreadLocal.withInitial(() -> "acme");
+		CachingChatClient client = CachingChatClient.builder(this.model)
+			.withTenantResolver(prompt -> tenant.get())
+			.build();
+
+		assertThat(client.call("Hello")).isEqualTo("Answer 1");
+		tenant.set("globex");
+		assertThat(client.call("Hello")).isEqualTo("Answer 2");
+		tenant.set("acme");
+		assertThat(client.call("Hello")).isEqualTo("Answer 1");
+	}
+
+	@Test
+	void entriesExpire() throws InterruptedException {
+		CachingChatClient client = CachingChatClient.builder(this.model).withTtl(Duration.ofMillis(50)).build();
+
+		assertThat(client.call("Hello")).isEqualTo("Answer 1");
+		Thread.sleep(100);
+		assertThat(client.call("Hello")).isEqualTo("Answer 2");
+	}
+
+	@Test
+	void similarQuestionIsAnsweredFromTheSemanticTier() {
+		CachingChatClient client = CachingChatClient.builder(this.model)
+			.withSemanticCache(new SimpleVectorStore(new LetterEmbeddingClient()), 0.99)
+			.build();
+
+		assertThat(client.call("What is the capital of France?")).isEqualTo("Answer 1");
+		assertThat(client.call("what is the capital of france")).isEqualTo("Answer 1");
+		assertThat(client.call("How tall is Mount Everest?")).isEqualTo("Answer 2");
+		assertThat(content(client.call(
+				new Prompt(List.of(new SystemMessage("Be brief"), new UserMessage("what is the capital of france"))))))
+			.isEqualTo("Answer 3");
+
+		assertThat(client.getStats()).isEqualTo(new Stats(0, 1, 3, 4));
+	}
+
+	@Test
+	void streamedResponseIsReplayed() {
+		CachingChatClient client = CachingChatClient.builder(this.model).build();
+
+		List<ChatResponse> first = client.stream(new Prompt("Hello")).collectList().block();
+		List<ChatResponse> second = client.stream(new Prompt("Hello")).collectList().block();
+
+		assertThat(second).isEqualTo(first).hasSize(2);
+		assertThat(client.call("Hello")).isEqualTo("Answer 1");
+		assertThat(this.model.calls.get()).isEqualTo(1);
+	}
+
+	@Test
+	void calledResponseIsStreamedAsOneChunk() {
+		CachingChatClient client = CachingChatClient.builder(this.model).build();
+
+		assertThat(client.call("Hello")).isEqualTo("Answer 1");
+		List<ChatResponse> chunks = client.stream(new Prompt("Hello")).collectList().block();
+
+		assertThat(chunks).hasSize(1);
+		assertThat(content(chunks.get(0))).isEqualTo("Answer 1");
+	}
+
+	@Test
+	void promptWithUnserializableOptionsIsNotCached() {
+		CachingChatClient client = CachingChatClient.builder(this.model).build();
+		Prompt prompt = new Prompt("Hello", new UnserializableOptions());
+
+		assertThat(content(client.call(prompt))).isEqualTo("Answer 1");
+		assertThat(content(client.call(prompt))).isEqualTo("Answer 2");
+	}
+
+	@Test
+	void failedDeletionOfExpiredSemanticEntriesIsIgnored() throws InterruptedException {
+		SimpleVectorStore vectorStore = new SimpleVectorStore(new LetterEmbeddingClient()) {
+
+			@Override
+			public Optional<Boolean> delete(List<String> idList) {
+				throw new IllegalStateException("Vector store unavailable");
+			}
+
+		};
+		CachingChatClient client = CachingChatClient.builder(this.model)
+			.withTtl(Duration.ofMillis(50))
+			.withSemanticCache(vectorStore, 0.99)
+			.build();
+
+		assertThat(client.call("What is the capital of France?")).isEqualTo("Answer 1");
+		Thread.sleep(100);
+		assertThat(client.call("what is the capital of france")).isEqualTo("Answer 2");
+	}
+
+	private static String content(ChatResponse response) {
+		return response.getResult().getOutput().getContent();
+	}
+
+	static class TestChatClient implements ChatClient, StreamingChatClient {
+
+		final AtomicInteger calls = new AtomicInteger();
+
+		@Override
+		public ChatResponse call(Prompt prompt) {
+			return new ChatResponse(List.of(new Generation("Answer " + this.calls.incrementAndGet())));
+		}
+
+		@Override
+		public Flux<ChatResponse> stream(Prompt prompt) {
+			return Flux.defer(() -> {
+				int call = this.calls.incrementAndGet();
+				return Flux.just(new ChatResponse(List.of(new Generation("Answer "))),
+						new ChatResponse(List.of(new Generation(String.valueOf(call)))));
+			});
+		}
+
+	}
+
+	static class UnserializableOptions implements ChatOptions {
+
+		@Override
+		public Float getTemperature() {
+			throw new IllegalStateException("Not serializable");
+		}
+
+		@Override
+		public void setTemperature(Float temperature) {
+		}
+
+		@Override
+		public Float getTopP() {
+			return null;
+		}
+
+		@Override
+		public void setTopP(Float topP) {
+		}
+
+		@Override
+		public Integer getTopK() {
+			return null;
+		}
+
+		@Override
+		public void setTopK(Integer topK) {
+		}
+
+	}
+
+	/**
+	 * Embeds a text as the frequencies of its letters, ignoring case and punctuation.
+	 */
+	static class LetterEmbeddingClient implements EmbeddingClient {
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Double> embed(String text) {
+			List<Double> embedding = new ArrayList<>(Collections.nCopies(26, 0.0));
+			for (char c : text.toLowerCase().toCharArray()) {
+				if (c >= 'a' && c <= 'z') {
+					embedding.set(c - 'a', embedding.get(c - 'a') + 1);
+				}
+			}
+			return embedding;
+		}
+
+		@Override
+		public List<Double> embed(Document document) {
+			return embed(document.getFormattedContent(MetadataMode.EMBED));
+		}
+
+	}
+
+}
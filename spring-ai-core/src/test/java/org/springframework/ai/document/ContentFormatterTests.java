@@ -16,6 +16,7 @@
 
 package org.springframework.ai.document;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -91,4 +92,37 @@ public class ContentFormatterTests {
 			.isEqualTo(documentWithCustomFormatter.getFormattedContent());
 	}
 
+	@Test
+	public void repeatedPlaceholders() {
+		DefaultContentFormatter textFormatter = DefaultContentFormatter.builder()
+			.withTextTemplate("{content}|{metadata_string}|{content}")
+			.withMetadataTemplate("{key}{key}={value}")
+			.build();
+
+		var doc = new Document("text", Map.of("k", "v"));
+
+		assertThat(doc.getFormattedContent(textFormatter, MetadataMode.ALL)).isEqualTo("text|kk=v|text");
+		assertThat(doc.getFormattedContent(textFormatter, MetadataMode.NONE)).isEqualTo("text||text");
+	}
+
+	@Test
+	public void formattedContentFollowsMetadataAndFormatterChanges() {
+		var doc = new Document("text", new HashMap<>(Map.of("k1", "v1")));
+
+		String formatted = doc.getFormattedContent();
+		assertThat(formatted).isEqualTo("k1: v1\n\ntext");
+		assertThat(doc.getFormattedContent()).isSameAs(formatted);
+
+		doc.getMetadata().put("k1", "v2");
+		assertThat(doc.getFormattedContent()).isEqualTo("k1: v2\n\ntext");
+
+		doc.setContentFormatter(DefaultContentFormatter.builder().withTextTemplate("{content}").build());
+		assertThat(doc.getFormattedContent()).isEqualTo("text");
+
+		doc.setContentFormatter((document, mode) -> document.getContent() + document.getMetadata().get("k1"));
+		assertThat(doc.getFormattedContent()).isEqualTo("textv2");
+		doc.getMetadata().put("k1", "v3");
+		assertThat(doc.getFormattedContent()).isEqualTo("textv3");
+	}
+
 }
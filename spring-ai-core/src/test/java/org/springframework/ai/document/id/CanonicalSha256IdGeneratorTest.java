@@ -0,0 +1,81 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.springframework.ai.document.id;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CanonicalSha256IdGeneratorTest {
+
+	@Test
+	void jdkCompatibleEncodingReproducesJdkSha256HexIds() {
+		var legacy = new JdkSha256HexIdGenerator();
+		var compatible = CanonicalSha256IdGenerator.jdkCompatible();
+
+		Map<String, Object> metadata = new HashMap<>(Map.of("source", "doc.pdf", "page", 3));
+
+		assertThat(compatible.generateId("Content", metadata)).isEqualTo(legacy.generateId("Content", metadata));
+		assertThat(compatible.generateId("Ünïcödé 🚀", Map.of())).isEqualTo(legacy.generateId("Ünïcödé 🚀", Map.of()));
+	}
+
+	@Test
+	void canonicalIdsDoNotDependOnMapOrdering() {
+		var idGenerator = new CanonicalSha256IdGenerator();
+
+		Map<String, Object> metadata1 = new LinkedHashMap<>();
+		metadata1.put("a", 1);
+		metadata1.put("b", Set.of("x", "y", "z"));
+		Map<String, Object> metadata2 = new LinkedHashMap<>();
+		metadata2.put("b", Set.of("z", "y", "x"));
+		metadata2.put("a", 1);
+
+		String id1 = idGenerator.generateId("Content", metadata1);
+		String id2 = new CanonicalSha256IdGenerator().generateId("Content", metadata2);
+
+		assertThat(id1).isEqualTo(id2);
+		assertThat(UUID.fromString(id1).version()).isEqualTo(5);
+	}
+
+	@Test
+	void canonicalIdsDistinguishContentAndValueTypes() {
+		var idGenerator = new CanonicalSha256IdGenerator();
+
+		assertThat(idGenerator.generateId("Content", Map.of()))
+			.isNotEqualTo(idGenerator.generateId("Content ", Map.of()));
+		assertThat(idGenerator.generateId("Content", Map.of("key", 1)))
+			.isNotEqualTo(idGenerator.generateId("Content", Map.of("key", "1")));
+		assertThat(idGenerator.generateId("ab", "c")).isNotEqualTo(idGenerator.generateId("a", "bc"));
+		assertThat(idGenerator.generateId(List.of("a", "b"))).isNotEqualTo(idGenerator.generateId(List.of("b", "a")));
+	}
+
+	@Test
+	void canonicalIdsHandleLargeContent() {
+		var idGenerator = new CanonicalSha256IdGenerator();
+		String content = "x".repeat(100_000);
+
+		assertThat(idGenerator.generateId(content, Map.of()))
+			.isEqualTo(new CanonicalSha256IdGenerator().generateId(content, Map.of()));
+	}
+
+}
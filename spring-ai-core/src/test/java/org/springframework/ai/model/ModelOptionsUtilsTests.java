@@ -16,8 +16,11 @@
 
 package org.springframework.ai.model;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import org.junit.jupiter.api.Test;
 
@@ -227,4 +230,118 @@ public class ModelOptionsUtilsTests {
 		assertThat(ModelOptionsUtils.getJsonPropertyValues(TestRecord.class)).containsExactly("field1", "field2");
 	}
 
+	public record TestRequest(@JsonProperty("prompt") String prompt, @JsonProperty("max_tokens") int maxTokens,
+			@JsonProperty("temperature") Double temperature, @JsonProperty("stop") List<String> stop,
+			@JsonProperty("mode") TestMode mode) {
+	}
+
+	public enum TestMode {
+
+		FAST, ACCURATE
+
+	}
+
+	public static class TestRequestOptions {
+
+		@JsonProperty("max_tokens")
+		private Integer maxTokens;
+
+		@JsonProperty("temperature")
+		private Float temperature;
+
+		@JsonProperty("stop")
+		private List<String> stop;
+
+		@JsonProperty("mode")
+		private String mode;
+
+		@JsonIgnore
+		private String prompt = "ignored";
+
+		public Integer getMaxTokens() {
+			return this.maxTokens;
+		}
+
+		public void setMaxTokens(Integer maxTokens) {
+			this.maxTokens = maxTokens;
+		}
+
+		public Float getTemperature() {
+			return this.temperature;
+		}
+
+		public void setTemperature(Float temperature) {
+			this.temperature = temperature;
+		}
+
+		public List<String> getStop() {
+			return this.stop;
+		}
+
+		public void setStop(List<String> stop) {
+			this.stop = stop;
+		}
+
+		public String getMode() {
+			return this.mode;
+		}
+
+		public void setMode(String mode) {
+			this.mode = mode;
+		}
+
+		public String getPrompt() {
+			return this.prompt;
+		}
+
+	}
+
+	@Test
+	public void mergeIntoRecord() {
+		TestRequestOptions options = new TestRequestOptions();
+		options.setMaxTokens(100);
+		options.setTemperature(0.7f);
+		options.setStop(new ArrayList<>(List.of("END")));
+		options.setMode("ACCURATE");
+
+		TestRequest request = new TestRequest("Hello", 10, null, null, TestMode.FAST);
+
+		TestRequest merged = ModelOptionsUtils.merge(options, request, TestRequest.class);
+
+		assertThat(merged).isEqualTo(new TestRequest("Hello", 100, 0.7, List.of("END"), TestMode.ACCURATE));
+		assertThat(merged).isEqualTo(ModelOptionsUtils.mapToClass(Map.of("prompt", "Hello", "max_tokens", 100,
+				"temperature", 0.7, "stop", List.of("END"), "mode", "ACCURATE"), TestRequest.class));
+		options.getStop().add("STOP");
+		assertThat(merged.stop()).containsExactly("END");
+
+		TestRequest requestOnly = ModelOptionsUtils.merge(null, request, TestRequest.class);
+		assertThat(requestOnly).isEqualTo(request);
+		assertThat(ModelOptionsUtils.merge(request, null, TestRequest.class)).isEqualTo(request);
+	}
+
+	@Test
+	public void mergeIntoBeanWithAcceptedFieldNames() {
+		TestRequest request = new TestRequest("Hello", 10, 0.5, List.of("END"), TestMode.FAST);
+		TestRequestOptions defaults = new TestRequestOptions();
+		defaults.setMaxTokens(100);
+		defaults.setStop(List.of("STOP"));
+
+		TestRequestOptions merged = ModelOptionsUtils.merge(request, defaults, TestRequestOptions.class,
+				List.of("max_tokens", "temperature", "mode"));
+
+		assertThat(merged.getMaxTokens()).isEqualTo(10);
+		assertThat(merged.getTemperature()).isEqualTo(0.5f);
+		assertThat(merged.getMode()).isEqualTo("FAST");
+		assertThat(merged.getStop()).isNull();
+		assertThat(merged.getPrompt()).isEqualTo("ignored");
+	}
+
+	@Test
+	public void getJsonSchemaIsGeneratedOnce() {
+		String schema = ModelOptionsUtils.getJsonSchema(TestRequest.class);
+
+		assertThat(schema).contains("\"max_tokens\"", "\"stop\"");
+		assertThat(ModelOptionsUtils.getJsonSchema(TestRequest.class)).isSameAs(schema);
+	}
+
 }
\ No newline at end of file
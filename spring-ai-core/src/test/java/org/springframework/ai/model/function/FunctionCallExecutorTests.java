@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.function;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.model.function.FunctionCallExecutor.FunctionCall;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @see FunctionCallExecutor
+ */
+public class FunctionCallExecutorTests {
+
+	private final AtomicInteger inFlight = new AtomicInteger();
+
+	private final AtomicInteger maxInFlight = new AtomicInteger();
+
+	@Test
+	void callsRunConcurrentlyAndRespondInOrder() {
+		FunctionCallExecutor executor = FunctionCallExecutor.builder().withMaxConcurrency(3).build();
+		List<FunctionCall> calls = List.of(call("slow", 300), call("fast", 10), call("medium", 100), call("fast", 10),
+				call("fast", 10));
+
+		List<String> responses = executor.call(calls);
+
+		assertThat(responses).containsExactly("slow 300", "fast 10", "medium 100", "fast 10", "fast 10");
+		assertThat(this.maxInFlight.get()).isEqualTo(3);
+	}
+
+	@Test
+	void slowCallTimesOut() {
+		FunctionCallExecutor executor = FunctionCallExecutor.builder()
+			.withMaxConcurrency(2)
+			.withTimeout(Duration.ofSeconds(10))
+			.withTimeout("slow", Duration.ofMillis(50))
+			.build();
+
+		assertThatThrownBy(() -> executor.call(List.of(call("fast", 10), call("slow", 5000), call("fast", 10))))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Function call 'slow' timed out after PT0.05S");
+	}
+
+	@Test
+	void callErrorIsRethrown() {
+		FunctionCallback failing = new FunctionCallbackWrapper<>("failing", "Fails", String.class, input -> {
+			throw new IllegalArgumentException("Bad input " + input);
+		});
+
+		assertThatThrownBy(() -> FunctionCallExecutor.builder()
+			.withMaxConcurrency(2)
+			.build()
+			.call(List.of(call("fast", 10), new FunctionCall(failing, "\"x\""))))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Bad input x");
+	}
+
+	private FunctionCall call(String name, int sleepMillis) {
+		FunctionCallback callback = new FunctionCallbackWrapper<>(name, "Sleeps", Integer.class, millis -> {
+			this.maxInFlight.accumulateAndGet(this.inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(millis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			finally {
+				this.inFlight.decrementAndGet();
+			}
+			return name + " " + millis;
+		});
+		return new FunctionCall(callback, String.valueOf(sleepMillis));
+	}
+
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.function;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.model.function.FunctionCallResultCache.Stats;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @see FunctionCallResultCache
+ */
+public class FunctionCallResultCacheTests {
+
+	private final AtomicInteger calls = new AtomicInteger();
+
+	record Request(String city, String unit) {
+	}
+
+	@Test
+	void equivalentArgumentsAreCalledOnce() {
+		FunctionCallResultCache cache = FunctionCallResultCache.builder().build();
+		FunctionCallback callback = weather(cache);
+
+		assertThat(callback.call("{\"city\":\"Paris\",\"unit\":\"C\"}")).isEqualTo("Paris 1 C");
+		assertThat(callback.call("{ \"unit\": \"C\",\n \"city\": \"Paris\" }")).isEqualTo("Paris 1 C");
+		assertThat(callback.call("{\"city\":\"Rome\",\"unit\":\"C\"}")).isEqualTo("Rome 2 C");
+
+		assertThat(cache.getStats()).isEqualTo(new Stats(1, 2, 0, 2));
+	}
+
+	@Test
+	void decimalArgumentsKeepTheirPrecision() {
+		assertThat(FunctionCallResultCache.canonicalize("{\"b\": 0.1000000000000000001, \"a\": 1}"))
+			.isEqualTo("{\"a\":1,\"b\":0.1000000000000000001}");
+		assertThat(FunctionCallResultCache.canonicalize("{\"amount\": 0.1000000000000000001}"))
+			.isNotEqualTo(FunctionCallResultCache.canonicalize("{\"amount\": 0.1}"));
+	}
+
+	@Test
+	void entriesExpireAndAreEvicted() throws InterruptedException {
+		FunctionCallResultCache cache = FunctionCallResultCache.builder()
+			.withTtl("weather", Duration.ofMillis(50))
+			.withMaxSize(2)
+			.build();
+		FunctionCallback callback = weather(cache);
+
+		assertThat(callback.call("{\"city\":\"Paris\"}")).isEqualTo("Paris 1 null");
+		Thread.sleep(100);
+		assertThat(callback.call("{\"city\":\"Paris\"}")).isEqualTo("Paris 2 null");
+		callback.call("{\"city\":\"Rome\"}");
+		callback.call("{\"city\":\"Oslo\"}");
+
+		assertThat(cache.getStats()).isEqualTo(new Stats(0, 4, 1, 2));
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		FunctionCallResultCache cache = FunctionCallResultCache.builder().build();
+		FunctionCallback callback = FunctionCallbackWrapper.builder((Request request) -> {
+			if (this.calls.incrementAndGet() == 1) {
+				throw new IllegalStateException("Unavailable");
+			}
+			return request.city();
+		}).withName("weather").withDescription("Weather").withInputType(Request.class).withResultCache(cache).build();
+
+		assertThatThrownBy(() -> callback.call("{\"city\":\"Paris\"}")).hasMessage("Unavailable");
+		assertThat(callback.call("{\"city\":\"Paris\"}")).isEqualTo("Paris");
+		assertThat(cache.getStats().size()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentDuplicateCallsShareOneCall() throws Exception {
+		CountDownLatch firstCallStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		FunctionCallResultCache cache = FunctionCallResultCache.builder().build();
+		FunctionCallback callback = FunctionCallbackWrapper.builder((Request request) -> {
+			this.calls.incrementAndGet();
+			firstCallStarted.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return request.city();
+		}).withName("weather").withDescription("Weather").withInputType(Request.class).withResultCache(cache).build();
+		String arguments = "{\"city\":\"Paris\"}";
+
+		ExecutorService pool = Executors.newFixedThreadPool(2);
+		try {
+			Future<String> first = pool.submit(() -> callback.call(arguments));
+			assertThat(firstCallStarted.await(5, TimeUnit.SECONDS)).isTrue();
+			Future<String> second = pool.submit(() -> callback.call(arguments));
+
+			// The second caller counts as a hit before it waits for the shared call
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (cache.getStats().hits() == 0) {
+				assertThat(System.nanoTime() - deadline).isNegative();
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("Paris");
+			assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("Paris");
+		}
+		finally {
+			pool.shutdownNow();
+		}
+		assertThat(this.calls.get()).isEqualTo(1);
+		assertThat(cache.getStats().hits()).isEqualTo(1);
+	}
+
+	private FunctionCallback weather(FunctionCallResultCache cache) {
+		return FunctionCallbackWrapper
+			.builder((Request request) -> request.city() + " " + this.calls.incrementAndGet() + " " + request.unit())
+			.withName("weather")
+			.withDescription("Weather")
+			.withInputType(Request.class)
+			.withResultCache(cache)
+			.build();
+	}
+
+}
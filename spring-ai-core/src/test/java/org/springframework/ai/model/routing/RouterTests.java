@@ -0,0 +1,238 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.model.routing;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.embedding.EmbeddingClient;
+import org.springframework.ai.embedding.EmbeddingRequest;
+import org.springframework.ai.embedding.EmbeddingResponse;
+import org.springframework.ai.embedding.RoutingEmbeddingClient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * @see Router
+ */
+public class RouterTests {
+
+	@Test
+	void fastestBackendIsPreferred() {
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("slow", sleeping("slow", 50))
+			.withBackend("fast", sleeping("fast", 1))
+			.withHedging(false)
+			.build();
+
+		for (int i = 0; i < 5; i++) {
+			call(router);
+		}
+
+		assertThat(call(router)).isEqualTo("fast x");
+		assertThat(router.candidates(null)).extracting(Router.Backend::name).containsExactly("fast", "slow");
+		assertThat(router.getStats().get("slow").getLatencyCount()).isEqualTo(1);
+	}
+
+	@Test
+	void blockingCallsRecordTheirOutcome() {
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("backend", sleeping("backend", 1))
+			.withHedging(false)
+			.build();
+
+		for (int i = 0; i < 3; i++) {
+			assertThat(call(router)).isEqualTo("backend x");
+		}
+
+		BackendStats stats = router.getStats().get("backend");
+		assertThat(stats.getOutcomeCount()).isEqualTo(3);
+		assertThat(stats.getLatencyCount()).isEqualTo(3);
+		assertThat(stats.getErrorRate()).isZero();
+	}
+
+	@Test
+	void slowBackendIsHedgedAndCancelled() throws InterruptedException {
+		CountDownLatch interrupted = new CountDownLatch(1);
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("stuck", input -> {
+				try {
+					Thread.sleep(10_000);
+				}
+				catch (InterruptedException e) {
+					interrupted.countDown();
+				}
+				return "stuck " + input;
+			})
+			.withBackend("fast", sleeping("fast", 1), 0.5)
+			.withInitialHedgeDelay(Duration.ofMillis(50))
+			.build();
+
+		long start = System.nanoTime();
+		assertThat(call(router)).isEqualTo("fast x");
+
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+		assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+	}
+
+	@Test
+	void failedBackendFailsOverAndBecomesUnhealthy() {
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("failing", input -> {
+				throw new IllegalStateException("Unavailable");
+			}, 2)
+			.withBackend("fallback", sleeping("fallback", 1))
+			.withHedging(false)
+			.build();
+
+		for (int i = 0; i < 5; i++) {
+			assertThat(call(router)).isEqualTo("fallback x");
+		}
+
+		assertThat(router.getStats().get("failing").getErrorRate()).isEqualTo(1.0);
+		assertThat(router.candidates(null)).extracting(Router.Backend::name).containsExactly("fallback", "failing");
+	}
+
+	@Test
+	void lastErrorIsThrownWhenAllBackendsFail() {
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("first", input -> {
+				throw new IllegalStateException("First unavailable");
+			})
+			.withBackend("second", input -> {
+				throw new IllegalStateException("Second unavailable");
+			})
+			.build();
+
+		assertThatThrownBy(() -> call(router)).isInstanceOf(IllegalStateException.class)
+			.hasMessage("Second unavailable");
+	}
+
+	@Test
+	void backendsAreRestrictedToTheirCapabilities() {
+		Router<Function<String, String>> router = Router.<Function<String, String>>builder()
+			.withBackend("local", sleeping("local", 1))
+			.withBackend("remote", sleeping("remote", 1))
+			.withCapabilityWeight("local", "chat", 1)
+			.build();
+
+		assertThat(router.candidates("tools")).extracting(Router.Backend::name).containsExactly("remote");
+		assertThat(router.candidates("chat")).extracting(Router.Backend::name).containsExactly("local", "remote");
+		assertThat(router.candidates(null)).hasSize(2);
+
+		Router<Function<String, String>> localOnly = Router.<Function<String, String>>builder()
+			.withBackend("local", sleeping("local", 1), 1, "chat")
+			.build();
+		assertThatThrownBy(() -> localOnly.call("tools", backend -> backend.apply("x")))
+			.hasMessage("No backend is eligible for capability 'tools'");
+	}
+
+	@Test
+	void slowStreamIsHedged() {
+		Router<Flux<String>> router = Router.<Flux<String>>builder()
+			.withBackend("slow", Flux.just("slow").delayElements(Duration.ofSeconds(10)))
+			.withBackend("fast", Flux.just("fast 1", "fast 2"), 0.5)
+			.withInitialHedgeDelay(Duration.ofMillis(50))
+			.build();
+
+		List<String> elements = router.stream(null, Function.identity()).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(elements).containsExactly("fast 1", "fast 2");
+		assertThat(router.getStats().get("slow").getLatencyCount()).isZero();
+		assertThat(router.getStats().get("slow").getLatencyLowerBound()).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+		assertThat(router.candidates(null)).extracting(Router.Backend::name).containsExactly("fast", "slow");
+	}
+
+	@Test
+	void emptyStreamIsNotHedged() {
+		AtomicInteger hedged = new AtomicInteger();
+		Router<Flux<String>> router = Router.<Flux<String>>builder()
+			.withBackend("empty", Flux.<String>empty().delaySubscription(Duration.ofMillis(10)))
+			.withBackend("hedge", Flux.defer(() -> {
+				hedged.incrementAndGet();
+				return Flux.just("hedge");
+			}), 0.5)
+			.withInitialHedgeDelay(Duration.ofMillis(500))
+			.build();
+
+		long start = System.nanoTime();
+		List<String> elements = router.stream(null, Function.identity()).collectList().block(Duration.ofSeconds(5));
+
+		assertThat(elements).isEmpty();
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+		assertThat(hedged).hasValue(0);
+		assertThat(router.getStats().get("empty").getErrorRate()).isZero();
+	}
+
+	@Test
+	void embeddingsAreRoutedWithinTheirModelGroup() {
+		Router<EmbeddingClient> router = Router.<EmbeddingClient>builder()
+			.withBackend("small", new FixedEmbeddingClient(1.0), 1, "small")
+			.withBackend("large", new FixedEmbeddingClient(2.0), 1, "large")
+			.withBackend("large-replica", new FixedEmbeddingClient(2.0), 1, "large")
+			.build();
+		RoutingEmbeddingClient embeddingClient = new RoutingEmbeddingClient(router, "small");
+
+		assertThat(embeddingClient.embed("text")).containsExactly(1.0);
+		assertThat(embeddingClient.forModelGroup("large").embed("text")).containsExactly(2.0);
+	}
+
+	private static String call(Router<Function<String, String>> router) {
+		return router.call(null, backend -> backend.apply("x"));
+	}
+
+	private static Function<String, String> sleeping(String name, long millis) {
+		return input -> {
+			try {
+				Thread.sleep(millis);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return name + " " + input;
+		};
+	}
+
+	private record FixedEmbeddingClient(double value) implements EmbeddingClient {
+
+		@Override
+		public EmbeddingResponse call(EmbeddingRequest request) {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public List<Double> embed(String text) {
+			return List.of(this.value);
+		}
+
+		@Override
+		public List<Double> embed(Document document) {
+			return embed(document.getContent());
+		}
+
+	}
+
+}
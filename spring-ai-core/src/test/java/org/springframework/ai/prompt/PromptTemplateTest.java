@@ -1,8 +1,10 @@
 package org.springframework.ai.prompt;
 
-import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.prompt.CompiledTemplate;
 import org.springframework.ai.chat.prompt.PromptTemplate;
+import org.springframework.ai.chat.prompt.SystemPromptTemplate;
+import org.springframework.ai.chat.prompt.TemplateFormat;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 
@@ -10,9 +12,13 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class PromptTemplateTest {
@@ -43,7 +49,6 @@ public class PromptTemplateTest {
 		assertEquals(expected, result);
 	}
 
-	@Disabled("Need to improve PromptTemplate to better handle Resource toString and tracking with 'dynamicModel' for underlying StringTemplate")
 	@Test
 	public void testRenderResource() throws Exception {
 		// Create a map with string keys and object values to serve as a generative for
@@ -85,4 +90,41 @@ public class PromptTemplateTest {
 		assertThrows(IllegalStateException.class, promptTemplate::render);
 	}
 
-}
\ No newline at end of file
+	@Test
+	public void testCompiledTemplateIsSharedAndRendersConcurrently() {
+		String template = "{name} is {age} years old{suffix}";
+		CompiledTemplate compiledTemplate = CompiledTemplate.compile(template);
+		assertSame(compiledTemplate, CompiledTemplate.compile(new String(template)));
+		assertEquals(Set.of("name", "age", "suffix"), new PromptTemplate(template).getInputVariables());
+
+		List<String> rendered = IntStream.range(0, 10_000)
+			.parallel()
+			.mapToObj(i -> new PromptTemplate(template)
+				.render(Map.of("name", "user" + i, "age", i, "suffix", "!", "unused" + i, i)))
+			.toList();
+
+		for (int i = 0; i < rendered.size(); i++) {
+			assertEquals("user" + i + " is " + i + " years old!", rendered.get(i));
+		}
+		assertEquals(Set.of("name", "age", "suffix"), compiledTemplate.getInputVariables());
+		assertThrows(IllegalStateException.class, () -> compiledTemplate.render(Map.of("name", "x")));
+	}
+
+	@Test
+	public void testSimpleTemplateFormat() {
+		String template = "Summarize \\{this\\} {context} in {count} words{items}, for {context_2}.";
+		PromptTemplate promptTemplate = new SystemPromptTemplate(template, TemplateFormat.SIMPLE);
+
+		assertEquals(TemplateFormat.SIMPLE, promptTemplate.getTemplateFormat());
+		assertEquals(Set.of("context", "count", "items", "context_2"), promptTemplate.getInputVariables());
+		Map<String, Object> model = Map.of("context", "the text", "count", 20, "items", List.of(":", " a", " b"),
+				"context_2", "me");
+		assertEquals("Summarize {this} the text in 20 words: a b, for me.", promptTemplate.render(model));
+		assertEquals(new PromptTemplate(template).render(model), promptTemplate.render(model));
+
+		assertThrows(IllegalStateException.class, () -> promptTemplate.render(Map.of("context", "the text")));
+		assertThrows(IllegalArgumentException.class, () -> new PromptTemplate("{a.b}", TemplateFormat.SIMPLE));
+		assertThrows(IllegalArgumentException.class, () -> new PromptTemplate("{open", TemplateFormat.SIMPLE));
+	}
+
+}
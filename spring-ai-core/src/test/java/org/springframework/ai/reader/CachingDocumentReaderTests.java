@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentReader;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @see CachingDocumentReader
+ */
+public class CachingDocumentReaderTests {
+
+	@TempDir
+	Path tempDir;
+
+	private final AtomicInteger parses = new AtomicInteger();
+
+	private final Function<Resource, DocumentReader> readerFactory = resource -> {
+		this.parses.incrementAndGet();
+		return () -> {
+			try {
+				String text = resource.getContentAsString(StandardCharsets.UTF_8);
+				return List.of(new Document(text, Map.of("page_number", 1, "file_name", "a.pdf")),
+						new Document(text.toUpperCase()));
+			}
+			catch (IOException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+	};
+
+	@Test
+	void skipsParsingOfUnchangedFiles() throws IOException {
+		Path cache = this.tempDir.resolve("cache");
+		Path file = this.tempDir.resolve("a.pdf");
+		Files.writeString(file, "first");
+		Resource resource = new FileSystemResource(file);
+
+		List<Document> parsed = new CachingDocumentReader(cache, resource, "page v1", this.readerFactory).get();
+		List<Document> cached = new CachingDocumentReader(cache, resource, "page v1", this.readerFactory).get();
+
+		assertThat(this.parses).hasValue(1);
+		assertThat(cached).isEqualTo(parsed);
+		assertThat(cached.get(0).getMetadata()).containsEntry("page_number", 1).containsEntry("file_name", "a.pdf");
+
+		new CachingDocumentReader(cache, resource, "page v2", this.readerFactory).get();
+		assertThat(this.parses).hasValue(2);
+
+		Files.writeString(file, "second");
+		List<Document> changed = new CachingDocumentReader(cache, resource, "page v1", this.readerFactory).get();
+		assertThat(this.parses).hasValue(3);
+		assertThat(changed).extracting(Document::getContent).containsExactly("second", "SECOND");
+	}
+
+	@Test
+	void reparsesUnreadableEntries() throws IOException {
+		Path cache = this.tempDir.resolve("cache");
+		Path file = this.tempDir.resolve("a.pdf");
+		Files.writeString(file, "text");
+		CachingDocumentReader reader = new CachingDocumentReader(cache, new FileSystemResource(file), "page",
+				this.readerFactory);
+		reader.get();
+		Files.write(cache.resolve(reader.cacheKey() + ".bin.gz"), new byte[] { 0x1f, (byte) 0x8b, 1, 2 });
+
+		assertThat(reader.get()).extracting(Document::getContent).containsExactly("text", "TEXT");
+		assertThat(this.parses).hasValue(2);
+		assertThat(reader.get()).hasSize(2);
+		assertThat(this.parses).hasValue(2);
+	}
+
+}
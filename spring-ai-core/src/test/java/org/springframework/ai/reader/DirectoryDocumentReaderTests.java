@@ -0,0 +1,157 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.DocumentReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * @see DirectoryDocumentReader
+ */
+public class DirectoryDocumentReaderTests {
+
+	@TempDir
+	Path root;
+
+	@Test
+	void readsFilesConcurrentlyInPathOrder() throws IOException {
+		for (int i = 0; i < 50; i++) {
+			Files.writeString(this.root.resolve("text-%02d.txt".formatted(i)), "text " + i);
+		}
+		Files.createDirectories(this.root.resolve("nested"));
+		Files.writeString(this.root.resolve("nested/items.json"), "[{\"name\": \"a\"}, {\"name\": \"b\"}]");
+		Files.writeString(this.root.resolve("nested/broken.json"), "[{\"name\": ");
+		Files.writeString(this.root.resolve("image.png"), "not read");
+
+		Map<Path, Throwable> failures = new ConcurrentHashMap<>();
+		List<Document> documents = DirectoryDocumentReader.builder(this.root)
+			.withMaxConcurrency(4)
+			.withFailureHandler(failures::put)
+			.build()
+			.get();
+
+		assertThat(documents).hasSize(52);
+		assertThat(documents.get(0).getContent()).isEqualTo("{name=a}");
+		assertThat(documents.get(1).getContent()).isEqualTo("{name=b}");
+		for (int i = 0; i < 50; i++) {
+			assertThat(documents.get(i + 2).getContent()).isEqualTo("text " + i);
+		}
+		assertThat(failures).containsOnlyKeys(this.root.resolve("nested/broken.json"));
+	}
+
+	@Test
+	void suppliedExecutorReadsAtMostMaxConcurrencyFilesAtOnce() throws IOException {
+		for (int i = 0; i < 20; i++) {
+			Files.writeString(this.root.resolve("text-%02d.txt".formatted(i)), "text " + i);
+		}
+		AtomicInteger reading = new AtomicInteger();
+		AtomicInteger maxReading = new AtomicInteger();
+		ExecutorService executor = Executors.newCachedThreadPool();
+		try {
+			List<Document> documents = DirectoryDocumentReader.builder(this.root).withReader(resource -> () -> {
+				maxReading.accumulateAndGet(reading.incrementAndGet(), Math::max);
+				try {
+					TimeUnit.MILLISECONDS.sleep(10);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				reading.decrementAndGet();
+				return List.of(new Document(resource.getFilename()));
+			}, "txt").withExecutor(executor).withMaxConcurrency(2).build().get();
+
+			assertThat(documents).hasSize(20);
+			assertThat(maxReading.get()).isBetween(1, 2);
+		}
+		finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void routesFilesByPatternAndExtension() throws IOException {
+		Files.createDirectories(this.root.resolve("docs/deep"));
+		Files.writeString(this.root.resolve("docs/a.CSV"), "a,b");
+		Files.writeString(this.root.resolve("docs/deep/b.csv"), "c,d");
+		Files.writeString(this.root.resolve("docs/c.txt"), "read by an empty reader");
+		Files.writeString(this.root.resolve("d.log"), "outside the pattern");
+
+		List<Document> documents = DirectoryDocumentReader.builder(this.root)
+			.withPattern("docs/**/*.*")
+			.withReader(resource -> () -> List.of(new Document("csv " + resource.getFilename())), "csv")
+			.withReader(resource -> List::of, "txt")
+			.withDefaultReader(resource -> () -> List.of(new Document("other " + resource.getFilename())))
+			.withMaxConcurrency(1)
+			.build()
+			.get();
+
+		assertThat(documents).extracting(Document::getContent).containsExactly("csv a.CSV", "csv b.csv");
+	}
+
+	@Test
+	void closesAutoCloseableReaders() throws IOException {
+		Files.writeString(this.root.resolve("a.txt"), "a");
+		Files.writeString(this.root.resolve("b.txt"), "b");
+		Set<String> closed = ConcurrentHashMap.newKeySet();
+
+		List<Document> documents = DirectoryDocumentReader.builder(this.root)
+			.withReader(resource -> new ClosingReader(resource.getFilename(), closed), "txt")
+			.withFailureHandler((file, error) -> {
+			})
+			.withMaxConcurrency(2)
+			.build()
+			.get();
+
+		assertThat(documents).extracting(Document::getContent).containsExactly("a.txt");
+		assertThat(closed).containsExactlyInAnyOrder("a.txt", "b.txt");
+	}
+
+	private record ClosingReader(String name, Set<String> closed) implements DocumentReader, AutoCloseable {
+
+		@Override
+		public List<Document> get() {
+			if (this.name.startsWith("b")) {
+				throw new IllegalStateException("Unreadable " + this.name);
+			}
+			return List.of(new Document(this.name));
+		}
+
+		@Override
+		public void close() {
+			this.closed.add(this.name);
+		}
+
+	}
+
+}
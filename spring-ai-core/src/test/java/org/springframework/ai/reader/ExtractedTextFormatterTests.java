@@ -0,0 +1,61 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.reader;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExtractedTextFormatterTests {
+
+	@Test
+	void trimAdjacentBlankLines() {
+		assertThat(ExtractedTextFormatter.trimAdjacentBlankLines("a\n\n\n\nb")).isEqualTo("a\n\nb");
+		assertThat(ExtractedTextFormatter.trimAdjacentBlankLines("a\n   \n \n\nb")).isEqualTo("a\n\nb");
+		assertThat(ExtractedTextFormatter.trimAdjacentBlankLines("a\r\n\r\n\r\nb")).isEqualTo("a\r\n\r\nb");
+		assertThat(ExtractedTextFormatter.trimAdjacentBlankLines("a\n\nb\n  c\n")).isEqualTo("a\n\nb\n  c\n");
+		// A blank line ending the text is not merged
+		assertThat(ExtractedTextFormatter.trimAdjacentBlankLines("a\n\n\n\n")).isEqualTo("a\n\n\n");
+	}
+
+	@Test
+	void alignToLeft() {
+		assertThat(ExtractedTextFormatter.alignToLeft("  a   b  \n\n    c\td \r\n   \r\ne"))
+			.isEqualTo("a b\nc\td\r\ne");
+		assertThat(ExtractedTextFormatter.alignToLeft("a\n\n")).isEqualTo("a\n\n");
+		assertThat(ExtractedTextFormatter.alignToLeft("a\n\n   ")).isEqualTo("a\n\n");
+	}
+
+	@Test
+	void formatDeletesTopAndBottomLines() {
+		String separator = System.lineSeparator();
+		String page = String.join(separator, "header", "", "", "  first   line", "second line", "footer 1");
+
+		ExtractedTextFormatter formatter = ExtractedTextFormatter.builder()
+			.withNumberOfTopTextLinesToDelete(1)
+			.withNumberOfBottomTextLinesToDelete(1)
+			.withNumberOfTopPagesToSkipBeforeDelete(1)
+			.withLeftAlignment(true)
+			.build();
+
+		assertThat(formatter.format(page, 0))
+			.isEqualTo(String.join(separator, "header", "first line", "second line", "footer 1"));
+		assertThat(formatter.format(page, 1)).isEqualTo("first line" + separator + "second line");
+		assertThat(formatter.format("   ", 1)).isEqualTo("");
+	}
+
+}
@@ -23,7 +23,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.core.io.Resource;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.springframework.core.io.ByteArrayResource;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -44,4 +50,61 @@ public class JsonReaderTests {
 		}
 	}
 
+	@Test
+	void loadJsonLines() {
+		String jsonLines = """
+				{"name": "Bike 1", "price": 100}
+				{"name": "Bike 2", "price": 200}
+
+				{"name": "Bike 3", "price": 300}
+				""";
+		JsonReader jsonReader = new JsonReader(resource(jsonLines), item -> Map.of("price", item.get("price")), "name");
+		List<Document> documents = jsonReader.get();
+		assertThat(documents).extracting(Document::getContent)
+			.containsExactly("name: Bike 1" + System.lineSeparator(), "name: Bike 2" + System.lineSeparator(),
+					"name: Bike 3" + System.lineSeparator());
+		assertThat(documents).extracting(document -> document.getMetadata().get("price"))
+			.containsExactly(100, 200, 300);
+	}
+
+	@Test
+	void loadNestedArrayWithJsonPointer() {
+		String json = """
+				{
+				  "meta": {"count": 2, "tags": [{"name": "ignored"}]},
+				  "catalog": {"skipped": [1, 2, {"a": [3]}], "products": [{"name": "A"}, 42, {"name": "B"}]},
+				  "trailer": {"name": "ignored"}
+				}
+				{"catalog": {"products": [{"name": "C"}]}}
+				{"other": [{"name": "ignored"}]}
+				""";
+		JsonReader jsonReader = new JsonReader(resource(json), "name");
+		jsonReader.setJsonPointer("/catalog/products");
+		assertThat(jsonReader.get()).extracting(Document::getContent)
+			.containsExactly("name: A" + System.lineSeparator(), "name: B" + System.lineSeparator(),
+					"name: C" + System.lineSeparator());
+
+		jsonReader.setJsonPointer("/catalog/products/1");
+		assertThat(jsonReader.get()).isEmpty();
+
+		jsonReader.setJsonPointer("/catalog/products/2");
+		assertThat(jsonReader.get()).extracting(Document::getContent)
+			.containsExactly("name: B" + System.lineSeparator());
+	}
+
+	@Test
+	void streamIsLazy() {
+		String json = "[{\"name\": \"A\"}, {\"name\": \"B\"}, {\"name\": not valid json";
+		JsonReader jsonReader = new JsonReader(resource(json), "name");
+		try (Stream<Document> documents = jsonReader.stream()) {
+			Iterator<Document> iterator = documents.iterator();
+			assertThat(iterator.next().getContent()).isEqualTo("name: A" + System.lineSeparator());
+			assertThat(iterator.next().getContent()).isEqualTo("name: B" + System.lineSeparator());
+		}
+	}
+
+	private static ByteArrayResource resource(String json) {
+		return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8));
+	}
+
 }
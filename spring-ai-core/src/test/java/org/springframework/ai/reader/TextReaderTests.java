@@ -16,12 +16,17 @@
 
 package org.springframework.ai.reader;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.Test;
 
 import org.springframework.ai.document.Document;
 import org.springframework.ai.transformer.splitter.TokenTextSplitter;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.DefaultResourceLoader;
 import org.springframework.core.io.Resource;
 
@@ -54,4 +59,95 @@ public class TextReaderTests {
 		}
 	}
 
-}
\ No newline at end of file
+	@Test
+	void loadTextInWindows() throws Exception {
+		TextReader textReader = new TextReader(resource);
+		textReader.setWindowSize(1000);
+		textReader.getCustomMetadata().put("customKey", "Value");
+
+		List<Document> documents = textReader.get();
+		byte[] bytes = resource.getContentAsByteArray();
+
+		assertThat(documents).hasSizeGreaterThan(1);
+		long previousEndByte = 0;
+		long previousEndLine = 0;
+		for (Document document : documents) {
+			assertThat(document.getContent().length()).isLessThanOrEqualTo(1000);
+			assertThat(document.getMetadata().get("customKey")).isEqualTo("Value");
+			assertThat(document.getMetadata().get(TextReader.SOURCE_METADATA)).isEqualTo("text_source.txt");
+
+			int startByte = ((Long) document.getMetadata().get(TextReader.START_BYTE_METADATA)).intValue();
+			int endByte = ((Long) document.getMetadata().get(TextReader.END_BYTE_METADATA)).intValue();
+			assertThat(startByte).isGreaterThanOrEqualTo((int) previousEndByte);
+			assertThat(new String(Arrays.copyOfRange(bytes, startByte, endByte), StandardCharsets.UTF_8))
+				.isEqualTo(document.getContent());
+			previousEndByte = endByte;
+
+			long startLine = (Long) document.getMetadata().get(TextReader.START_LINE_METADATA);
+			long endLine = (Long) document.getMetadata().get(TextReader.END_LINE_METADATA);
+			assertThat(startLine).isGreaterThan(previousEndLine);
+			assertThat(endLine).isGreaterThanOrEqualTo(startLine);
+			previousEndLine = endLine;
+		}
+		assertThat(previousEndByte).isEqualTo(bytes.length);
+	}
+
+	@Test
+	void windowsEndAtParagraphsAndSplitLongLines() {
+		String text = "aaaa\nbbbb\n\ncccc\ndddd\n" + "é".repeat(25) + "\n";
+		TextReader textReader = new TextReader(new ByteArrayResource(text.getBytes(StandardCharsets.UTF_8)));
+		textReader.setWindowSize(16);
+
+		try (Stream<Document> documents = textReader.stream()) {
+			Iterator<Document> iterator = documents.iterator();
+
+			Document first = iterator.next();
+			assertThat(first.getContent()).isEqualTo("aaaa\nbbbb\n\n");
+			assertThat(first.getMetadata()).containsEntry(TextReader.START_LINE_METADATA, 1L)
+				.containsEntry(TextReader.END_LINE_METADATA, 3L);
+
+			Document second = iterator.next();
+			assertThat(second.getContent()).isEqualTo("cccc\ndddd\n");
+			assertThat(second.getMetadata()).containsEntry(TextReader.START_BYTE_METADATA, 11L)
+				.containsEntry(TextReader.END_BYTE_METADATA, 21L);
+
+			Document third = iterator.next();
+			assertThat(third.getContent()).isEqualTo("é".repeat(16));
+			assertThat(third.getMetadata()).containsEntry(TextReader.START_BYTE_METADATA, 21L)
+				.containsEntry(TextReader.END_BYTE_METADATA, 53L)
+				.containsEntry(TextReader.START_LINE_METADATA, 6L);
+
+			Document fourth = iterator.next();
+			assertThat(fourth.getContent()).isEqualTo("é".repeat(9) + "\n");
+			assertThat(fourth.getMetadata()).containsEntry(TextReader.END_BYTE_METADATA, 72L)
+				.containsEntry(TextReader.END_LINE_METADATA, 6L);
+
+			assertThat(iterator.hasNext()).isFalse();
+		}
+	}
+
+	@Test
+	void linesLongerThanTheWindowAreReadInPieces() {
+		String text = "a" + "é".repeat(100_000) + "\nlast\n";
+		byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+		TextReader textReader = new TextReader(new ByteArrayResource(bytes));
+		textReader.setWindowSize(33);
+
+		List<Document> documents = textReader.get();
+
+		StringBuilder content = new StringBuilder();
+		for (Document document : documents) {
+			assertThat(document.getContent().length()).isLessThanOrEqualTo(33);
+			int startByte = ((Long) document.getMetadata().get(TextReader.START_BYTE_METADATA)).intValue();
+			int endByte = ((Long) document.getMetadata().get(TextReader.END_BYTE_METADATA)).intValue();
+			assertThat(new String(Arrays.copyOfRange(bytes, startByte, endByte), StandardCharsets.UTF_8))
+				.isEqualTo(document.getContent());
+			content.append(document.getContent());
+		}
+		assertThat(content.toString()).isEqualTo(text);
+		assertThat(documents.get(0).getMetadata()).containsEntry(TextReader.START_LINE_METADATA, 1L);
+		assertThat(documents.get(documents.size() - 1).getMetadata()).containsEntry(TextReader.END_LINE_METADATA, 2L)
+			.containsEntry(TextReader.END_BYTE_METADATA, (long) bytes.length);
+	}
+
+}
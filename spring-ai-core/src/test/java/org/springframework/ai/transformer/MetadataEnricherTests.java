@@ -0,0 +1,277 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.transformer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.ai.chat.ChatClient;
+import org.springframework.ai.chat.ChatResponse;
+import org.springframework.ai.chat.Generation;
+import org.springframework.ai.document.Document;
+import org.springframework.ai.document.MetadataMode;
+import org.springframework.ai.transformer.SummaryMetadataEnricher.SummaryType;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link KeywordMetadataEnricher} and {@link SummaryMetadataEnricher}.
+ */
+public class MetadataEnricherTests {
+
+	private static final Pattern CONTENT_PATTERN = Pattern.compile("content \\d+");
+
+	private static List<Document> documents(int count) {
+		List<Document> documents = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			documents.add(new Document("doc" + i, "content " + i, new HashMap<>()));
+		}
+		return documents;
+	}
+
+	private static String contentOf(String prompt) {
+		Matcher matcher = CONTENT_PATTERN.matcher(prompt);
+		assertThat(matcher.find()).isTrue();
+		return matcher.group();
+	}
+
+	@Test
+	void concurrentSummariesKeepPreviousAndNextLinking() {
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		ChatClient chatClient = prompt -> {
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+			try {
+				Thread.sleep(10);
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			inFlight.decrementAndGet();
+			return new ChatResponse(List.of(new Generation("summary of " + contentOf(prompt.getContents()))));
+		};
+
+		var executor = EnrichmentExecutor.builder().withMaxConcurrency(4).build();
+		var enricher = new SummaryMetadataEnricher(chatClient,
+				List.of(SummaryType.PREVIOUS, SummaryType.CURRENT, SummaryType.NEXT),
+				SummaryMetadataEnricher.DEFAULT_SUMMARY_EXTRACT_TEMPLATE, MetadataMode.NONE, executor);
+
+		List<Document> documents = enricher.apply(documents(12));
+
+		assertThat(maxInFlight.get()).isBetween(2, 4);
+		for (int i = 0; i < documents.size(); i++) {
+			Map<String, Object> metadata = documents.get(i).getMetadata();
+			assertThat(metadata).containsEntry("section_summary", "summary of content " + i);
+			if (i > 0) {
+				assertThat(metadata).containsEntry("prev_section_summary", "summary of content " + (i - 1));
+			}
+			if (i < documents.size() - 1) {
+				assertThat(metadata).containsEntry("next_section_summary", "summary of content " + (i + 1));
+			}
+		}
+	}
+
+	@Test
+	void failedKeywordCallsAreRetriedAndRecordedWithoutAbortingTheBatch() {
+		Map<String, AtomicInteger> attempts = new ConcurrentHashMap<>();
+		ChatClient chatClient = prompt -> {
+			String content = contentOf(prompt.getContents());
+			int attempt = attempts.computeIfAbsent(content, key -> new AtomicInteger()).incrementAndGet();
+			if (content.equals("content 1") && attempt == 1) {
+				throw new IllegalStateException("transient");
+			}
+			if (content.equals("content 2")) {
+				throw new IllegalStateException("permanent");
+			}
+			return new ChatResponse(List.of(new Generation("keywords of " + content)));
+		};
+
+		List<Object> failed = new CopyOnWriteArrayList<>();
+		var executor = EnrichmentExecutor.builder()
+			.withMaxConcurrency(2)
+			.withMaxAttempts(2)
+			.withRetryBackoff(Duration.ofMillis(1))
+			.withFailureHandler((document, error) -> failed.add(document))
+			.build();
+
+		List<Document> documents = new KeywordMetadataEnricher(chatClient, 3, executor).apply(documents(4));
+
+		assertThat(documents.get(0).getMetadata()).containsEntry("excerpt_keywords", "keywords of content 0");
+		assertThat(documents.get(1).getMetadata()).containsEntry("excerpt_keywords", "keywords of content 1");
+		assertThat(documents.get(2).getMetadata()).doesNotContainKey("excerpt_keywords");
+		assertThat(documents.get(3).getMetadata()).containsEntry("excerpt_keywords", "keywords of content 3");
+		assertThat(failed).containsExactly(documents.get(2));
+		assertThat(attempts.get("content 2").get()).isEqualTo(2);
+	}
+
+	@Test
+	void failedKeywordCallIsRethrownByDefault() {
+		ChatClient chatClient = prompt -> {
+			if (prompt.getContents().contains("content 1")) {
+				throw new IllegalStateException("permanent");
+			}
+			return new ChatResponse(List.of(new Generation("keywords")));
+		};
+
+		assertThatThrownBy(() -> new KeywordMetadataEnricher(chatClient, 3).apply(documents(3)))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("permanent");
+		assertThatThrownBy(() -> new KeywordMetadataEnricher(chatClient, 3,
+				EnrichmentExecutor.builder().withMaxConcurrency(2).build())
+			.apply(documents(3))).isInstanceOf(IllegalStateException.class).hasMessage("permanent");
+	}
+
+	@Test
+	void packedKeywordsUseOneRequestPerGroupAndFallBackOnUnparsableResponses() {
+		List<String> prompts = new CopyOnWriteArrayList<>();
+		ChatClient chatClient = prompt -> {
+			String text = prompt.getContents();
+			prompts.add(text);
+			if (!text.contains("### Section")) {
+				return new ChatResponse(List.of(new Generation("single " + contentOf(text))));
+			}
+			if (text.contains("content 4")) {
+				return new ChatResponse(List.of(new Generation("not json")));
+			}
+			Matcher matcher = CONTENT_PATTERN.matcher(text);
+			StringBuilder json = new StringBuilder("```json\n{");
+			for (int section = 1; matcher.find(); section++) {
+				json.append(section > 1 ? "," : "")
+					.append('"')
+					.append(section)
+					.append("\": [\"packed\", \"")
+					.append(matcher.group())
+					.append("\"]");
+			}
+			return new ChatResponse(List.of(new Generation(json.append("}\n```").toString())));
+		};
+
+		var enricher = new KeywordMetadataEnricher(chatClient, 2, EnrichmentExecutor.SEQUENTIAL,
+				new DocumentPacker(1000, 3));
+
+		List<Document> documents = enricher.apply(documents(7));
+
+		// groups [0,1,2] and [3,4,5] are packed, [6] is sent alone; [3,4,5] falls back
+		assertThat(prompts).hasSize(6);
+		assertThat(documents.get(0).getMetadata()).containsEntry("excerpt_keywords", "packed, content 0");
+		assertThat(documents.get(2).getMetadata()).containsEntry("excerpt_keywords", "packed, content 2");
+		assertThat(documents.get(3).getMetadata()).containsEntry("excerpt_keywords", "single content 3");
+		assertThat(documents.get(5).getMetadata()).containsEntry("excerpt_keywords", "single content 5");
+		assertThat(documents.get(6).getMetadata()).containsEntry("excerpt_keywords", "single content 6");
+	}
+
+	@Test
+	void failedPackedCallsFallBackWithoutReachingTheFailureHandler() {
+		List<String> prompts = new CopyOnWriteArrayList<>();
+		ChatClient chatClient = prompt -> {
+			String text = prompt.getContents();
+			prompts.add(text);
+			if (!text.contains("### Section")) {
+				if (text.contains("content 3")) {
+					throw new IllegalStateException("500 Internal Server Error");
+				}
+				return new ChatResponse(List.of(new Generation("single " + contentOf(text))));
+			}
+			if (text.contains("content 2")) {
+				throw new IllegalStateException("429 Too Many Requests");
+			}
+			return new ChatResponse(List.of(new Generation("{\"1\": \"packed 0\", \"2\": \"packed 1\"}")));
+		};
+		List<Object> failed = new CopyOnWriteArrayList<>();
+		var executor = EnrichmentExecutor.builder()
+			.withMaxAttempts(2)
+			.withRetryBackoff(Duration.ofMillis(1))
+			.withFailureHandler((input, error) -> failed.add(input))
+			.build();
+
+		List<Document> documents = new KeywordMetadataEnricher(chatClient, 2, executor, new DocumentPacker(1000, 2))
+			.apply(documents(4));
+
+		// [0,1] is packed, [2,3] fails once and falls back; document 3 fails both
+		// attempts
+		assertThat(prompts).hasSize(5);
+		assertThat(documents.get(0).getMetadata()).containsEntry("excerpt_keywords", "packed 0");
+		assertThat(documents.get(1).getMetadata()).containsEntry("excerpt_keywords", "packed 1");
+		assertThat(documents.get(2).getMetadata()).containsEntry("excerpt_keywords", "single content 2");
+		assertThat(documents.get(3).getMetadata()).doesNotContainKey("excerpt_keywords");
+		assertThat(failed).containsExactly(documents.get(3));
+	}
+
+	@Test
+	void localKeywordsPreferDistinctiveTermsAndDelegateShortDocuments() {
+		List<Document> documents = new ArrayList<>(List.of(
+				new Document(
+						"Kubernetes schedules pods onto nodes. The scheduler places pods using resource requests. "
+								+ "Pods that cannot be placed stay pending until nodes free up resources for the pods.",
+						new HashMap<>()),
+				new Document(
+						"Postgres stores rows in pages. Vacuum reclaims pages from dead rows. "
+								+ "Indexes point to rows and pages, and vacuum keeps index pages compact for queries.",
+						new HashMap<>()),
+				new Document("content 7", new HashMap<>())));
+
+		List<Document> delegated = new ArrayList<>();
+		ChatClient chatClient = prompt -> new ChatResponse(List.of(new Generation("llm keywords")));
+		var fallback = new KeywordMetadataEnricher(chatClient, 3) {
+			@Override
+			public List<Document> apply(List<Document> documents) {
+				delegated.addAll(documents);
+				return super.apply(documents);
+			}
+		};
+
+		new LocalKeywordMetadataEnricher(3, 10, fallback, EnrichmentExecutor.SEQUENTIAL).apply(documents);
+
+		assertThat(documents.get(0).getMetadata().get("excerpt_keywords").toString()).contains("pods");
+		assertThat(documents.get(1).getMetadata().get("excerpt_keywords").toString()).contains("pages")
+			.doesNotContain("the");
+		assertThat(delegated).containsExactly(documents.get(2));
+		assertThat(documents.get(2).getMetadata()).containsEntry("excerpt_keywords", "llm keywords");
+	}
+
+	@Test
+	void localSummariesExtractCentralSentencesInOriginalOrder() {
+		String text = "Solar panels convert sunlight into electricity. " + "The weather was pleasant on Tuesday. "
+				+ "Modern solar panels convert about twenty percent of sunlight into electricity. "
+				+ "Electricity from solar panels can be stored in batteries. " + "My cat enjoys sleeping.";
+		List<Document> documents = List.of(new Document(text, new HashMap<>()),
+				new Document("Batteries store electricity for later use.", new HashMap<>()));
+
+		new LocalSummaryMetadataEnricher(List.of(SummaryType.CURRENT, SummaryType.NEXT), 2, 1, Locale.ENGLISH, null,
+				EnrichmentExecutor.SEQUENTIAL)
+			.apply(documents);
+
+		assertThat(documents.get(0).getMetadata()).containsEntry("section_summary",
+				"Solar panels convert sunlight into electricity. "
+						+ "Modern solar panels convert about twenty percent of sunlight into electricity.");
+		assertThat(documents.get(0).getMetadata()).containsEntry("next_section_summary",
+				"Batteries store electricity for later use.");
+	}
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2024-2024 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.ai.writer;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import org.springframework.ai.document.Document;
+import org.springframework.ai.reader.CheckpointDocumentReader;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Round trip tests for {@link CheckpointDocumentWriter} and
+ * {@link CheckpointDocumentReader}.
+ */
+public class CheckpointDocumentWriterTests {
+
+	@TempDir
+	Path tempDir;
+
+	private static List<Document> documents(int from, int to) {
+		List<Document> documents = new ArrayList<>();
+		for (int i = from; i < to; i++) {
+			Map<String, Object> metadata = new HashMap<>(Map.of("index", i, "source", "file-" + i + ".pdf"));
+			Document document = new Document("id-" + i, "Line one of " + i + "\nLine \"two\" ✓", metadata);
+			document.setEmbedding(List.of(i * 0.5, -1.25, 3.0e-7));
+			documents.add(document);
+		}
+		return documents;
+	}
+
+	@ParameterizedTest
+	@CsvSource({ "JSON_LINES, false", "JSON_LINES, true", "BINARY, false", "BINARY, true" })
+	void roundTripKeepsIdsMetadataAndEmbeddings(CheckpointFormat format, boolean compress) {
+		Path file = this.tempDir.resolve("checkpoint-" + format + "-" + compress);
+
+		try (var writer = new CheckpointDocumentWriter(file, format, compress, false)) {
+			writer.accept(documents(0, 100));
+			writer.accept(documents(100, 250));
+		}
+		try (var writer = new CheckpointDocumentWriter(file, format, compress, true)) {
+			writer.accept(documents(250, 300));
+		}
+
+		List<Document> expected = documents(0, 300);
+		List<Document> actual = new CheckpointDocumentReader(file, format).get();
+
+		assertThat(actual).isEqualTo(expected);
+		for (int i = 0; i < expected.size(); i++) {
+			assertThat(actual.get(i).getEmbedding()).isEqualTo(expected.get(i).getEmbedding());
+		}
+
+		try (Stream<Document> stream = new CheckpointDocumentReader(file, format).stream()) {
+			assertThat(stream.limit(3).map(Document::getId)).containsExactly("id-0", "id-1", "id-2");
+		}
+	}
+
+	@Test
+	void truncatedBinaryRecordFailsInsteadOfReadingShortFields() throws IOException {
+		Path file = this.tempDir.resolve("checkpoint-truncated");
+		try (var writer = new CheckpointDocumentWriter(file, CheckpointFormat.BINARY, false, false)) {
+			writer.accept(documents(0, 2));
+		}
+		byte[] bytes = Files.readAllBytes(file);
+		// cut into the metadata of the last record: 4 + 3 * 8 embedding bytes follow it
+		Files.write(file, Arrays.copyOf(bytes, bytes.length - 28 - 5));
+
+		assertThatThrownBy(() -> new CheckpointDocumentReader(file, CheckpointFormat.BINARY).get())
+			.hasRootCauseInstanceOf(EOFException.class);
+	}
+
+}